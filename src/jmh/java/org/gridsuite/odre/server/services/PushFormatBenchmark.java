@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.io.CountingOutputStream;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.utils.GeographicDataParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the lines of the test files, scaled up by copying the lines under other ids, in each of the
+ * formats the geo data server push supports, and parsing of the serialized lines to a tree, as the receiving side
+ * would do. The body size of each format is printed at setup.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PushFormatBenchmark {
+
+    @Param({"1000"})
+    private int scale;
+
+    @Param({GeoDataPusher.JSON_FORMAT, GeoDataPusher.SMILE_FORMAT, GeoDataPusher.CBOR_FORMAT})
+    private String format;
+
+    private ObjectMapper mapper;
+
+    private ObjectWriter writer;
+
+    private List<LineGeoData> lines;
+
+    private byte[] body;
+
+    private static BufferedReader open(String resource) {
+        return new BufferedReader(new InputStreamReader(PushFormatBenchmark.class.getResourceAsStream(resource), StandardCharsets.UTF_8));
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        Collection<LineGeoData> testLines;
+        try (BufferedReader aerialLines = open("/lignes-aeriennes-rte.csv");
+             BufferedReader undergroundLines = open("/lignes-souterraines-rte.csv");
+             BufferedReader substations = open("/postes-electriques-rte.csv")) {
+            testLines = GeographicDataParser.parseLines(aerialLines, undergroundLines, GeographicDataParser.parseSubstations(substations)).values();
+        }
+        lines = new ArrayList<>(testLines.size() * scale);
+        for (int i = 0; i < scale; i++) {
+            for (LineGeoData line : testLines) {
+                lines.add(new LineGeoData(line.getId() + "_" + i, line.getCountry1(), line.getCountry2(),
+                        line.getSubstationStart(), line.getSubstationEnd(), line.getCoordinates()));
+            }
+        }
+        mapper = switch (format) {
+            case GeoDataPusher.SMILE_FORMAT -> new ObjectMapper(new SmileFactory());
+            case GeoDataPusher.CBOR_FORMAT -> new ObjectMapper(new CBORFactory());
+            default -> new ObjectMapper();
+        };
+        // as in the pusher, elements are not flushed one by one
+        writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        write(outputStream);
+        body = outputStream.toByteArray();
+        System.out.printf("%n%s: %d bytes for %d lines%n", format, body.length, lines.size());
+    }
+
+    private void write(OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+            generator.writeStartArray();
+            for (LineGeoData line : lines) {
+                writer.writeValue(generator, line);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    @Benchmark
+    public long serialize() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream(OutputStream.nullOutputStream());
+        write(outputStream);
+        return outputStream.getCount();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) throws IOException {
+        blackhole.consume(mapper.readTree(body));
+    }
+}
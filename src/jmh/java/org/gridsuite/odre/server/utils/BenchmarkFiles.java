@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Inputs of the benchmarks, made from the test files.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+final class BenchmarkFiles {
+
+    static final String SUBSTATIONS = "/postes-electriques-rte.csv";
+    static final String AERIAL_LINES = "/lignes-aeriennes-rte.csv";
+    static final String UNDERGROUND_LINES = "/lignes-souterraines-rte.csv";
+
+    private BenchmarkFiles() {
+    }
+
+    static String read(String resource) throws IOException {
+        try (InputStream is = BenchmarkFiles.class.getResourceAsStream(resource)) {
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    static BufferedReader reader(String csv) {
+        return new BufferedReader(new StringReader(csv));
+    }
+
+    /**
+     * @return the test file with its records repeated the given number of times
+     */
+    static String repeatRecords(String resource, int times) throws IOException {
+        String testFile = read(resource);
+        int headerEnd = testFile.indexOf('\n') + 1;
+        StringBuilder builder = new StringBuilder(testFile.length() * times);
+        builder.append(testFile, 0, headerEnd);
+        for (int i = 0; i < times; i++) {
+            builder.append(testFile, headerEnd, testFile.length());
+        }
+        return builder.toString();
+    }
+}
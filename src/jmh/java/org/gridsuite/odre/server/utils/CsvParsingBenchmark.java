@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.supercsv.io.CsvMapReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading of the columns needed by the parser from the aerial lines test file, scaled up by repeating its records:
+ * SuperCSV map reader against {@link CsvTokenizer}. Allocation rates are given by the gc profiler (-prof gc).
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParsingBenchmark {
+
+    private static final List<String> ID_COLUMNS = List.of(FileValidator.CODE_LIGNE_1, FileValidator.CODE_LIGNE_2,
+            FileValidator.CODE_LIGNE_3, FileValidator.CODE_LIGNE_4, FileValidator.CODE_LIGNE_5);
+
+    @Param({"1000"})
+    private int scale;
+
+    private String csv;
+
+    @Setup
+    public void setUp() throws IOException {
+        csv = BenchmarkFiles.repeatRecords(BenchmarkFiles.AERIAL_LINES, scale);
+    }
+
+    @Benchmark
+    public void csvMapReader(Blackhole blackhole) throws IOException {
+        try (CsvMapReader mapReader = new CsvMapReader(new StringReader(csv), FileValidator.CSV_PREFERENCE)) {
+            String[] headers = mapReader.getHeader(true);
+            Map<String, String> row;
+            while ((row = mapReader.read(headers)) != null) {
+                for (String idColumn : ID_COLUMNS) {
+                    blackhole.consume(row.get(idColumn));
+                }
+                blackhole.consume(row.get(FileValidator.GEO_SHAPE));
+            }
+        }
+    }
+
+    @Benchmark
+    public void csvTokenizer(Blackhole blackhole) throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv))) {
+            int[] idColumns = ID_COLUMNS.stream().mapToInt(tokenizer::getColumnIndex).toArray();
+            int geoShapeColumn = tokenizer.requireColumnIndex(FileValidator.GEO_SHAPE);
+            while (tokenizer.next()) {
+                for (int idColumn : idColumns) {
+                    blackhole.consume(tokenizer.getString(idColumn));
+                }
+                blackhole.consume(tokenizer.get(geoShapeColumn));
+            }
+        }
+    }
+}
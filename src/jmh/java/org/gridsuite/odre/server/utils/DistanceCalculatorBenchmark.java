@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distances between consecutive points of a random walk in France, with steps of about 300 m like the spans
+ * between pylons, and distances of these points to the segment joining their neighbours.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DistanceCalculatorBenchmark {
+
+    @Param({"10000"})
+    private int pointCount;
+
+    private double[] lats;
+
+    private double[] lons;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        lats = new double[pointCount];
+        lons = new double[pointCount];
+        lats[0] = 46.5;
+        lons[0] = 2.5;
+        for (int i = 1; i < pointCount; i++) {
+            lats[i] = lats[i - 1] + (random.nextDouble() - 0.5) * 0.005;
+            lons[i] = lons[i - 1] + (random.nextDouble() - 0.5) * 0.007;
+        }
+    }
+
+    @Benchmark
+    public double distance() {
+        double length = 0;
+        for (int i = 1; i < pointCount; i++) {
+            length += DistanceCalculator.distance(lats[i - 1], lons[i - 1], lats[i], lons[i]);
+        }
+        return length;
+    }
+
+    @Benchmark
+    public double distanceToSegment() {
+        double sum = 0;
+        for (int i = 1; i < pointCount - 1; i++) {
+            sum += DistanceCalculator.distanceToSegment(lats[i], lons[i], lats[i - 1], lons[i - 1], lats[i + 1], lons[i + 1]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.PackedCoordinates;
+import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounding box queries on the lines and substations of synthetic files, see {@link OdreDatasetGenerator}, the scale
+ * being their size relative to the real files: building of the indexes, queries of random boxes of the given size in
+ * degrees in the extent of the synthetic grid, and the same queries on the lines by a scan of all their segments.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoDataIndexBenchmark {
+
+    private static final int BOX_COUNT = 1024;
+
+    @Param({"1"})
+    private double scale;
+
+    @Param({"0.1", "1"})
+    private double boxSize;
+
+    private List<LineGeoData> lines;
+
+    private List<SubstationGeoData> substations;
+
+    private GeoDataIndex<LineGeoData> linesIndex;
+
+    private GeoDataIndex<SubstationGeoData> substationsIndex;
+
+    private double[] boxes;
+
+    private int box;
+
+    @Setup
+    public void setUp() throws IOException {
+        OdreDatasetGenerator generator = new OdreDatasetGenerator(0).setScale(scale);
+        String substationsFile = generator.substations();
+        Map<String, SubstationGeoData> substationsById = GeographicDataParser.parseSubstations(BenchmarkFiles.reader(substationsFile));
+        substations = new ArrayList<>(substationsById.values());
+        lines = new ArrayList<>(GeographicDataParser.parseLines(BenchmarkFiles.reader(generator.aerialLines()),
+                BenchmarkFiles.reader(generator.undergroundLines()), substationsById).values());
+        linesIndex = GeoDataIndex.ofLines(lines);
+        substationsIndex = GeoDataIndex.ofSubstations(substations);
+
+        Random random = new Random(42);
+        boxes = new double[4 * BOX_COUNT];
+        for (int i = 0; i < BOX_COUNT; i++) {
+            // extent of the synthetic grid
+            double minLat = 43 + random.nextDouble() * (7.5 - boxSize);
+            double minLon = -1.5 + random.nextDouble() * (8.5 - boxSize);
+            boxes[4 * i] = minLat;
+            boxes[4 * i + 1] = minLon;
+            boxes[4 * i + 2] = minLat + boxSize;
+            boxes[4 * i + 3] = minLon + boxSize;
+        }
+    }
+
+    private int nextBox() {
+        box = (box + 1) % BOX_COUNT;
+        return 4 * box;
+    }
+
+    @Benchmark
+    public GeoDataIndex<LineGeoData> buildLinesIndex() {
+        return GeoDataIndex.ofLines(lines);
+    }
+
+    @Benchmark
+    public GeoDataIndex<SubstationGeoData> buildSubstationsIndex() {
+        return GeoDataIndex.ofSubstations(substations);
+    }
+
+    @Benchmark
+    public List<LineGeoData> queryLines() {
+        int b = nextBox();
+        return linesIndex.query(boxes[b], boxes[b + 1], boxes[b + 2], boxes[b + 3]);
+    }
+
+    @Benchmark
+    public List<SubstationGeoData> querySubstations() {
+        int b = nextBox();
+        return substationsIndex.query(boxes[b], boxes[b + 1], boxes[b + 2], boxes[b + 3]);
+    }
+
+    @Benchmark
+    public List<LineGeoData> scanLines() {
+        int b = nextBox();
+        List<LineGeoData> found = new ArrayList<>();
+        for (LineGeoData line : lines) {
+            PackedCoordinates coordinates = PackedCoordinates.copyOf(line.getCoordinates());
+            for (int i = 0; i < coordinates.size() - 1; i++) {
+                if (GeoDataIndex.segmentIntersects(coordinates.getLat(i), coordinates.getLon(i), coordinates.getLat(i + 1), coordinates.getLon(i + 1),
+                        boxes[b], boxes[b + 1], boxes[b + 2], boxes[b + 3])) {
+                    found.add(line);
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading of the geo shapes of the aerial and underground lines test files: to a {@link org.gridsuite.odre.server.dto.GeoShape}
+ * from a string, and into a reused {@link CoordinateBuffer} from the characters of the field, as done by the parser.
+ * Allocation rates are given by the gc profiler (-prof gc).
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoShapeDeserializerBenchmark {
+
+    private String[] geoShapes;
+
+    private char[][] geoShapeChars;
+
+    private final CoordinateBuffer buffer = new CoordinateBuffer();
+
+    private static void readGeoShapes(String resource, List<String> geoShapes) throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(BenchmarkFiles.read(resource)))) {
+            int geoShapeColumn = tokenizer.requireColumnIndex(FileValidator.GEO_SHAPE);
+            while (tokenizer.next()) {
+                geoShapes.add(tokenizer.getString(geoShapeColumn));
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> shapes = new ArrayList<>();
+        readGeoShapes(BenchmarkFiles.AERIAL_LINES, shapes);
+        readGeoShapes(BenchmarkFiles.UNDERGROUND_LINES, shapes);
+        geoShapes = shapes.toArray(new String[0]);
+        geoShapeChars = new char[geoShapes.length][];
+        for (int i = 0; i < geoShapes.length; i++) {
+            geoShapeChars[i] = geoShapes[i].toCharArray();
+        }
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) throws IOException {
+        for (String geoShape : geoShapes) {
+            blackhole.consume(GeoShapeDeserializer.read(geoShape));
+        }
+    }
+
+    @Benchmark
+    public void readIntoBuffer(Blackhole blackhole) throws IOException {
+        for (char[] chars : geoShapeChars) {
+            GeoShapeDeserializer.read(chars, 0, chars.length, buffer);
+            blackhole.consume(buffer.size());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.PackedCoordinates;
+import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of synthetic substations and lines files, see {@link OdreDatasetGenerator}, the scale being their size
+ * relative to the real files: from the parsing of each file to the whole parsing and assembly of the lines.
+ * Aggregation of the two connected sets of a line is measured on the longest line of the test files.
+ * Allocation rates are given by the gc profiler (-prof gc).
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeographicDataParserBenchmark {
+
+    @Param({"1"})
+    private double scale;
+
+    private String substations;
+
+    private String aerialLines;
+
+    private String undergroundLines;
+
+    private PackedCoordinates firstComponent;
+
+    private PackedCoordinates secondComponent;
+
+    @Setup
+    public void setUp() throws IOException {
+        OdreDatasetGenerator generator = new OdreDatasetGenerator(0).setScale(scale);
+        substations = generator.substations();
+        aerialLines = generator.aerialLines();
+        undergroundLines = generator.undergroundLines();
+
+        // the longest test line, cut in two connected sets, the second one in the reverse order
+        Map<String, LineGeoData> testLines = GeographicDataParser.parseLines(
+                BenchmarkFiles.reader(BenchmarkFiles.read(BenchmarkFiles.AERIAL_LINES)),
+                BenchmarkFiles.reader(BenchmarkFiles.read(BenchmarkFiles.UNDERGROUND_LINES)),
+                GeographicDataParser.parseSubstations(BenchmarkFiles.reader(BenchmarkFiles.read(BenchmarkFiles.SUBSTATIONS))));
+        PackedCoordinates coordinates = PackedCoordinates.copyOf(testLines.values().stream()
+                .max(Comparator.comparingInt(line -> line.getCoordinates().size())).orElseThrow().getCoordinates());
+        int middle = coordinates.size() / 2;
+        PackedCoordinates.Builder first = new PackedCoordinates.Builder(middle);
+        PackedCoordinates.Builder second = new PackedCoordinates.Builder(coordinates.size() - middle);
+        for (int i = 0; i < coordinates.size(); i++) {
+            (i < middle ? first : second).add(coordinates.getLat(i), coordinates.getLon(i));
+        }
+        firstComponent = first.build();
+        secondComponent = second.build().reversed();
+    }
+
+    @Benchmark
+    public Map<String, SubstationGeoData> parseSubstations() {
+        return GeographicDataParser.parseSubstations(BenchmarkFiles.reader(substations));
+    }
+
+    @Benchmark
+    public LineSegments parseLineSegments() throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(BenchmarkFiles.reader(aerialLines))) {
+            return GeographicDataParser.parseLineSegments(tokenizer, new CoordinatePool(), ParsingOptions.DEFAULT);
+        }
+    }
+
+    @Benchmark
+    public Map<String, LineGeoData> parseLines() {
+        return GeographicDataParser.parseLines(BenchmarkFiles.reader(aerialLines), BenchmarkFiles.reader(undergroundLines),
+                GeographicDataParser.parseSubstations(BenchmarkFiles.reader(substations)));
+    }
+
+    @Benchmark
+    public PackedCoordinates aggregateCoordinates() {
+        // the components are sorted in place
+        return GeographicDataParser.aggregateCoordinates(new ArrayList<>(List.of(secondComponent, firstComponent)));
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.dto.Coordinate;
+import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
+import org.jgrapht.alg.connectivity.ConnectivityInspector;
+import org.jgrapht.graph.Pseudograph;
+import org.jgrapht.traverse.BreadthFirstIterator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stitching of the segments of the aerial and underground lines test files, scaled up by copying the lines under
+ * other ids: JGraphT pseudograph per line, as done before, against {@link PolylineStitcher}.
+ * Allocation rates are given by the gc profiler (-prof gc).
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StitchingBenchmark {
+
+    @Param({"1000"})
+    private int scale;
+
+    private CoordinatePool coordinatePool;
+
+    private Map<String, PooledSegments> segmentsByLine;
+
+    private PolylineStitcher stitcher;
+
+    private static LineSegments parse(String resource) throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new InputStreamReader(StitchingBenchmark.class.getResourceAsStream(resource), StandardCharsets.UTF_8))) {
+            return GeographicDataParser.parseLineSegments(tokenizer, new CoordinatePool(), ParsingOptions.DEFAULT);
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        LineSegments testSegments = parse("/lignes-aeriennes-rte.csv").merge(parse("/lignes-souterraines-rte.csv"));
+        coordinatePool = testSegments.getCoordinatePool();
+        LineSegments segments = new LineSegments(coordinatePool);
+        for (int i = 0; i < scale; i++) {
+            for (Map.Entry<String, PooledSegments> e : testSegments.getSegmentsByLine().entrySet()) {
+                int[] indices = new int[e.getValue().size()];
+                for (int j = 0; j < indices.length; j++) {
+                    indices[j] = e.getValue().get(j);
+                }
+                for (int part = 0; part < e.getValue().getPartCount(); part++) {
+                    segments.add(e.getKey() + "_" + i, indices, e.getValue().getPartStart(part), e.getValue().getPartEnd(part));
+                }
+            }
+        }
+        segmentsByLine = segments.getSegmentsByLine();
+        stitcher = new PolylineStitcher(coordinatePool);
+    }
+
+    @Benchmark
+    public void jgrapht(Blackhole blackhole) {
+        for (PooledSegments lineSegments : segmentsByLine.values()) {
+            Graph<Coordinate, Object> graph = new Pseudograph<>(Object.class);
+            for (int part = 0; part < lineSegments.getPartCount(); part++) {
+                Coordinate previousVertex = null;
+                for (int i = lineSegments.getPartStart(part); i < lineSegments.getPartEnd(part); i++) {
+                    Coordinate vertex = new Coordinate(coordinatePool.getLat(lineSegments.get(i)), coordinatePool.getLon(lineSegments.get(i)));
+                    if (!graph.containsVertex(vertex)) {
+                        graph.addVertex(vertex);
+                    }
+                    if (previousVertex != null) {
+                        graph.addEdge(previousVertex, vertex);
+                    }
+                    previousVertex = vertex;
+                }
+            }
+            for (Set<Coordinate> connectedSet : new ConnectivityInspector<>(graph).connectedSets()) {
+                List<Coordinate> ends = new ArrayList<>();
+                for (Coordinate coordinate : connectedSet) {
+                    if (Graphs.neighborListOf(graph, coordinate).size() == 1) {
+                        ends.add(coordinate);
+                    }
+                }
+                if (ends.size() == 2) {
+                    List<Coordinate> coordinates = new ArrayList<>(connectedSet.size());
+                    new BreadthFirstIterator<>(graph, ends.get(0)).forEachRemaining(coordinates::add);
+                    blackhole.consume(coordinates);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void polylineStitcher(Blackhole blackhole) {
+        for (PooledSegments lineSegments : segmentsByLine.values()) {
+            stitcher.clear();
+            for (int part = 0; part < lineSegments.getPartCount(); part++) {
+                stitcher.addSegment(lineSegments, part);
+            }
+            int componentCount = stitcher.findComponents();
+            for (int component = 0; component < componentCount; component++) {
+                if (stitcher.getEndCount(component) == 2) {
+                    blackhole.consume(stitcher.walk(component));
+                }
+            }
+        }
+    }
+}
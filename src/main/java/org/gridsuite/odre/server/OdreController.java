@@ -7,23 +7,37 @@
 package org.gridsuite.odre.server;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.gridsuite.odre.server.dto.FileUploadResponse;
+import org.gridsuite.odre.server.dto.GeoDataSelection;
+import org.gridsuite.odre.server.dto.ImportJobStatus;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.gridsuite.odre.server.services.GeoDataPusher;
+import org.gridsuite.odre.server.services.ImportJobService;
 import org.gridsuite.odre.server.services.OdreService;
 import org.gridsuite.odre.server.utils.FileValidator;
+import org.gridsuite.odre.server.utils.ImportProgress;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
@@ -38,18 +52,136 @@ public class OdreController {
     @Autowired
     private OdreService odreService;
 
+    @Autowired
+    private ImportJobService importJobService;
+
     @PostMapping("substations")
     @Operation(summary = "Get Substations coordinates from Open Data Reseaux Energies and send them to geo data service")
-    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "the list of substation was updated")})
-    public void pushSubstations() {
-        odreService.pushSubstations();
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "the list of substation was updated"),
+        @ApiResponse(responseCode = "202", description = "the import job was submitted"),
+        @ApiResponse(responseCode = "429", description = "too many import jobs are waiting"),
+    })
+    public ResponseEntity<ImportJobStatus> pushSubstations(@Parameter(description = "Push all the substations, not only the ones changed since the last push")
+                                                           @RequestParam(name = "fullPush", required = false, defaultValue = "false") boolean fullPush,
+                                                           @Parameter(description = "Run the import in the background and answer right away with its job")
+                                                           @RequestParam(name = "async", required = false, defaultValue = "false") boolean async) {
+        if (async) {
+            return submit(GeoDataPusher.SUBSTATIONS, progress -> {
+                odreService.pushSubstations(fullPush, progress);
+                return new FileUploadResponse(HttpStatus.OK.value(), "List of substations updated successfully");
+            });
+        }
+        odreService.pushSubstations(fullPush);
+        return ResponseEntity.ok().build();
     }
 
     @PostMapping("lines")
     @Operation(summary = "Get lines coordinates from Open Data Reseaux Energies and send them to geo data service")
-    @ApiResponses (value = {@ApiResponse(responseCode = "200", description = "the list of lines was updated")})
-    public void pushLines() {
-        odreService.pushLines();
+    @ApiResponses (value = {@ApiResponse(responseCode = "200", description = "the list of lines was updated"),
+        @ApiResponse(responseCode = "202", description = "the import job was submitted"),
+        @ApiResponse(responseCode = "429", description = "too many import jobs are waiting"),
+    })
+    public ResponseEntity<ImportJobStatus> pushLines(@Parameter(description = "Push all the lines, not only the ones changed since the last push")
+                                                     @RequestParam(name = "fullPush", required = false, defaultValue = "false") boolean fullPush,
+                                                     @Parameter(description = "Simplify the geometry of the lines, removing the points that do not change their shape by more than a tolerance")
+                                                     @RequestParam(name = "simplify", required = false, defaultValue = "false") boolean simplify,
+                                                     @Parameter(description = "Simplification tolerance in meters for all the lines, instead of the configured tolerances by base voltage")
+                                                     @RequestParam(name = "tolerance", required = false) Double tolerance,
+                                                     @Parameter(description = "Run the import in the background and answer right away with its job")
+                                                     @RequestParam(name = "async", required = false, defaultValue = "false") boolean async) {
+        if (async) {
+            return submit(GeoDataPusher.LINES, progress -> {
+                odreService.pushLines(fullPush, simplify, tolerance, progress);
+                return new FileUploadResponse(HttpStatus.OK.value(), "List of lines updated successfully");
+            });
+        }
+        odreService.pushLines(fullPush, simplify, tolerance);
+        return ResponseEntity.ok().build();
+    }
+
+    private ResponseEntity<ImportJobStatus> submit(String type, Function<ImportProgress, FileUploadResponse> importer) {
+        try {
+            ImportJobStatus job = importJobService.submit(type, importer);
+            return ResponseEntity.accepted().location(URI.create("/" + API_VERSION + "/jobs/" + job.getId())).body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    @PostMapping(value = "substations/repush", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Send again the substations of the last import to geo data service, without downloading or parsing them")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "the list of substation was updated"),
+        @ApiResponse(responseCode = "404", description = "no substations imported yet"),
+    })
+    public ResponseEntity<FileUploadResponse> repushSubstations() {
+        FileUploadResponse response = odreService.repushSubstations();
+        return new ResponseEntity<>(response, HttpStatus.valueOf(response.getStatus()));
+    }
+
+    @PostMapping(value = "lines/repush", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Send again the lines of the last import to geo data service, without downloading or parsing them")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "the list of lines was updated"),
+        @ApiResponse(responseCode = "404", description = "no lines imported yet"),
+    })
+    public ResponseEntity<FileUploadResponse> repushLines() {
+        FileUploadResponse response = odreService.repushLines();
+        return new ResponseEntity<>(response, HttpStatus.valueOf(response.getStatus()));
+    }
+
+    @GetMapping(value = "substations", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the substations of the last import")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "the substations of the last import, empty if nothing was imported")})
+    public ResponseEntity<List<SubstationGeoData>> getSubstations() {
+        return ResponseEntity.ok(odreService.getSubstations());
+    }
+
+    @GetMapping(value = "substations/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get a substation of the last import")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "the substation"),
+        @ApiResponse(responseCode = "404", description = "the substation is not in the last import"),
+    })
+    public ResponseEntity<SubstationGeoData> getSubstation(@PathVariable("id") String id) {
+        return ResponseEntity.of(odreService.getSubstation(id));
+    }
+
+    @GetMapping(value = "lines", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the lines of the last import")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "the lines of the last import, empty if nothing was imported")})
+    public ResponseEntity<List<LineGeoData>> getLines() {
+        return ResponseEntity.ok(odreService.getLines());
+    }
+
+    @GetMapping(value = "lines/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get a line of the last import")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "the line"),
+        @ApiResponse(responseCode = "404", description = "the line is not in the last import"),
+    })
+    public ResponseEntity<LineGeoData> getLine(@PathVariable("id") String id) {
+        return ResponseEntity.of(odreService.getLine(id));
+    }
+
+    @GetMapping(value = "geo-data", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the lines and substations of the last import intersecting a bounding box")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "the lines and substations in the bounding box"),
+        @ApiResponse(responseCode = "400", description = "invalid bounding box"),
+    })
+    public ResponseEntity<GeoDataSelection> getGeoData(@Parameter(description = "Minimum latitude in degrees") @RequestParam("minLat") double minLat,
+                                                       @Parameter(description = "Minimum longitude in degrees") @RequestParam("minLon") double minLon,
+                                                       @Parameter(description = "Maximum latitude in degrees") @RequestParam("maxLat") double maxLat,
+                                                       @Parameter(description = "Maximum longitude in degrees") @RequestParam("maxLon") double maxLon) {
+        if (minLat > maxLat || minLon > maxLon) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(odreService.getGeoData(minLat, minLon, maxLat, maxLon));
+    }
+
+    @GetMapping(value = "/jobs/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the status of an import job")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "the status of the import job"),
+        @ApiResponse(responseCode = "404", description = "unknown or forgotten import job"),
+    })
+    public ResponseEntity<ImportJobStatus> getJob(@PathVariable("id") UUID id) {
+        return ResponseEntity.of(importJobService.getStatus(id));
     }
 
     @PostMapping(value = "/lines", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
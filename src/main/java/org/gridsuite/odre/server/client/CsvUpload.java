@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Uploaded CSV files which passed the validation, parsed only when their elements are streamed, so that they can be
+ * pushed as they are parsed. The readers opened on the files during the validation are kept open until the upload is
+ * closed.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class CsvUpload<T> implements Closeable {
+
+    private final Collection<? extends Closeable> readers;
+
+    private final Consumer<Consumer<T>> parser;
+
+    CsvUpload(Collection<? extends Closeable> readers, Consumer<Consumer<T>> parser) {
+        this.readers = List.copyOf(readers);
+        this.parser = parser;
+    }
+
+    /**
+     * Parse the files, handing each element to the consumer. The files can only be streamed once.
+     */
+    public void stream(Consumer<T> consumer) {
+        parser.accept(consumer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Closeable reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -8,8 +8,11 @@ package org.gridsuite.odre.server.client;
 
 import org.gridsuite.odre.server.dto.LineGeoData;
 import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.gridsuite.odre.server.utils.ImportProgress;
+import org.gridsuite.odre.server.utils.LineSimplifier;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
@@ -19,4 +22,46 @@ public interface OdreClient {
     List<SubstationGeoData> getSubstations();
 
     List<LineGeoData> getLines();
+
+    /**
+     * Same as {@link #getSubstations()} but hands each substation to the consumer instead of returning a list.
+     */
+    default void streamSubstations(Consumer<SubstationGeoData> substationConsumer) {
+        getSubstations().forEach(substationConsumer);
+    }
+
+    /**
+     * Same as {@link #getLines()} but hands each line to the consumer as soon as it is assembled.
+     */
+    default void streamLines(Consumer<LineGeoData> lineConsumer) {
+        getLines().forEach(lineConsumer);
+    }
+
+    /**
+     * Same as {@link #streamLines(Consumer)} but the lines are simplified before being handed to the consumer.
+     * By default the base voltage of the lines is not known and they are simplified with the default tolerance.
+     */
+    default void streamLines(Consumer<LineGeoData> lineConsumer, LineSimplifier simplifier) {
+        streamLines(line -> lineConsumer.accept(simplifier.simplify(line, null)));
+    }
+
+    /**
+     * Same as {@link #streamSubstations(Consumer)}, the progress of the import being reported to the given progress
+     * if the client supports it.
+     */
+    default void streamSubstations(Consumer<SubstationGeoData> substationConsumer, ImportProgress progress) {
+        streamSubstations(substationConsumer);
+    }
+
+    /**
+     * Same as {@link #streamLines(Consumer, LineSimplifier)}, lines not being simplified if the simplifier is null,
+     * and the progress of the import being reported to the given progress if the client supports it.
+     */
+    default void streamLines(Consumer<LineGeoData> lineConsumer, LineSimplifier simplifier, ImportProgress progress) {
+        if (simplifier != null) {
+            streamLines(lineConsumer, simplifier);
+        } else {
+            streamLines(lineConsumer);
+        }
+    }
 }
@@ -11,6 +11,7 @@ import org.gridsuite.odre.server.dto.SubstationGeoData;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * @author bendaamerahm <ahmed.bendaamer at rte-france.com>
@@ -20,4 +21,19 @@ public interface OdreCsvClient {
     List<SubstationGeoData> getSubstationsFromCsv(MultipartFile file);
 
     List<LineGeoData> getLinesFromCsv(List<MultipartFile> files);
+
+    /**
+     * Validate an uploaded substations file, its substations being parsed only once the returned upload is streamed.
+     *
+     * @return the upload, to be closed by the caller, or empty if the file is not valid
+     */
+    Optional<CsvUpload<SubstationGeoData>> uploadSubstations(MultipartFile file);
+
+    /**
+     * Validate uploaded aerial lines, underground lines and substations files, the lines being parsed and assembled only
+     * once the returned upload is streamed.
+     *
+     * @return the upload, to be closed by the caller, or empty if one of the files is missing or not valid
+     */
+    Optional<CsvUpload<LineGeoData>> uploadLines(List<MultipartFile> files);
 }
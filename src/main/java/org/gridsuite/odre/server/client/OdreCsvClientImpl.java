@@ -6,12 +6,20 @@
  */
 package org.gridsuite.odre.server.client;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.gridsuite.odre.server.dto.LineGeoData;
 import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.gridsuite.odre.server.utils.CsvTokenizer;
 import org.gridsuite.odre.server.utils.FileTypeEnum;
 import org.gridsuite.odre.server.utils.FileValidator;
 import org.gridsuite.odre.server.utils.GeographicDataParser;
+import org.gridsuite.odre.server.utils.ImportMetrics;
 import org.gridsuite.odre.server.utils.InputUtils;
+import org.gridsuite.odre.server.utils.ParsingOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -19,7 +27,6 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UncheckedIOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -27,9 +34,49 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 @Component
-public class OdreCsvClientImpl implements OdreClient, OdreCsvClient {
+public class OdreCsvClientImpl implements OdreClient, OdreCsvClient, DisposableBean {
+
+    private static final int PARSE_THREADS = 3;
+
+    private final ExecutorService parseExecutor;
+
+    private final ForkJoinPool assemblyPool;
+
+    private final ParsingOptions parsingOptions;
+
+    public OdreCsvClientImpl() {
+        this(0, 0, ImportMetrics.NONE);
+    }
+
+    /**
+     * @param assemblyParallelism number of threads assembling the lines, 0 for one thread per processor
+     * @param substationSnapDistance distance in meters within which line ends whose substation is missing are given
+     *                               the nearest one, 0 to leave them empty
+     * @param meterRegistry registry of the metrics of the uploads
+     */
+    @Autowired
+    public OdreCsvClientImpl(@Value("${gridsuite.services.odre.assembly-parallelism:0}") int assemblyParallelism,
+                             @Value("${gridsuite.services.odre.substation-snap-distance:0}") double substationSnapDistance,
+                             MeterRegistry meterRegistry) {
+        this(assemblyParallelism, substationSnapDistance, new ImportMetrics(meterRegistry, ImportMetrics.UPLOAD_SOURCE));
+    }
+
+    private OdreCsvClientImpl(int assemblyParallelism, double substationSnapDistance, ImportMetrics importMetrics) {
+        // one thread per file of an upload, concurrent uploads waiting for each other rather than for the assembly
+        this.parseExecutor = Executors.newFixedThreadPool(PARSE_THREADS,
+                new ThreadFactoryBuilder().setNameFormat("odre-upload-parse-%d").setDaemon(true).build());
+        this.assemblyPool = new ForkJoinPool(assemblyParallelism > 0 ? assemblyParallelism : Runtime.getRuntime().availableProcessors());
+        this.parsingOptions = ParsingOptions.DEFAULT.withParseExecutor(parseExecutor).withAssemblyPool(assemblyPool)
+                .withSubstationSnapDistance(substationSnapDistance).withMetrics(importMetrics);
+    }
+
     @Override
     public List<SubstationGeoData> getSubstations() {
         return getSubstations(Paths.get(System.getenv("HOME") + "/GeoData/postes-electriques-rte.csv"));
@@ -37,53 +84,115 @@ public class OdreCsvClientImpl implements OdreClient, OdreCsvClient {
 
     @Override
     public List<LineGeoData> getLines() {
-        return getLines(Paths.get(System.getenv("HOME") + "/GeoData/lignes-aeriennes-rte.csv"),
+        List<LineGeoData> lines = new ArrayList<>();
+        streamLines(lines::add);
+        return lines;
+    }
+
+    @Override
+    public void streamLines(Consumer<LineGeoData> lineConsumer) {
+        streamLines(Paths.get(System.getenv("HOME") + "/GeoData/lignes-aeriennes-rte.csv"),
                 Paths.get(System.getenv("HOME") + "/GeoData/lignes-souterraines-rte.csv"),
-                Paths.get(System.getenv("HOME") + "/GeoData/postes-electriques-rte.csv")
+                Paths.get(System.getenv("HOME") + "/GeoData/postes-electriques-rte.csv"),
+                lineConsumer
             );
     }
 
     @Override
     public List<SubstationGeoData> getSubstationsFromCsv(MultipartFile file) {
-        try (BufferedReader fileReader = new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(file.getInputStream()), StandardCharsets.UTF_8))) {
-            if (FileValidator.validateSubstations(file)) {
-                return new ArrayList<>(GeographicDataParser.parseSubstations(fileReader).values());
-            } else {
-                return Collections.emptyList();
-            }
+        return collect(uploadSubstations(file));
+    }
+
+    @Override
+    public List<LineGeoData> getLinesFromCsv(List<MultipartFile> files) {
+        return collect(uploadLines(files));
+    }
+
+    private static <T> List<T> collect(Optional<CsvUpload<T>> upload) {
+        if (upload.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> elements = new ArrayList<>();
+        try (CsvUpload<T> csvUpload = upload.get()) {
+            csvUpload.stream(elements::add);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+        return elements;
     }
 
     @Override
-    public List<LineGeoData> getLinesFromCsv(List<MultipartFile> files) {
-        Map<String, BufferedReader> mapValidation = FileValidator.validateLines(files);
-        if (mapValidation.size() == 3) {
-            return new ArrayList<>(GeographicDataParser.parseLines(mapValidation.get(FileTypeEnum.AERIAL_LINES.getValue()), mapValidation.get(FileTypeEnum.UNDERGROUND_LINES.getValue()),
-                    GeographicDataParser.parseSubstations(mapValidation.get(FileTypeEnum.SUBSTATIONS.getValue()))).values());
-        } else {
-            return Collections.emptyList();
+    public Optional<CsvUpload<SubstationGeoData>> uploadSubstations(MultipartFile file) {
+        long validationStart = System.nanoTime();
+        Optional<CsvTokenizer> validation = FileValidator.openSubstations(file);
+        parsingOptions.getMetrics().recordStage(ImportMetrics.VALIDATION_STAGE, System.nanoTime() - validationStart);
+        if (validation.isEmpty()) {
+            return Optional.empty();
+        }
+        parsingOptions.getMetrics().recordPayloadBytes(file.getSize());
+        // the file is parsed from the tokenizer which read its header during the validation
+        CsvTokenizer tokenizer = validation.get();
+        return Optional.of(new CsvUpload<>(List.of(tokenizer),
+            substationConsumer -> GeographicDataParser.parseSubstations(tokenizer, parsingOptions).values().forEach(substationConsumer)));
+    }
+
+    @Override
+    public Optional<CsvUpload<LineGeoData>> uploadLines(List<MultipartFile> files) {
+        long validationStart = System.nanoTime();
+        Map<String, CsvTokenizer> mapValidation = FileValidator.validateLines(files);
+        parsingOptions.getMetrics().recordStage(ImportMetrics.VALIDATION_STAGE, System.nanoTime() - validationStart);
+        if (mapValidation.size() != 3) {
+            for (CsvTokenizer tokenizer : mapValidation.values()) {
+                closeTokenizer(tokenizer);
+            }
+            return Optional.empty();
+        }
+        files.forEach(file -> parsingOptions.getMetrics().recordPayloadBytes(file.getSize()));
+        return Optional.of(new CsvUpload<>(mapValidation.values(),
+            lineConsumer -> GeographicDataParser.parseLines(mapValidation.get(FileTypeEnum.AERIAL_LINES.getValue()), mapValidation.get(FileTypeEnum.UNDERGROUND_LINES.getValue()),
+                    mapValidation.get(FileTypeEnum.SUBSTATIONS.getValue()), lineConsumer, parsingOptions)));
+    }
+
+    private static void closeTokenizer(CsvTokenizer tokenizer) {
+        try {
+            tokenizer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
     public List<SubstationGeoData> getSubstations(Path path) {
-        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(Files.newInputStream(path))))) {
-            return new ArrayList<>(GeographicDataParser.parseSubstations(bufferedReader).values());
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(Files.newInputStream(path)))))) {
+            parsingOptions.getMetrics().recordPayloadBytes(Files.size(path));
+            return new ArrayList<>(GeographicDataParser.parseSubstations(tokenizer, parsingOptions).values());
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
     public List<LineGeoData> getLines(Path aerialLinesFilePath, Path undergroundLinesFilePath, Path substationPath) {
-        try (BufferedReader aerialBufferedReader = new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(Files.newInputStream(aerialLinesFilePath))));
-            BufferedReader undergroundBufferedReader = new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(Files.newInputStream(undergroundLinesFilePath))));
-            BufferedReader substationBufferedReader = new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(Files.newInputStream(substationPath))));
+        List<LineGeoData> lines = new ArrayList<>();
+        streamLines(aerialLinesFilePath, undergroundLinesFilePath, substationPath, lines::add);
+        return lines;
+    }
+
+    public void streamLines(Path aerialLinesFilePath, Path undergroundLinesFilePath, Path substationPath, Consumer<LineGeoData> lineConsumer) {
+        try (CsvTokenizer aerialTokenizer = new CsvTokenizer(new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(Files.newInputStream(aerialLinesFilePath)))));
+            CsvTokenizer undergroundTokenizer = new CsvTokenizer(new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(Files.newInputStream(undergroundLinesFilePath)))));
+            CsvTokenizer substationTokenizer = new CsvTokenizer(new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(Files.newInputStream(substationPath)))));
             ) {
-            return new ArrayList<>(GeographicDataParser.parseLines(aerialBufferedReader, undergroundBufferedReader,
-                GeographicDataParser.parseSubstations(substationBufferedReader)).values());
+            for (Path path : List.of(aerialLinesFilePath, undergroundLinesFilePath, substationPath)) {
+                parsingOptions.getMetrics().recordPayloadBytes(Files.size(path));
+            }
+            GeographicDataParser.parseLines(aerialTokenizer, undergroundTokenizer, substationTokenizer, lineConsumer, parsingOptions);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
+
+    @Override
+    public void destroy() {
+        parseExecutor.shutdownNow();
+        assemblyPool.shutdownNow();
+    }
 }
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of the ODRE datasets.
+ * <p>
+ * Each dataset is stored with the validators (ETag, Last-Modified) of the response it comes from, so that the next
+ * download can be a conditional request. When the cache grows over its maximum size, the least recently used
+ * datasets are evicted.
+ * <p>
+ * A cached dataset is never handed out as such: each caller gets a checkout of its own, a hard link to the cached
+ * file (or a copy if the file system has no hard link), made under the lock of the cache. Another import may then
+ * replace or evict the cached dataset while the checkout is being read. The caller deletes the checkout once read.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public class OdreDatasetCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OdreDatasetCache.class);
+
+    private static final String DATA_EXTENSION = ".csv";
+    private static final String VALIDATORS_EXTENSION = ".properties";
+    private static final String CHECKOUT_EXTENSION = ".checkout";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "last-modified";
+
+    private final Path directory;
+
+    private final long maxSizeBytes;
+
+    public record Validators(String etag, String lastModified) { }
+
+    public OdreDatasetCache(Path directory, long maxSizeBytes) {
+        this.directory = Objects.requireNonNull(directory);
+        this.maxSizeBytes = maxSizeBytes;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path dataFile(String key) {
+        return directory.resolve(key + DATA_EXTENSION);
+    }
+
+    private Path validatorsFile(String key) {
+        return directory.resolve(key + VALIDATORS_EXTENSION);
+    }
+
+    /**
+     * @return the validators of the cached dataset, or empty if the dataset is not cached or has no validator
+     */
+    public Optional<Validators> getValidators(String key) {
+        Path validatorsFile = validatorsFile(key);
+        if (!Files.exists(dataFile(key)) || !Files.exists(validatorsFile)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(validatorsFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            LOGGER.warn("Cache validators of {} could not be read: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+        Validators validators = new Validators(properties.getProperty(ETAG), properties.getProperty(LAST_MODIFIED));
+        return validators.etag() != null || validators.lastModified() != null ? Optional.of(validators) : Optional.empty();
+    }
+
+    /**
+     * Check out the cached dataset after the server answered it was not modified.
+     *
+     * @return a checkout of the cached dataset, to be deleted by the caller, or null if the dataset has been evicted
+     * in the meantime
+     */
+    public synchronized Path reuse(String key) {
+        Path dataFile = dataFile(key);
+        try {
+            // the modification time of the data file is used as last access time for eviction
+            Files.setLastModifiedTime(dataFile, FileTime.fromMillis(System.currentTimeMillis()));
+            return checkout(key);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Copy a downloaded dataset into the cache, replacing the previous version of the dataset if any.
+     * The checkouts of the previous version are left untouched.
+     *
+     * @return a checkout of the stored dataset, to be deleted by the caller
+     */
+    public Path store(String key, InputStream body, Validators validators) throws IOException {
+        Path tmpDataFile = Files.createTempFile(directory, key, ".tmp");
+        Path tmpValidatorsFile = Files.createTempFile(directory, key, ".tmp");
+        try {
+            Files.copy(body, tmpDataFile, StandardCopyOption.REPLACE_EXISTING);
+            Properties properties = new Properties();
+            if (validators.etag() != null) {
+                properties.setProperty(ETAG, validators.etag());
+            }
+            if (validators.lastModified() != null) {
+                properties.setProperty(LAST_MODIFIED, validators.lastModified());
+            }
+            try (Writer writer = Files.newBufferedWriter(tmpValidatorsFile, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            synchronized (this) {
+                Files.move(tmpDataFile, dataFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Files.move(tmpValidatorsFile, validatorsFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                evict(key);
+                return checkout(key);
+            }
+        } finally {
+            Files.deleteIfExists(tmpDataFile);
+            Files.deleteIfExists(tmpValidatorsFile);
+        }
+    }
+
+    /**
+     * Give the caller a file of its own with the content of a cached dataset. Called with the lock of the cache held.
+     */
+    private Path checkout(String key) throws IOException {
+        Path dataFile = dataFile(key);
+        Path checkout = directory.resolve(key + "-" + UUID.randomUUID() + CHECKOUT_EXTENSION);
+        try {
+            Files.createLink(checkout, dataFile);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(dataFile, checkout);
+        }
+        return checkout;
+    }
+
+    /**
+     * Delete the least recently used datasets until the cache fits in its maximum size.
+     * The dataset that has just been stored is never evicted. Called with the lock of the cache held.
+     */
+    private void evict(String keptKey) {
+        if (maxSizeBytes <= 0) {
+            return;
+        }
+        List<Path> dataFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            dataFiles = files.filter(file -> file.getFileName().toString().endsWith(DATA_EXTENSION)).toList();
+        } catch (IOException e) {
+            LOGGER.warn("Cache directory {} could not be listed: {}", directory, e.getMessage());
+            return;
+        }
+        Map<Path, FileTime> lastAccessTimes = new HashMap<>();
+        long totalSize = 0;
+        for (Path dataFile : dataFiles) {
+            try {
+                lastAccessTimes.put(dataFile, Files.getLastModifiedTime(dataFile));
+                totalSize += Files.size(dataFile);
+            } catch (IOException e) {
+                // evicted concurrently
+            }
+        }
+        List<Path> leastRecentlyUsed = new ArrayList<>(lastAccessTimes.keySet());
+        leastRecentlyUsed.sort(Comparator.comparing(lastAccessTimes::get));
+        Path keptFile = dataFile(keptKey);
+        for (Path dataFile : leastRecentlyUsed) {
+            if (totalSize <= maxSizeBytes) {
+                break;
+            }
+            if (dataFile.equals(keptFile)) {
+                continue;
+            }
+            try {
+                long size = Files.size(dataFile);
+                String fileName = dataFile.getFileName().toString();
+                Files.deleteIfExists(dataFile);
+                Files.deleteIfExists(validatorsFile(fileName.substring(0, fileName.length() - DATA_EXTENSION.length())));
+                totalSize -= size;
+                LOGGER.info("{} evicted from the ODRE dataset cache", fileName);
+            } catch (IOException e) {
+                LOGGER.warn("{} could not be evicted from the ODRE dataset cache: {}", dataFile, e.getMessage());
+            }
+        }
+    }
+}
@@ -6,26 +6,55 @@
  */
 package org.gridsuite.odre.server.client;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.gridsuite.odre.server.dto.LineGeoData;
 import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.gridsuite.odre.server.utils.CoordinatePool;
+import org.gridsuite.odre.server.utils.CsvTokenizer;
+import org.gridsuite.odre.server.utils.FileTypeEnum;
 import org.gridsuite.odre.server.utils.GeographicDataParser;
+import org.gridsuite.odre.server.utils.ImportMetrics;
+import org.gridsuite.odre.server.utils.ImportProgress;
 import org.gridsuite.odre.server.utils.InputUtils;
+import org.gridsuite.odre.server.utils.LineSegments;
+import org.gridsuite.odre.server.utils.LineSimplifier;
+import org.gridsuite.odre.server.utils.ParsingOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.io.*;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Parse RTE substation and line segment coordinates.
@@ -45,62 +74,281 @@ import java.util.Objects;
  */
 
 @Component
-public class OdreDownloadClientImpl implements OdreClient {
+public class OdreDownloadClientImpl implements OdreClient, DisposableBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OdreDownloadClientImpl.class);
 
     private RestTemplate openDataRest;
 
-    public OdreDownloadClientImpl(RestTemplateBuilder restTemplateBuilder) {
+    private final ExecutorService downloadExecutor;
+
+    private final ForkJoinPool assemblyPool;
+
+    private final ParsingOptions parsingOptions;
+
+    private final OdreDatasetCache cache;
+
+    private final MeterRegistry meterRegistry;
+
+    public OdreDownloadClientImpl(RestTemplateBuilder restTemplateBuilder,
+                                  @Value("${gridsuite.services.odre.download-threads:3}") int downloadThreads,
+                                  @Value("${gridsuite.services.odre.cache.directory:${java.io.tmpdir}/odre-server-cache}") String cacheDirectory,
+                                  @Value("${gridsuite.services.odre.cache.max-size-mb:1024}") long cacheMaxSizeMb,
+                                  @Value("${gridsuite.services.odre.assembly-parallelism:0}") int assemblyParallelism,
+                                  @Value("${gridsuite.services.odre.substation-snap-distance:0}") double substationSnapDistance,
+                                  MeterRegistry meterRegistry) {
         String openDataBaseUri = "https://opendata.reseaux-energies.fr";
         this.openDataRest = restTemplateBuilder.build();
         this.openDataRest.setUriTemplateHandler(new DefaultUriBuilderFactory(openDataBaseUri));
+        this.downloadExecutor = Executors.newFixedThreadPool(Math.max(1, downloadThreads),
+                new ThreadFactoryBuilder().setNameFormat("odre-download-%d").setDaemon(true).build());
+        // lines are assembled in a pool of their own, with one thread per processor unless a parallelism is given
+        this.assemblyPool = new ForkJoinPool(assemblyParallelism > 0 ? assemblyParallelism : Runtime.getRuntime().availableProcessors());
+        // line ends whose substation is missing are given the nearest one within this distance in meters, 0 disables it
+        this.parsingOptions = ParsingOptions.DEFAULT.withAssemblyPool(assemblyPool).withSubstationSnapDistance(substationSnapDistance)
+                .withMetrics(new ImportMetrics(meterRegistry, ImportMetrics.DOWNLOAD_SOURCE));
+        // an empty cache directory disables the cache
+        this.cache = cacheDirectory == null || cacheDirectory.isBlank() ? null : new OdreDatasetCache(Paths.get(cacheDirectory), cacheMaxSizeMb * 1024 * 1024);
+        this.meterRegistry = Objects.requireNonNull(meterRegistry);
+    }
+
+    /**
+     * @return the options of this client, reporting the progress of an import to the given progress unless it is null
+     */
+    private ParsingOptions withProgress(ImportProgress progress) {
+        return parsingOptions.withMetrics(parsingOptions.getMetrics().withProgress(progress));
+    }
+
+    private static String datasetPath(FileTypeEnum dataset) {
+        return "/explore/dataset/" + dataset.getValue() + "-rte/download/";
     }
 
-    private ByteArrayInputStream downloadFile(String path) {
-        String uri = UriComponentsBuilder.fromPath(path)
+    /**
+     * Download a dataset to a file. The response body is copied to the disk by chunks, so that the
+     * memory used by a download does not depend on the size of the dataset.
+     * <p>
+     * The caller has to delete the file. Without cache, the dataset is downloaded to a temporary file.
+     * With a cache, the download is a conditional request and the cached dataset is reused if the server
+     * answers it has not been modified. The file is then checked out of the cache, so that the cached dataset can be
+     * replaced or evicted by another import while this one parses it.
+     */
+    private Path downloadFile(FileTypeEnum dataset, AtomicBoolean cancelled) {
+        String uri = UriComponentsBuilder.fromPath(datasetPath(dataset))
                 .queryParam("format", "csv")
                 .toUriString();
 
-        ResponseEntity<byte[]> responseEntity = openDataRest.exchange(uri,
-                HttpMethod.GET,
-                HttpEntity.EMPTY,
-                byte[].class);
+        if (cache == null) {
+            return Objects.requireNonNull(openDataRest.execute(uri, HttpMethod.GET, null, response -> toTemporaryFile(response, cancelled)));
+        }
 
-        return new ByteArrayInputStream(Objects.requireNonNull(responseEntity.getBody()));
+        String key = dataset.getValue();
+        Optional<OdreDatasetCache.Validators> validators = cache.getValidators(key);
+        boolean[] notModified = new boolean[1];
+        Path file = openDataRest.execute(uri, HttpMethod.GET,
+            request -> validators.ifPresent(v -> {
+                if (v.etag() != null) {
+                    request.getHeaders().setIfNoneMatch(v.etag());
+                }
+                if (v.lastModified() != null) {
+                    request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, v.lastModified());
+                }
+            }),
+            response -> {
+                if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                    notModified[0] = true;
+                    return cache.reuse(key);
+                }
+                return storeInCache(key, response, cancelled);
+            });
+        if (file == null) {
+            // evicted between the conditional request and its answer
+            notModified[0] = false;
+            file = Objects.requireNonNull(openDataRest.execute(uri, HttpMethod.GET, null, response -> storeInCache(key, response, cancelled)));
+        }
+        LOGGER.info("{} {} from the cache", key, notModified[0] ? "was not modified, reused" : "was modified, replaced");
+        Counter.builder("odre.download.cache").tag("dataset", key).tag("result", notModified[0] ? "hit" : "miss").register(meterRegistry).increment();
+        return file;
     }
 
-    @Override
-    public List<SubstationGeoData> getSubstations() {
+    private Path storeInCache(String key, ClientHttpResponse response, AtomicBoolean cancelled) throws IOException {
+        OdreDatasetCache.Validators validators = new OdreDatasetCache.Validators(response.getHeaders().getETag(), response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+        try (InputStream body = new CancellableInputStream(response.getBody(), cancelled)) {
+            return cache.store(key, body, validators);
+        }
+    }
+
+    private static Path toTemporaryFile(ClientHttpResponse response, AtomicBoolean cancelled) throws IOException {
+        Path file = Files.createTempFile("odre-", ".csv");
+        try (InputStream body = new CancellableInputStream(response.getBody(), cancelled)) {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private static void deleteDownloadedFile(Path file) {
+        if (file == null) {
+            return;
+        }
         try {
-            ByteArrayInputStream byteArrayInputStream = downloadFile("/explore/dataset/postes-electriques-rte/download/");
-            LOGGER.info("substations were downloaded from the open data server");
-            return new ArrayList<>(GeographicDataParser.parseSubstations(new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(byteArrayInputStream)))).values());
+            Files.deleteIfExists(file);
         } catch (IOException e) {
-            throw new UncheckedIOException(e);
+            LOGGER.warn("Downloaded file {} could not be deleted: {}", file, e.getMessage());
         }
     }
 
-    @Override
-    public List<LineGeoData> getLines() {
+    /**
+     * Download a dataset and parse it right away, the downloaded file being deleted once parsed.
+     * Once the given flag is set, the download or the parsing fails at the next read.
+     */
+    private <T> T downloadAndParse(FileTypeEnum dataset, AtomicBoolean cancelled, ImportMetrics metrics, Function<CsvTokenizer, T> parser) {
+        Path file = null;
         try {
-            ByteArrayInputStream undergroundLinesByteArrayInputStream = downloadFile("/explore/dataset/lignes-souterraines-rte/download/");
-            LOGGER.info("Underground lines were downloaded from the open data server");
-            ByteArrayInputStream aerialLinesByteArrayInputStream = downloadFile("/explore/dataset/lignes-aeriennes-rte/download/");
-            LOGGER.info("Aerial lines were downloaded from the open data server");
-            ByteArrayInputStream substationInputStream = downloadFile("/explore/dataset/postes-electriques-rte/download/");
-            LOGGER.info("substations were downloaded from the open data server");
-            Map<String, SubstationGeoData> substationsGeoData = GeographicDataParser.parseSubstations(new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(substationInputStream))));
-            return new ArrayList<>(
-                GeographicDataParser.parseLines(new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(aerialLinesByteArrayInputStream))),
-                    new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(undergroundLinesByteArrayInputStream))),
-                    substationsGeoData).values());
+            metrics.startStage(ImportMetrics.DOWNLOAD_STAGE);
+            Timer.Sample sample = Timer.start();
+            file = downloadFile(dataset, cancelled);
+            long durationNs = sample.stop(Timer.builder("odre.download").tag("dataset", dataset.getValue()).register(meterRegistry));
+            metrics.recordStage(ImportMetrics.DOWNLOAD_STAGE, durationNs);
+            metrics.recordPayloadBytes(Files.size(file));
+            LOGGER.info("{} was downloaded from the open data server in {} ms", dataset.getValue(), TimeUnit.NANOSECONDS.toMillis(durationNs));
+            try (CsvTokenizer tokenizer = new CsvTokenizer(InputUtils.toBufferedReader(new CancellableInputStream(Files.newInputStream(file), cancelled)))) {
+                return parser.apply(tokenizer);
+            }
         } catch (IOException e) {
             throw new UncheckedIOException(e);
+        } finally {
+            deleteDownloadedFile(file);
         }
     }
 
+    private <T> CompletableFuture<T> downloadAndParseAsync(FileTypeEnum dataset, AtomicBoolean cancelled, ImportMetrics metrics,
+                                                           Function<CsvTokenizer, T> parser) {
+        return CompletableFuture.supplyAsync(() -> downloadAndParse(dataset, cancelled, metrics, parser), downloadExecutor);
+    }
+
+    /**
+     * Wait for all the given downloads, failing as soon as one of them fails, the others being then cancelled.
+     */
+    private static void joinDownloads(AtomicBoolean cancelled, CompletableFuture<?>... downloads) {
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        for (CompletableFuture<?> download : downloads) {
+            download.whenComplete((result, failure) -> {
+                if (failure != null) {
+                    firstFailure.completeExceptionally(failure);
+                }
+            });
+        }
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(downloads), firstFailure).join();
+        } catch (CompletionException e) {
+            cancelled.set(true);
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+
+    @Override
+    public List<SubstationGeoData> getSubstations() {
+        List<SubstationGeoData> substations = new ArrayList<>();
+        streamSubstations(substations::add);
+        return substations;
+    }
+
+    @Override
+    public List<LineGeoData> getLines() {
+        List<LineGeoData> lines = new ArrayList<>();
+        streamLines(lines::add);
+        return lines;
+    }
+
+    @Override
+    public void streamSubstations(Consumer<SubstationGeoData> substationConsumer) {
+        streamSubstations(substationConsumer, null);
+    }
+
+    @Override
+    public void streamSubstations(Consumer<SubstationGeoData> substationConsumer, ImportProgress progress) {
+        ParsingOptions options = withProgress(progress);
+        downloadAndParse(FileTypeEnum.SUBSTATIONS, new AtomicBoolean(), options.getMetrics(),
+            tokenizer -> GeographicDataParser.parseSubstations(tokenizer, options)).values().forEach(substationConsumer);
+    }
+
+    @Override
+    public void streamLines(Consumer<LineGeoData> lineConsumer) {
+        streamLines(lineConsumer, null);
+    }
+
+    /**
+     * The three datasets are downloaded concurrently, each of them being parsed as soon as it is downloaded.
+     * If one of them fails, the import fails right away and the other downloads and parsings are aborted.
+     * Lines are assembled in parallel once the three datasets are parsed, the coordinates of both line datasets
+     * being interned in the same pool. Lines are simplified as they are assembled, with the tolerance of the base
+     * voltage read for them, unless the simplifier is null.
+     */
+    @Override
+    public void streamLines(Consumer<LineGeoData> lineConsumer, LineSimplifier simplifier) {
+        streamLines(lineConsumer, simplifier, null);
+    }
+
+    @Override
+    public void streamLines(Consumer<LineGeoData> lineConsumer, LineSimplifier simplifier, ImportProgress progress) {
+        ParsingOptions options = withProgress(progress);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CoordinatePool coordinatePool = new CoordinatePool();
+        CompletableFuture<LineSegments> undergroundLines = downloadAndParseAsync(FileTypeEnum.UNDERGROUND_LINES, cancelled, options.getMetrics(),
+            tokenizer -> GeographicDataParser.parseLineSegments(tokenizer, coordinatePool, options));
+        CompletableFuture<LineSegments> aerialLines = downloadAndParseAsync(FileTypeEnum.AERIAL_LINES, cancelled, options.getMetrics(),
+            tokenizer -> GeographicDataParser.parseLineSegments(tokenizer, coordinatePool, options));
+        CompletableFuture<Map<String, SubstationGeoData>> substations = downloadAndParseAsync(FileTypeEnum.SUBSTATIONS, cancelled, options.getMetrics(),
+            tokenizer -> GeographicDataParser.parseSubstations(tokenizer, options));
+        joinDownloads(cancelled, undergroundLines, aerialLines, substations);
+        DistributionSummary.builder("odre.coordinates.deduplication.ratio")
+                .description("Share of the line coordinates that were duplicates")
+                .register(meterRegistry)
+                .record(coordinatePool.getDeduplicationRatio());
+        GeographicDataParser.assembleLines(aerialLines.join().merge(undergroundLines.join()), substations.join(), lineConsumer,
+                options.withSimplifier(simplifier));
+    }
+
     public void setOpenDataRest(RestTemplate openDataRest) {
         this.openDataRest = openDataRest;
     }
+
+    /**
+     * Stream failing at the next read once a flag is set, to abort a download or a parsing which is not needed anymore.
+     */
+    private static final class CancellableInputStream extends FilterInputStream {
+
+        private final AtomicBoolean cancelled;
+
+        private CancellableInputStream(InputStream in, AtomicBoolean cancelled) {
+            super(in);
+            this.cancelled = cancelled;
+        }
+
+        private void checkCancelled() throws IOException {
+            if (cancelled.get()) {
+                throw new InterruptedIOException("Download cancelled, another dataset could not be imported");
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkCancelled();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkCancelled();
+            return super.read(b, off, len);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        downloadExecutor.shutdownNow();
+        assemblyPool.shutdownNow();
+    }
 }
@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Lines and substations of the last import found in a bounding box.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@AllArgsConstructor
+@Getter
+public class GeoDataSelection {
+
+    private List<LineGeoData> lines;
+
+    private List<SubstationGeoData> substations;
+}
@@ -12,8 +12,10 @@ import org.gridsuite.odre.server.utils.GeoShapeDeserializer;
 import java.util.List;
 
 /**
+ * Line geometry of the line files: a single line string for a LineString, several ones for a MultiLineString.
+ *
  * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
  */
 
 @JsonDeserialize(using = GeoShapeDeserializer.class)
-public record GeoShape(List<Coordinate> coordinates) { }
+public record GeoShape(List<List<Coordinate>> lineStrings) { }
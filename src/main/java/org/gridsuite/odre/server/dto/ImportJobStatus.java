@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Status of an asynchronous import job, with the progress of its import when it is running and its result when
+ * it is done.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@AllArgsConstructor
+@Getter
+public class ImportJobStatus {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private UUID id;
+
+    private String type;
+
+    private State state;
+
+    private String stage;
+
+    private long rowsParsed;
+
+    private long linesAssembled;
+
+    private long featuresPushed;
+
+    private long batchesPushed;
+
+    private Instant submittedAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private Long durationMs;
+
+    private FileUploadResponse result;
+}
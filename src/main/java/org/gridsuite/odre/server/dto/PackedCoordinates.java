@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of coordinates packed in a primitive array of interleaved latitudes and longitudes.
+ * <p>
+ * A coordinate only exists as an object when it is read through the {@link java.util.List} interface,
+ * {@link #getLat(int)} and {@link #getLon(int)} give access to the coordinates without creating any object.
+ * It is serialized to the same JSON as a list of {@link Coordinate}, or, if the {@link #POLYLINE_PRECISION_ATTRIBUTE}
+ * attribute of the writer is set, to a string in the encoded polyline format.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@JsonSerialize(using = PackedCoordinates.Serializer.class)
+public final class PackedCoordinates extends AbstractList<Coordinate> implements RandomAccess {
+
+    public static final PackedCoordinates EMPTY = new PackedCoordinates(new double[0]);
+
+    /**
+     * Jackson writer attribute giving, as an Integer, the number of decimals of the coordinates
+     * to serialize them as an encoded polyline, 5 being the precision of the original format.
+     */
+    public static final String POLYLINE_PRECISION_ATTRIBUTE = "polylinePrecision";
+
+    public static final int MAX_POLYLINE_PRECISION = 10;
+
+    private final double[] latLon;
+
+    /**
+     * @param latLon interleaved latitudes and longitudes, which must not be modified afterwards
+     */
+    public PackedCoordinates(double[] latLon) {
+        if (latLon.length % 2 != 0) {
+            throw new IllegalArgumentException("Latitudes and longitudes are expected by pairs");
+        }
+        this.latLon = latLon;
+    }
+
+    public static PackedCoordinates copyOf(Iterable<Coordinate> coordinates) {
+        if (coordinates instanceof PackedCoordinates packedCoordinates) {
+            return packedCoordinates;
+        }
+        Builder builder = new Builder();
+        coordinates.forEach(builder::add);
+        return builder.build();
+    }
+
+    @Override
+    public Coordinate get(int index) {
+        Objects.checkIndex(index, size());
+        return new Coordinate(latLon[2 * index], latLon[2 * index + 1]);
+    }
+
+    @Override
+    public int size() {
+        return latLon.length / 2;
+    }
+
+    public double getLat(int index) {
+        return latLon[2 * index];
+    }
+
+    public double getLon(int index) {
+        return latLon[2 * index + 1];
+    }
+
+    /**
+     * @return the same coordinates in the reverse order
+     */
+    public PackedCoordinates reversed() {
+        int size = size();
+        double[] reversed = new double[latLon.length];
+        for (int i = 0; i < size; i++) {
+            reversed[2 * i] = latLon[2 * (size - 1 - i)];
+            reversed[2 * i + 1] = latLon[2 * (size - 1 - i) + 1];
+        }
+        return new PackedCoordinates(reversed);
+    }
+
+    /**
+     * @return these coordinates followed by the given ones
+     */
+    public PackedCoordinates concat(PackedCoordinates other) {
+        double[] concatenated = Arrays.copyOf(latLon, latLon.length + other.latLon.length);
+        System.arraycopy(other.latLon, 0, concatenated, latLon.length, other.latLon.length);
+        return new PackedCoordinates(concatenated);
+    }
+
+    /**
+     * Encode the coordinates as a polyline: the latitudes and longitudes are rounded to the given number of decimals,
+     * and the difference of each one with the previous one is written as a zigzag variable length number, in chunks
+     * of 5 bits coded as printable characters. Close coordinates are then coded with a few characters each.
+     *
+     * @see <a href="https://developers.google.com/maps/documentation/utilities/polylinealgorithm">Encoded polyline algorithm format</a>
+     */
+    public String toPolyline(int precision) {
+        double factor = polylineFactor(precision);
+        StringBuilder polyline = new StringBuilder(8 * size());
+        long previousLat = 0;
+        long previousLon = 0;
+        for (int i = 0; i < size(); i++) {
+            long lat = Math.round(latLon[2 * i] * factor);
+            long lon = Math.round(latLon[2 * i + 1] * factor);
+            encodePolylineValue(lat - previousLat, polyline);
+            encodePolylineValue(lon - previousLon, polyline);
+            previousLat = lat;
+            previousLon = lon;
+        }
+        return polyline.toString();
+    }
+
+    /**
+     * @return the coordinates of a polyline encoded with {@link #toPolyline(int)}
+     */
+    public static PackedCoordinates fromPolyline(String polyline, int precision) {
+        double factor = polylineFactor(precision);
+        Builder builder = new Builder(polyline.length() / 4);
+        long lat = 0;
+        long lon = 0;
+        int[] position = new int[1];
+        while (position[0] < polyline.length()) {
+            lat += decodePolylineValue(polyline, position);
+            lon += decodePolylineValue(polyline, position);
+            builder.add(lat / factor, lon / factor);
+        }
+        return builder.build();
+    }
+
+    private static double polylineFactor(int precision) {
+        if (precision < 0 || precision > MAX_POLYLINE_PRECISION) {
+            throw new IllegalArgumentException("Polyline precision must be between 0 and " + MAX_POLYLINE_PRECISION + ": " + precision);
+        }
+        return Math.pow(10, precision);
+    }
+
+    private static void encodePolylineValue(long value, StringBuilder polyline) {
+        long zigzag = value < 0 ? ~(value << 1) : value << 1;
+        while (zigzag >= 0x20) {
+            polyline.append((char) ((0x20 | (zigzag & 0x1f)) + 63));
+            zigzag >>>= 5;
+        }
+        polyline.append((char) (zigzag + 63));
+    }
+
+    private static long decodePolylineValue(String polyline, int[] position) {
+        long zigzag = 0;
+        int shift = 0;
+        int chunk;
+        do {
+            if (position[0] == polyline.length()) {
+                throw new IllegalArgumentException("Truncated polyline");
+            }
+            chunk = polyline.charAt(position[0]++) - 63;
+            zigzag |= (long) (chunk & 0x1f) << shift;
+            shift += 5;
+        } while (chunk >= 0x20);
+        return (zigzag & 1) != 0 ? ~(zigzag >>> 1) : zigzag >>> 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof PackedCoordinates other) {
+            return Arrays.equals(latLon, other.latLon);
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Hashes the packed array directly, with the result specified by {@link java.util.List#hashCode()} for a list of
+     * {@link Coordinate}, so that it stays consistent with {@link #equals(Object)} whatever the list it is compared to.
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int i = 0; i < latLon.length; i += 2) {
+            hashCode = 31 * hashCode + coordinateHashCode(latLon[i], latLon[i + 1]);
+        }
+        return hashCode;
+    }
+
+    /**
+     * @return the hash code of a {@link Coordinate} with these latitude and longitude, as generated by lombok
+     */
+    private static int coordinateHashCode(double lat, double lon) {
+        long latBits = Double.doubleToLongBits(lat);
+        long lonBits = Double.doubleToLongBits(lon);
+        int hashCode = 59 + (int) (latBits >>> 32 ^ latBits);
+        return hashCode * 59 + (int) (lonBits >>> 32 ^ lonBits);
+    }
+
+    /**
+     * Builder of packed coordinates, growing its array as coordinates are added.
+     */
+    public static final class Builder {
+
+        private double[] latLon;
+
+        private int size;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int expectedSize) {
+            latLon = new double[2 * Math.max(1, expectedSize)];
+        }
+
+        public Builder add(double lat, double lon) {
+            if (2 * size == latLon.length) {
+                latLon = Arrays.copyOf(latLon, latLon.length * 2);
+            }
+            latLon[2 * size] = lat;
+            latLon[2 * size + 1] = lon;
+            size++;
+            return this;
+        }
+
+        public Builder add(Coordinate coordinate) {
+            return add(coordinate.getLat(), coordinate.getLon());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public PackedCoordinates build() {
+            return new PackedCoordinates(Arrays.copyOf(latLon, 2 * size));
+        }
+    }
+
+    /**
+     * Writes the coordinates as an array of {"lat": ..., "lon": ...} objects, like a list of {@link Coordinate},
+     * or as an encoded polyline string if the {@link #POLYLINE_PRECISION_ATTRIBUTE} attribute is set.
+     */
+    public static class Serializer extends StdSerializer<PackedCoordinates> {
+
+        public Serializer() {
+            super(PackedCoordinates.class);
+        }
+
+        @Override
+        public void serialize(PackedCoordinates coordinates, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (provider.getAttribute(POLYLINE_PRECISION_ATTRIBUTE) instanceof Integer precision) {
+                generator.writeString(coordinates.toPolyline(precision));
+                return;
+            }
+            int size = coordinates.size();
+            generator.writeStartArray(coordinates, size);
+            for (int i = 0; i < size; i++) {
+                generator.writeStartObject();
+                generator.writeNumberField("lat", coordinates.getLat(i));
+                generator.writeNumberField("lon", coordinates.getLon(i));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
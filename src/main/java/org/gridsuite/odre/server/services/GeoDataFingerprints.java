@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.services;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.gridsuite.odre.server.dto.Coordinate;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.PackedCoordinates;
+import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fingerprints of the lines and substations of the last successful push to the geo data server, so that the next
+ * push only sends the elements that have been added or changed since.
+ * <p>
+ * A fingerprint is a 64-bit hash of everything that is pushed for an element. Fingerprints are only kept in memory:
+ * after a restart, the first push is a full push.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@Component
+public class GeoDataFingerprints {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeoDataFingerprints.class);
+
+    private static final HashFunction HASH_FUNCTION = Hashing.farmHashFingerprint64();
+
+    private static final int LOGGED_REMOVED_IDS = 20;
+
+    private final Map<String, Map<String, Long>> fingerprintsByResource = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public GeoDataFingerprints(MeterRegistry meterRegistry) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry);
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length()).putUnencodedChars(value);
+        }
+    }
+
+    private static void putCoordinate(Hasher hasher, Coordinate coordinate) {
+        hasher.putDouble(coordinate.getLat()).putDouble(coordinate.getLon());
+    }
+
+    public static long fingerprint(LineGeoData line) {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        putString(hasher, line.getId());
+        putString(hasher, line.getCountry1());
+        putString(hasher, line.getCountry2());
+        putString(hasher, line.getSubstationStart());
+        putString(hasher, line.getSubstationEnd());
+        List<Coordinate> coordinates = line.getCoordinates();
+        hasher.putInt(coordinates.size());
+        if (coordinates instanceof PackedCoordinates packedCoordinates) {
+            for (int i = 0; i < packedCoordinates.size(); i++) {
+                hasher.putDouble(packedCoordinates.getLat(i)).putDouble(packedCoordinates.getLon(i));
+            }
+        } else {
+            coordinates.forEach(coordinate -> putCoordinate(hasher, coordinate));
+        }
+        return hasher.hash().asLong();
+    }
+
+    public static long fingerprint(SubstationGeoData substation) {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        putString(hasher, substation.getId());
+        putString(hasher, substation.getCountry());
+        putCoordinate(hasher, substation.getCoordinate());
+        return hasher.hash().asLong();
+    }
+
+    public Delta<LineGeoData> linesDelta(boolean fullPush) {
+        return new Delta<>(GeoDataPusher.LINES, fullPush, LineGeoData::getId, GeoDataFingerprints::fingerprint);
+    }
+
+    public Delta<SubstationGeoData> substationsDelta(boolean fullPush) {
+        return new Delta<>(GeoDataPusher.SUBSTATIONS, fullPush, SubstationGeoData::getId, GeoDataFingerprints::fingerprint);
+    }
+
+    /**
+     * Forget the fingerprints of a resource, when it has been pushed from another source, so that the next push
+     * of this resource is a full push.
+     */
+    public void invalidate(String resource) {
+        fingerprintsByResource.remove(resource);
+    }
+
+    /**
+     * Difference between the elements of a push and the ones of the last successful push of the same resource.
+     */
+    public final class Delta<T> {
+
+        private final String resource;
+
+        private final Map<String, Long> previousFingerprints;
+
+        private final Map<String, Long> fingerprints = new HashMap<>();
+
+        private final Function<T, String> idGetter;
+
+        private final ToLongFunction<T> fingerprintFunction;
+
+        private long added;
+
+        private long changed;
+
+        private Delta(String resource, boolean fullPush, Function<T, String> idGetter, ToLongFunction<T> fingerprintFunction) {
+            this.resource = resource;
+            this.previousFingerprints = fullPush ? Map.of() : fingerprintsByResource.getOrDefault(resource, Map.of());
+            this.idGetter = idGetter;
+            this.fingerprintFunction = fingerprintFunction;
+        }
+
+        /**
+         * @return a consumer forwarding to the given one only the elements that are new or have changed.
+         * Like the consumers of the geo data pusher, it must not be called concurrently.
+         */
+        public Consumer<T> filter(Consumer<T> consumer) {
+            return element -> {
+                String id = idGetter.apply(element);
+                long fingerprint = fingerprintFunction.applyAsLong(element);
+                fingerprints.put(id, fingerprint);
+                Long previousFingerprint = previousFingerprints.get(id);
+                if (previousFingerprint == null) {
+                    added++;
+                } else if (previousFingerprint != fingerprint) {
+                    changed++;
+                } else {
+                    return;
+                }
+                consumer.accept(element);
+            };
+        }
+
+        /**
+         * Keep the fingerprints of this push as reference for the next one. To be called once the push succeeded.
+         * Elements that were pushed last time but not this time are only reported, the geo data server
+         * has no way to delete them.
+         */
+        public void commit() {
+            List<String> removedIds = previousFingerprints.keySet().stream().filter(id -> !fingerprints.containsKey(id)).sorted().toList();
+            fingerprintsByResource.put(resource, fingerprints);
+            long unchanged = fingerprints.size() - added - changed;
+            LOGGER.info("{} delta push: {} added, {} changed, {} unchanged, {} removed", resource, added, changed, unchanged, removedIds.size());
+            if (!removedIds.isEmpty()) {
+                LOGGER.warn("{} {} no longer in the dataset, first ones: {}", removedIds.size(), resource, removedIds.subList(0, Math.min(LOGGED_REMOVED_IDS, removedIds.size())));
+            }
+            count("added", added);
+            count("changed", changed);
+            count("unchanged", unchanged);
+            count("removed", removedIds.size());
+        }
+
+        private void count(String change, long amount) {
+            Counter.builder("odre.push.delta").tag("resource", resource).tag("change", change).register(meterRegistry).increment(amount);
+        }
+    }
+}
@@ -0,0 +1,480 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.gridsuite.odre.server.dto.PackedCoordinates;
+import org.gridsuite.odre.server.utils.ImportMetrics;
+import org.gridsuite.odre.server.utils.ImportProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Push geographical data to the geo data server.
+ * <p>
+ * A dataset is cut into batches, by default of at most {@link #DEFAULT_BATCH_MAX_BYTES} bytes, which are posted
+ * concurrently, with a bounded number of batches in flight and a per-batch retry, so that a failed post only costs
+ * one batch. The push stops at the first batch which still fails after its retries, without producing the rest of
+ * the dataset. The batches already posted are not rolled back: a failed push, whether a batch or the producer
+ * failed, may leave the first batches of the dataset applied on the geo data server.
+ * <p>
+ * When both batch sizes (in features and in bytes) are set to 0, the dataset is sent as a single JSON array,
+ * streamed element by element with a chunked transfer encoding: the request is then open during the whole import and
+ * is not retried. If the producer fails, the array is left unterminated, so that the geo data server cannot take the
+ * elements written so far for a complete dataset.
+ * <p>
+ * Bodies may be gzip compressed, with a {@code Content-Encoding: gzip} header, which the geo data server has to
+ * accept. Elements are then serialized straight into the compressing stream, the uncompressed body never being
+ * buffered as a whole.
+ * <p>
+ * Instead of JSON, the elements may be serialized with one of the binary Jackson formats Smile or CBOR, given by the
+ * content type of the bodies, in which numbers are written in binary rather than as decimal strings. As for
+ * compression, the geo data server has to accept the format.
+ * <p>
+ * The coordinates of the lines may also be sent as encoded polyline strings instead of arrays of objects,
+ * see {@link PackedCoordinates#toPolyline(int)}.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@Component
+public class GeoDataPusher implements DisposableBean {
+
+    public static final String LINES = "lines";
+    public static final String SUBSTATIONS = "substations";
+
+    public static final long DEFAULT_BATCH_MAX_BYTES = 8L * 1024 * 1024;
+
+    public static final String JSON_FORMAT = "json";
+    public static final String SMILE_FORMAT = "smile";
+    public static final String CBOR_FORMAT = "cbor";
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    public static final String ARRAY_COORDINATES_ENCODING = "array";
+    public static final String POLYLINE_COORDINATES_ENCODING = "polyline";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeoDataPusher.class);
+    private static final String GEO_DATA_API_VERSION = "v1";
+
+    private static final String IDENTITY_ENCODING = "identity";
+    private static final String GZIP_ENCODING = "gzip";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private RestTemplate geoDataServerRest;
+
+    private String geoDataServerBaseUri;
+
+    private final ObjectWriter geoDataWriter;
+
+    private final MediaType contentType;
+
+    private final int batchSize;
+
+    private final long batchMaxBytes;
+
+    private final int maxInFlight;
+
+    private final int maxRetries;
+
+    private final long retryBackoffMs;
+
+    private final String contentEncoding;
+
+    private final ExecutorService batchExecutor;
+
+    private final MeterRegistry meterRegistry;
+
+    public GeoDataPusher(@Value("${gridsuite.services.geo-data-server.base-uri:http://geo-data-server/}") String geoDataServerBaseUri,
+                         @Value("${gridsuite.services.geo-data-server.push.batch-size:0}") int batchSize,
+                         @Value("${gridsuite.services.geo-data-server.push.batch-max-bytes:" + DEFAULT_BATCH_MAX_BYTES + "}") long batchMaxBytes,
+                         @Value("${gridsuite.services.geo-data-server.push.max-in-flight:4}") int maxInFlight,
+                         @Value("${gridsuite.services.geo-data-server.push.max-retries:3}") int maxRetries,
+                         @Value("${gridsuite.services.geo-data-server.push.retry-backoff-ms:500}") long retryBackoffMs,
+                         @Value("${gridsuite.services.geo-data-server.push.content-encoding:identity}") String contentEncoding,
+                         @Value("${gridsuite.services.geo-data-server.push.format:json}") String format,
+                         @Value("${gridsuite.services.geo-data-server.push.coordinates-encoding:array}") String coordinatesEncoding,
+                         @Value("${gridsuite.services.geo-data-server.push.polyline-precision:5}") int polylinePrecision,
+                         RestTemplateBuilder restTemplateBuilder, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.geoDataServerBaseUri = Objects.requireNonNull(geoDataServerBaseUri);
+        this.geoDataServerRest = restTemplateBuilder.build();
+        this.geoDataServerRest.setUriTemplateHandler(new DefaultUriBuilderFactory(geoDataServerBaseUri));
+        String formatName = format.toLowerCase(Locale.ROOT);
+        this.contentType = switch (formatName) {
+            case JSON_FORMAT -> MediaType.APPLICATION_JSON;
+            case SMILE_FORMAT -> APPLICATION_SMILE;
+            case CBOR_FORMAT -> MediaType.APPLICATION_CBOR;
+            default -> throw new IllegalArgumentException("Unsupported geo data push format: " + format);
+        };
+        // the mapper is copied to keep its configuration and modules with another format
+        ObjectMapper formatMapper = switch (formatName) {
+            case SMILE_FORMAT -> objectMapper.copyWith(new SmileFactory());
+            case CBOR_FORMAT -> objectMapper.copyWith(new CBORFactory());
+            default -> objectMapper;
+        };
+        // elements are flushed by chunks of the underlying stream, not one by one, and an array is only terminated
+        // explicitly, not when its generator is closed after a failure
+        ObjectWriter writer = formatMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        this.geoDataWriter = switch (coordinatesEncoding.toLowerCase(Locale.ROOT)) {
+            case ARRAY_COORDINATES_ENCODING -> writer;
+            case POLYLINE_COORDINATES_ENCODING -> {
+                if (polylinePrecision < 0 || polylinePrecision > PackedCoordinates.MAX_POLYLINE_PRECISION) {
+                    throw new IllegalArgumentException("Unsupported geo data push polyline precision: " + polylinePrecision);
+                }
+                yield writer.withAttribute(PackedCoordinates.POLYLINE_PRECISION_ATTRIBUTE, polylinePrecision);
+            }
+            default -> throw new IllegalArgumentException("Unsupported geo data push coordinates encoding: " + coordinatesEncoding);
+        };
+        this.batchSize = batchSize;
+        this.batchMaxBytes = batchMaxBytes;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoffMs = retryBackoffMs;
+        this.contentEncoding = contentEncoding.toLowerCase(Locale.ROOT);
+        if (!IDENTITY_ENCODING.equals(this.contentEncoding) && !GZIP_ENCODING.equals(this.contentEncoding)) {
+            throw new IllegalArgumentException("Unsupported geo data push content encoding: " + contentEncoding);
+        }
+        if (!isBatched() && this.maxRetries > 0) {
+            LOGGER.warn("Geo data is pushed as a single streamed request, which is not retried: set a batch size to retry failed pushes");
+        }
+        this.batchExecutor = Executors.newFixedThreadPool(this.maxInFlight,
+                new ThreadFactoryBuilder().setNameFormat("geo-data-push-%d").setDaemon(true).build());
+        this.meterRegistry = Objects.requireNonNull(meterRegistry);
+    }
+
+    /**
+     * @param bytes number of bytes sent, after compression
+     * @param uncompressedBytes number of bytes of the serialized elements, before compression
+     * @param serializationNs time spent serializing the elements, which for a streamed push includes the time spent
+     *                        writing them to the connection
+     */
+    public record Result(long features, int batches, long bytes, long uncompressedBytes, long serializationNs) { }
+
+    /**
+     * Push all the elements handed out by the producer to the given resource of the geo data server.
+     * The duration of the push, which includes the time spent by the producer, is recorded as the push stage of an
+     * import from the given source.
+     *
+     * @param resource the geo data server resource, {@link #LINES} or {@link #SUBSTATIONS}
+     * @param source the source of the elements, {@link ImportMetrics#DOWNLOAD_SOURCE}, {@link ImportMetrics#UPLOAD_SOURCE}
+     *               or {@link ImportMetrics#SNAPSHOT_SOURCE}
+     * @param producer called once with a consumer to which every element has to be given
+     */
+    public <T> Result push(String resource, String source, Consumer<Consumer<T>> producer) {
+        return push(resource, source, null, producer);
+    }
+
+    /**
+     * Same as {@link #push(String, String, Consumer)}, the features and batches pushed being reported to the given
+     * progress unless it is null.
+     */
+    public <T> Result push(String resource, String source, ImportProgress progress, Consumer<Consumer<T>> producer) {
+        String uri = UriComponentsBuilder.fromHttpUrl(geoDataServerBaseUri + "/" + GEO_DATA_API_VERSION + "/" + resource).toUriString();
+        ImportMetrics importMetrics = new ImportMetrics(meterRegistry, source).withProgress(progress);
+        importMetrics.startStage(ImportMetrics.PUSH_STAGE);
+        long start = System.nanoTime();
+        Result result = isBatched() ? pushInBatches(uri, resource, producer, importMetrics) : pushStreamed(uri, producer, importMetrics);
+        long durationNs = System.nanoTime() - start;
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNs);
+        importMetrics.recordStage(ImportMetrics.SERIALIZATION_STAGE, result.serializationNs());
+        importMetrics.recordStage(ImportMetrics.PUSH_STAGE, durationNs);
+        Counter.builder("odre.push.features").tag("resource", resource).tag("source", source).register(meterRegistry).increment(result.features());
+        Counter.builder("odre.push.bytes").tag("resource", resource).tag("source", source).tag("content-encoding", contentEncoding).baseUnit("bytes")
+                .register(meterRegistry).increment(result.bytes());
+        Counter.builder("odre.push.uncompressed.bytes").tag("resource", resource).tag("source", source).baseUnit("bytes")
+                .register(meterRegistry).increment(result.uncompressedBytes());
+        LOGGER.info("{} {} pushed in {} batch(es), {} bytes ({} uncompressed), in {} ms ({} features/s)", result.features(), resource,
+                result.batches(), result.bytes(), result.uncompressedBytes(), durationMs,
+                durationMs > 0 ? result.features() * 1000 / durationMs : result.features());
+        return result;
+    }
+
+    private boolean isBatched() {
+        return batchSize > 0 || batchMaxBytes > 0;
+    }
+
+    private boolean isCompressed() {
+        return GZIP_ENCODING.equals(contentEncoding);
+    }
+
+    private void setHeaders(HttpHeaders headers) {
+        headers.setContentType(contentType);
+        if (isCompressed()) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        }
+    }
+
+    private OutputStream encode(OutputStream outputStream) throws IOException {
+        return isCompressed() ? new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE) : outputStream;
+    }
+
+    /**
+     * Write the end of the encoded stream, if any, without closing the underlying stream.
+     */
+    private static void finishEncoding(OutputStream encodedOutputStream) throws IOException {
+        if (encodedOutputStream instanceof GZIPOutputStream gzipOutputStream) {
+            gzipOutputStream.finish();
+        }
+    }
+
+    /**
+     * Post an array to the geo data server, each element being serialized as soon as it is produced.
+     * The body length is unknown up-front, so it is sent with a chunked transfer encoding.
+     */
+    private <T> Result pushStreamed(String uri, Consumer<Consumer<T>> producer, ImportMetrics importMetrics) {
+        long[] counts = new long[4];
+        geoDataServerRest.execute(uri, HttpMethod.POST, request -> {
+            setHeaders(request.getHeaders());
+            if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+                streamingRequest.setBody(outputStream -> writeJsonArray(outputStream, producer, counts, importMetrics));
+            } else {
+                writeJsonArray(request.getBody(), producer, counts, importMetrics);
+            }
+        }, null);
+        importMetrics.batchPushed();
+        return new Result(counts[0], 1, counts[1], counts[2], counts[3]);
+    }
+
+    private <T> void writeJsonArray(OutputStream outputStream, Consumer<Consumer<T>> producer, long[] counts, ImportMetrics importMetrics) throws IOException {
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        OutputStream encodedOutputStream = encode(countingOutputStream);
+        CountingOutputStream uncompressedOutputStream = new CountingOutputStream(encodedOutputStream);
+        try (JsonGenerator generator = geoDataWriter.createGenerator(uncompressedOutputStream)) {
+            generator.writeStartArray();
+            producer.accept(element -> {
+                try {
+                    long start = System.nanoTime();
+                    geoDataWriter.writeValue(generator, element);
+                    counts[3] += System.nanoTime() - start;
+                    counts[0]++;
+                    importMetrics.featurePushed();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+        finishEncoding(encodedOutputStream);
+        counts[1] = countingOutputStream.getCount();
+        counts[2] = uncompressedOutputStream.getCount();
+    }
+
+    private <T> Result pushInBatches(String uri, String resource, Consumer<Consumer<T>> producer, ImportMetrics importMetrics) {
+        BatchWriter<T> batchWriter = new BatchWriter<>(uri, resource, importMetrics);
+        try {
+            producer.accept(batchWriter);
+            batchWriter.flush();
+        } finally {
+            batchWriter.awaitInFlightBatches();
+        }
+        batchWriter.checkFailures();
+        return new Result(batchWriter.features, batchWriter.batches, batchWriter.bytes, batchWriter.uncompressedBytes, batchWriter.serializationNs);
+    }
+
+    /**
+     * Serialize elements into an array until the batch is full, then hand the batch to the executor.
+     * The producer is blocked while {@code maxInFlight} batches are being posted, and fails as soon as a batch could
+     * not be pushed.
+     * The batch size in bytes is the size of the uncompressed array, so that it does not depend on the encoding.
+     */
+    private final class BatchWriter<T> implements Consumer<T> {
+
+        private final String uri;
+        private final String resource;
+        private final ImportMetrics importMetrics;
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private final List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+        private ByteArrayOutputStream buffer;
+        private OutputStream encodedOutputStream;
+        private CountingOutputStream uncompressedOutputStream;
+        private JsonGenerator generator;
+        private int batchFeatures;
+        private long features;
+        private int batches;
+        private long bytes;
+        private long uncompressedBytes;
+        private long serializationNs;
+
+        private BatchWriter(String uri, String resource, ImportMetrics importMetrics) {
+            this.uri = uri;
+            this.resource = resource;
+            this.importMetrics = importMetrics;
+        }
+
+        @Override
+        public void accept(T element) {
+            checkFailures();
+            try {
+                if (generator == null) {
+                    buffer = new ByteArrayOutputStream();
+                    encodedOutputStream = encode(buffer);
+                    uncompressedOutputStream = new CountingOutputStream(encodedOutputStream);
+                    generator = geoDataWriter.createGenerator(uncompressedOutputStream);
+                    generator.writeStartArray();
+                }
+                long start = System.nanoTime();
+                geoDataWriter.writeValue(generator, element);
+                serializationNs += System.nanoTime() - start;
+                batchFeatures++;
+                features++;
+                importMetrics.featurePushed();
+                if (batchSize > 0 && batchFeatures >= batchSize
+                        || batchMaxBytes > 0 && uncompressedOutputStream.getCount() + Math.max(0, generator.getOutputBuffered()) >= batchMaxBytes) {
+                    flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() {
+            if (generator == null) {
+                return;
+            }
+            try {
+                generator.writeEndArray();
+                generator.close();
+                finishEncoding(encodedOutputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            byte[] body = buffer.toByteArray();
+            int count = batchFeatures;
+            int batchNumber = ++batches;
+            bytes += body.length;
+            uncompressedBytes += uncompressedOutputStream.getCount();
+            generator = null;
+            uncompressedOutputStream = null;
+            encodedOutputStream = null;
+            buffer = null;
+            batchFeatures = 0;
+
+            acquireInFlightPermits(1);
+            try {
+                // a batch may have failed while this one was waiting for a permit
+                checkFailures();
+                CompletableFuture.runAsync(() -> postBatch(uri, resource, batchNumber, count, body), batchExecutor)
+                        .whenComplete((r, t) -> {
+                            if (t != null) {
+                                failures.add(t instanceof CompletionException ? t.getCause() : t);
+                            } else {
+                                importMetrics.batchPushed();
+                            }
+                            inFlight.release();
+                        });
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        private void checkFailures() {
+            if (!failures.isEmpty()) {
+                IllegalStateException e = new IllegalStateException(String.format("%d/%d batch(es) of %s could not be pushed to the geo data server",
+                        failures.size(), batches, resource), failures.get(0));
+                failures.stream().skip(1).forEach(e::addSuppressed);
+                throw e;
+            }
+        }
+
+        private void awaitInFlightBatches() {
+            acquireInFlightPermits(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+
+        private void acquireInFlightPermits(int permits) {
+            try {
+                inFlight.acquire(permits);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for batches to be pushed", e);
+            }
+        }
+    }
+
+    private void postBatch(String uri, String resource, int batchNumber, int count, byte[] body) {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        setHeaders(requestHeaders);
+        HttpEntity<byte[]> requestEntity = new HttpEntity<>(body, requestHeaders);
+        DistributionSummary.builder("odre.push.batch.bytes").tag("resource", resource).baseUnit("bytes").register(meterRegistry).record(body.length);
+        int attempt = 0;
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                geoDataServerRest.exchange(uri, HttpMethod.POST, requestEntity, Void.class);
+                batchTimer(resource, "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                LOGGER.debug("Batch {} of {} ({} features, {} bytes) pushed in {} ms", batchNumber, resource, count, body.length,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return;
+            } catch (RestClientException e) {
+                batchTimer(resource, "failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                // a rejected payload will be rejected again, only transient errors are retried
+                if (e instanceof HttpClientErrorException || attempt >= maxRetries) {
+                    LOGGER.error("Batch {} of {} ({} features) failed after {} attempt(s): {}", batchNumber, resource, count, attempt + 1, e.getMessage());
+                    throw e;
+                }
+                attempt++;
+                LOGGER.warn("Batch {} of {} failed, retry {}/{}: {}", batchNumber, resource, attempt, maxRetries, e.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
+
+    private Timer batchTimer(String resource, String outcome) {
+        return Timer.builder("odre.push.batch").tag("resource", resource).tag("outcome", outcome).register(meterRegistry);
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMs * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry a batch", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        batchExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.services;
+
+import com.google.common.collect.ImmutableMap;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.gridsuite.odre.server.utils.GeoDataIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Lines and substations of the last successful import, kept in memory to be read without going through the geo data
+ * server and to be pushed again without downloading and parsing the datasets.
+ * <p>
+ * A snapshot is immutable and replaced as a whole at the end of each import, so that readers always see the elements
+ * of a single import. It comes with a spatial index of its elements, built at the end of the import.
+ * <p>
+ * Keeping the snapshot means keeping every element of the last import in memory, whereas the import itself only keeps
+ * the elements being pushed. It can be disabled with {@code gridsuite.services.odre.snapshot.enabled}, the snapshots
+ * then staying empty: the elements can no longer be read from this service nor pushed again without an import.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@Component
+public class GeoDataSnapshots {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeoDataSnapshots.class);
+
+    private final AtomicReference<Snapshot<LineGeoData>> lines = new AtomicReference<>(Snapshot.empty());
+
+    private final AtomicReference<Snapshot<SubstationGeoData>> substations = new AtomicReference<>(Snapshot.empty());
+
+    private final boolean enabled;
+
+    public GeoDataSnapshots() {
+        this(true);
+    }
+
+    @Autowired
+    public GeoDataSnapshots(@Value("${gridsuite.services.odre.snapshot.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            LOGGER.info("Snapshots disabled, imported elements are not kept in memory");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Snapshot<LineGeoData> getLines() {
+        return lines.get();
+    }
+
+    public Snapshot<SubstationGeoData> getSubstations() {
+        return substations.get();
+    }
+
+    public Recorder<LineGeoData> linesRecorder(String source) {
+        return new Recorder<>(GeoDataPusher.LINES, source, LineGeoData::getId, GeoDataIndex::ofLines, enabled ? lines : null);
+    }
+
+    public Recorder<SubstationGeoData> substationsRecorder(String source) {
+        return new Recorder<>(GeoDataPusher.SUBSTATIONS, source, SubstationGeoData::getId, GeoDataIndex::ofSubstations, enabled ? substations : null);
+    }
+
+    /**
+     * Elements of an import, by id in the order of the import.
+     *
+     * @param source {@link org.gridsuite.odre.server.utils.ImportMetrics#DOWNLOAD_SOURCE} or
+     *               {@link org.gridsuite.odre.server.utils.ImportMetrics#UPLOAD_SOURCE}, null if nothing has been imported
+     * @param importedAt end of the import, null if nothing has been imported
+     * @param index spatial index of the elements
+     */
+    public record Snapshot<T>(ImmutableMap<String, T> elementsById, String source, Instant importedAt, GeoDataIndex<T> index) {
+
+        private static final Snapshot<?> EMPTY = new Snapshot<>(ImmutableMap.of(), null, null, GeoDataIndex.empty());
+
+        @SuppressWarnings("unchecked")
+        static <T> Snapshot<T> empty() {
+            return (Snapshot<T>) EMPTY;
+        }
+
+        public List<T> elements() {
+            return elementsById.values().asList();
+        }
+
+        public Optional<T> get(String id) {
+            return Optional.ofNullable(elementsById.get(id));
+        }
+
+        public int size() {
+            return elementsById.size();
+        }
+
+        public boolean isEmpty() {
+            return elementsById.isEmpty();
+        }
+
+        /**
+         * @return the elements intersecting the given box, borders included, in the order of the import
+         */
+        public List<T> query(double minLat, double minLon, double maxLat, double maxLon) {
+            return index.query(minLat, minLon, maxLat, maxLon);
+        }
+    }
+
+    /**
+     * Records the elements of an import, to replace the current snapshot once the import succeeded. When snapshots are
+     * disabled, nothing is recorded.
+     */
+    public static final class Recorder<T> {
+
+        private final String resource;
+
+        private final String source;
+
+        private final Function<T, String> idGetter;
+
+        private final Function<List<T>, GeoDataIndex<T>> indexer;
+
+        // null when snapshots are disabled
+        private final AtomicReference<Snapshot<T>> snapshot;
+
+        // built directly, rather than copied from a map, not to hold the elements twice at the end of the import
+        private final ImmutableMap.Builder<String, T> elementsById = ImmutableMap.builder();
+
+        private Recorder(String resource, String source, Function<T, String> idGetter, Function<List<T>, GeoDataIndex<T>> indexer,
+                         AtomicReference<Snapshot<T>> snapshot) {
+            this.resource = resource;
+            this.source = Objects.requireNonNull(source);
+            this.idGetter = idGetter;
+            this.indexer = indexer;
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * @return a consumer recording each element before forwarding it to the given one.
+         * Like the consumers of the geo data pusher, it must not be called concurrently.
+         */
+        public Consumer<T> record(Consumer<T> consumer) {
+            if (snapshot == null) {
+                return consumer;
+            }
+            return element -> {
+                elementsById.put(idGetter.apply(element), element);
+                consumer.accept(element);
+            };
+        }
+
+        public void recordAll(Iterable<T> elements) {
+            if (snapshot == null) {
+                return;
+            }
+            elements.forEach(element -> elementsById.put(idGetter.apply(element), element));
+        }
+
+        /**
+         * Index the recorded elements and replace the current snapshot by them. To be called once the import succeeded.
+         */
+        public void commit() {
+            if (snapshot == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            // an element pushed twice is kept once, at its first position with its last value
+            ImmutableMap<String, T> elements = elementsById.buildKeepingLast();
+            GeoDataIndex<T> index = indexer.apply(elements.values().asList());
+            snapshot.set(new Snapshot<>(elements, source, Instant.now(), index));
+            LOGGER.info("{} snapshot replaced by {} {} from {}, indexed in {} ms", resource, elements.size(), resource, source,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.services;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.gridsuite.odre.server.dto.FileUploadResponse;
+import org.gridsuite.odre.server.dto.ImportJobStatus;
+import org.gridsuite.odre.server.utils.ImportProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs imports in the background, so that a client does not have to wait for a whole download, parse and push cycle.
+ * <p>
+ * Jobs run on a bounded executor: a fixed number of threads and a bounded queue of waiting jobs, a job being rejected
+ * when the queue is full. The status of the jobs is kept in memory to be polled by clients: every queued or running job,
+ * and the most recent finished ones.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@Service
+public class ImportJobService implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final ThreadPoolExecutor jobExecutor;
+
+    // in submission order, guarded by itself
+    private final Map<UUID, Job> jobs = new LinkedHashMap<>();
+
+    private final int maxRetained;
+
+    public ImportJobService(@Value("${gridsuite.services.odre.jobs.threads:1}") int threads,
+                            @Value("${gridsuite.services.odre.jobs.queue-capacity:16}") int queueCapacity,
+                            @Value("${gridsuite.services.odre.jobs.max-retained:100}") int maxRetained) {
+        int threadCount = Math.max(1, threads);
+        this.jobExecutor = new ThreadPoolExecutor(threadCount, threadCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new ThreadFactoryBuilder().setNameFormat("odre-import-job-%d").setDaemon(true).build());
+        this.maxRetained = Math.max(1, maxRetained);
+    }
+
+    /**
+     * Submit an import to run in the background.
+     *
+     * @param type what is imported, {@link GeoDataPusher#LINES} or {@link GeoDataPusher#SUBSTATIONS}
+     * @param importer runs the import, reporting its progress to the given progress, and returns its result
+     * @return the status of the queued job
+     * @throws RejectedExecutionException if too many jobs are already waiting
+     */
+    public ImportJobStatus submit(String type, Function<ImportProgress, FileUploadResponse> importer) {
+        Job job = new Job(UUID.randomUUID(), type);
+        // known before it can start, and forgotten at once if it is rejected
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        try {
+            jobExecutor.execute(() -> run(job, importer));
+        } catch (RejectedExecutionException e) {
+            synchronized (jobs) {
+                jobs.remove(job.id);
+            }
+            throw e;
+        }
+        forgetFinishedJobs();
+        LOGGER.info("Import job {} of {} submitted", job.id, type);
+        return job.toStatus();
+    }
+
+    /**
+     * @return the status of the job, or nothing if it is unknown or has been forgotten
+     */
+    public Optional<ImportJobStatus> getStatus(UUID id) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        return Optional.ofNullable(job).map(Job::toStatus);
+    }
+
+    /**
+     * Forget the oldest finished jobs beyond the retained ones. Queued and running jobs are never forgotten, there are
+     * at most as many of them as threads and waiting jobs.
+     */
+    private void forgetFinishedJobs() {
+        synchronized (jobs) {
+            Iterator<Job> it = jobs.values().iterator();
+            while (jobs.size() > maxRetained && it.hasNext()) {
+                if (it.next().isFinished()) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static void run(Job job, Function<ImportProgress, FileUploadResponse> importer) {
+        job.startedAt = Instant.now();
+        job.state = ImportJobStatus.State.RUNNING;
+        FileUploadResponse result;
+        ImportJobStatus.State state;
+        try {
+            result = importer.apply(job.progress);
+            state = result.getStatus() == HttpStatus.OK.value() ? ImportJobStatus.State.SUCCEEDED : ImportJobStatus.State.FAILED;
+        } catch (RuntimeException e) {
+            LOGGER.error("Import job {} of {} failed", job.id, job.type, e);
+            result = new FileUploadResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Import failed ! " + e.getMessage());
+            state = ImportJobStatus.State.FAILED;
+        }
+        job.result = result;
+        job.finishedAt = Instant.now();
+        // the state is written last, a finished job being read with its result
+        job.state = state;
+        LOGGER.info("Import job {} of {} {} in {} ms", job.id, job.type, state, Duration.between(job.startedAt, job.finishedAt).toMillis());
+    }
+
+    @Override
+    public void destroy() {
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * A job, written by the thread running it and read by the threads answering the status requests.
+     */
+    private static final class Job {
+
+        private final UUID id;
+        private final String type;
+        private final Instant submittedAt = Instant.now();
+        private final ImportProgress progress = new ImportProgress();
+
+        private volatile ImportJobStatus.State state = ImportJobStatus.State.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile FileUploadResponse result;
+
+        private Job(UUID id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        private boolean isFinished() {
+            ImportJobStatus.State currentState = state;
+            return currentState == ImportJobStatus.State.SUCCEEDED || currentState == ImportJobStatus.State.FAILED;
+        }
+
+        private ImportJobStatus toStatus() {
+            ImportJobStatus.State currentState = state;
+            Instant start = startedAt;
+            Instant end = currentState == ImportJobStatus.State.SUCCEEDED || currentState == ImportJobStatus.State.FAILED ? finishedAt : null;
+            Long durationMs = start != null ? Duration.between(start, end != null ? end : Instant.now()).toMillis() : null;
+            return new ImportJobStatus(id, type, currentState, progress.getStage(), progress.getRowsParsed(), progress.getLinesAssembled(),
+                    progress.getFeaturesPushed(), progress.getBatchesPushed(), submittedAt, start, end, durationMs, end != null ? result : null);
+        }
+    }
+}
@@ -7,20 +7,75 @@
 package org.gridsuite.odre.server.services;
 
 import org.gridsuite.odre.server.dto.FileUploadResponse;
+import org.gridsuite.odre.server.dto.GeoDataSelection;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.gridsuite.odre.server.utils.ImportProgress;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
  */
 public interface OdreService {
 
-    void pushSubstations();
+    /**
+     * @param fullPush if false, only the substations added or changed since the last successful push are pushed
+     */
+    void pushSubstations(boolean fullPush);
 
-    void pushLines();
+    /**
+     * @param fullPush if false, only the lines added or changed since the last successful push are pushed
+     * @param simplify if true, the geometry of the lines is simplified before being pushed
+     * @param simplificationTolerance tolerance in meters of the simplification of all the lines, or null to use the
+     *                                configured tolerances by base voltage
+     */
+    void pushLines(boolean fullPush, boolean simplify, Double simplificationTolerance);
+
+    /**
+     * Same as {@link #pushSubstations(boolean)}, the progress of the import being reported to the given progress.
+     */
+    void pushSubstations(boolean fullPush, ImportProgress progress);
+
+    /**
+     * Same as {@link #pushLines(boolean, boolean, Double)}, the progress of the import being reported to the given progress.
+     */
+    void pushLines(boolean fullPush, boolean simplify, Double simplificationTolerance, ImportProgress progress);
 
     FileUploadResponse pushSubstationsFromCsv(MultipartFile file);
 
     FileUploadResponse pushLinesFromCsv(List<MultipartFile> files);
+
+    /**
+     * Push again all the substations of the last import, without downloading or parsing anything,
+     * for instance after the geo data server lost its data.
+     */
+    FileUploadResponse repushSubstations();
+
+    /**
+     * Push again all the lines of the last import, as they were pushed, without downloading or parsing anything.
+     */
+    FileUploadResponse repushLines();
+
+    /**
+     * @return the substations of the last import, empty if nothing has been imported since the server started
+     */
+    List<SubstationGeoData> getSubstations();
+
+    Optional<SubstationGeoData> getSubstation(String id);
+
+    /**
+     * @return the lines of the last import, as they were pushed, empty if nothing has been imported since the server started
+     */
+    List<LineGeoData> getLines();
+
+    Optional<LineGeoData> getLine(String id);
+
+    /**
+     * @return the lines and substations of the last import intersecting the given box, borders included
+     * @throws IllegalArgumentException if the minimum latitude or longitude is greater than the maximum one
+     */
+    GeoDataSelection getGeoData(double minLat, double minLon, double maxLat, double maxLon);
 }
@@ -6,24 +6,34 @@
  */
 package org.gridsuite.odre.server.services;
 
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.gridsuite.odre.server.client.BaseVoltage;
+import org.gridsuite.odre.server.client.CsvUpload;
 import org.gridsuite.odre.server.client.OdreClient;
 import org.gridsuite.odre.server.client.OdreCsvClient;
 import org.gridsuite.odre.server.dto.FileUploadResponse;
+import org.gridsuite.odre.server.dto.GeoDataSelection;
 import org.gridsuite.odre.server.dto.LineGeoData;
 import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.gridsuite.odre.server.utils.ImportMetrics;
+import org.gridsuite.odre.server.utils.ImportProgress;
+import org.gridsuite.odre.server.utils.LineSimplifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
@@ -31,7 +41,7 @@ import java.util.Objects;
 @Service
 public class OdreServiceImpl implements OdreService {
 
-    private static final String GEO_DATA_API_VERSION = "v1";
+    private static final Logger LOGGER = LoggerFactory.getLogger(OdreServiceImpl.class);
 
     @Autowired
     @Qualifier("odreDownloadClientImpl")
@@ -40,81 +50,178 @@ public class OdreServiceImpl implements OdreService {
     @Autowired
     private OdreCsvClient csvClient;
 
-    private RestTemplate geoDataServerRest;
-
-    private String geoDataServerBaseUri;
+    @Autowired
+    private GeoDataPusher geoDataPusher;
 
-    public OdreServiceImpl(@Value("${gridsuite.services.geo-data-server.base-uri:http://geo-data-server/}") String geoDataServerBaseUri,
-                           RestTemplateBuilder restTemplateBuilder) {
-        this.geoDataServerBaseUri = Objects.requireNonNull(geoDataServerBaseUri);
-        this.geoDataServerRest = restTemplateBuilder.build();
-        this.geoDataServerRest.setUriTemplateHandler(new DefaultUriBuilderFactory(geoDataServerBaseUri));
-    }
+    @Autowired
+    private GeoDataFingerprints geoDataFingerprints;
 
-    @Override
-    public void pushSubstations() {
-        HttpHeaders requestHeaders = new HttpHeaders();
-        requestHeaders.setContentType(MediaType.APPLICATION_JSON);
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(geoDataServerBaseUri + "/" + GEO_DATA_API_VERSION + "/substations");
+    @Autowired
+    private GeoDataSnapshots geoDataSnapshots;
 
-        List<SubstationGeoData> substationsGeoData = client.getSubstations();
+    @Value("${gridsuite.services.odre.simplification.default-tolerance:10}")
+    private double defaultSimplificationTolerance;
 
-        HttpEntity<List<SubstationGeoData>> requestEntity = new HttpEntity<>(substationsGeoData, requestHeaders);
+    @Value("#{${gridsuite.services.odre.simplification.tolerances:{:}}}")
+    private Map<BaseVoltage, Double> simplificationTolerances;
 
-        geoDataServerRest.exchange(uriBuilder.toUriString(),
-                HttpMethod.POST,
-                requestEntity,
-                Void.class);
+    @Override
+    public void pushSubstations(boolean fullPush) {
+        pushSubstations(fullPush, null);
     }
 
     @Override
-    public void pushLines() {
-        HttpHeaders requestHeaders = new HttpHeaders();
-        requestHeaders.setContentType(MediaType.APPLICATION_JSON);
-
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(geoDataServerBaseUri + "/" + GEO_DATA_API_VERSION + "/lines");
-
-        List<LineGeoData> linesGeoData = client.getLines();
+    public void pushLines(boolean fullPush, boolean simplify, Double simplificationTolerance) {
+        pushLines(fullPush, simplify, simplificationTolerance, null);
+    }
 
-        HttpEntity<List<LineGeoData>> requestEntity = new HttpEntity<>(linesGeoData, requestHeaders);
+    @Override
+    public void pushSubstations(boolean fullPush, ImportProgress progress) {
+        GeoDataFingerprints.Delta<SubstationGeoData> delta = geoDataFingerprints.substationsDelta(fullPush);
+        GeoDataSnapshots.Recorder<SubstationGeoData> recorder = geoDataSnapshots.substationsRecorder(ImportMetrics.DOWNLOAD_SOURCE);
+        geoDataPusher.push(GeoDataPusher.SUBSTATIONS, ImportMetrics.DOWNLOAD_SOURCE, progress,
+                (Consumer<SubstationGeoData> consumer) -> client.streamSubstations(recorder.record(delta.filter(consumer)), progress));
+        delta.commit();
+        recorder.commit();
+    }
 
-        geoDataServerRest.exchange(uriBuilder.toUriString(),
-                HttpMethod.POST,
-                requestEntity,
-                Void.class);
+    @Override
+    public void pushLines(boolean fullPush, boolean simplify, Double simplificationTolerance, ImportProgress progress) {
+        GeoDataFingerprints.Delta<LineGeoData> delta = geoDataFingerprints.linesDelta(fullPush);
+        GeoDataSnapshots.Recorder<LineGeoData> recorder = geoDataSnapshots.linesRecorder(ImportMetrics.DOWNLOAD_SOURCE);
+        if (!simplify) {
+            geoDataPusher.push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, progress,
+                    (Consumer<LineGeoData> consumer) -> client.streamLines(recorder.record(delta.filter(consumer)), null, progress));
+            delta.commit();
+            recorder.commit();
+            return;
+        }
+        LineSimplifier simplifier = simplificationTolerance != null ? new LineSimplifier(simplificationTolerance)
+                : new LineSimplifier(defaultSimplificationTolerance, simplificationTolerances != null ? simplificationTolerances : Map.of());
+        geoDataPusher.push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, progress,
+                (Consumer<LineGeoData> consumer) -> client.streamLines(recorder.record(delta.filter(consumer)), simplifier, progress));
+        delta.commit();
+        recorder.commit();
+        LOGGER.info("Lines simplified from {} to {} points, {} % of the points removed", simplifier.getInputPointCount(), simplifier.getOutputPointCount(),
+                Math.round(simplifier.getReductionRatio() * 100));
     }
 
     @Override
     public FileUploadResponse pushSubstationsFromCsv(MultipartFile file) {
-        HttpHeaders requestHeaders = new HttpHeaders();
-        requestHeaders.setContentType(MediaType.APPLICATION_JSON);
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(geoDataServerBaseUri + "/" + GEO_DATA_API_VERSION + "/substations");
-        List<SubstationGeoData> substationsGeoData = csvClient.getSubstationsFromCsv(file);
-        if (substationsGeoData.isEmpty()) {
+        Optional<CsvUpload<SubstationGeoData>> upload = csvClient.uploadSubstations(file);
+        if (upload.isEmpty() || !pushUpload(GeoDataPusher.SUBSTATIONS, upload.get(), geoDataSnapshots.substationsRecorder(ImportMetrics.UPLOAD_SOURCE))) {
             return new FileUploadResponse(HttpStatus.BAD_REQUEST.value(), "File validation failed!");
         }
-        HttpEntity<List<SubstationGeoData>> requestEntity = new HttpEntity<>(substationsGeoData, requestHeaders);
-        geoDataServerRest.exchange(uriBuilder.toUriString(),
-                HttpMethod.POST,
-                requestEntity,
-                Void.class);
         return new FileUploadResponse(HttpStatus.OK.value(), "List of substations updated successfully");
     }
 
     @Override
     public FileUploadResponse pushLinesFromCsv(List<MultipartFile> files) {
-        HttpHeaders requestHeaders = new HttpHeaders();
-        requestHeaders.setContentType(MediaType.APPLICATION_JSON);
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(geoDataServerBaseUri + "/" + GEO_DATA_API_VERSION + "/lines");
-        List<LineGeoData> linesFromCsv = csvClient.getLinesFromCsv(files);
-        if (linesFromCsv.isEmpty()) {
+        Optional<CsvUpload<LineGeoData>> upload = csvClient.uploadLines(files);
+        if (upload.isEmpty() || !pushUpload(GeoDataPusher.LINES, upload.get(), geoDataSnapshots.linesRecorder(ImportMetrics.UPLOAD_SOURCE))) {
             return new FileUploadResponse(400, "File(s) validation failed!");
         }
-        HttpEntity<List<LineGeoData>> requestEntity = new HttpEntity<>(linesFromCsv, requestHeaders);
-        geoDataServerRest.exchange(uriBuilder.toUriString(),
-                HttpMethod.POST,
-                requestEntity,
-                Void.class);
         return new FileUploadResponse(HttpStatus.OK.value(), "List of lines updated successfully");
     }
+
+    /**
+     * Push the elements of an upload as they are parsed, as for a download, the upload being closed once pushed.
+     * An upload which yields no element is rejected: its push fails before the last batch is posted, or before the
+     * streamed JSON array is terminated, so that the geo data server never receives it as an empty dataset.
+     * The elements pushed replace the snapshot of the resource once the push succeeded.
+     *
+     * @return false if the upload yielded no element
+     */
+    private <T> boolean pushUpload(String resource, CsvUpload<T> upload, GeoDataSnapshots.Recorder<T> recorder) {
+        // the geo data server no longer holds what was last pushed from the open data
+        geoDataFingerprints.invalidate(resource);
+        try (upload) {
+            geoDataPusher.push(resource, ImportMetrics.UPLOAD_SOURCE, (Consumer<T> consumer) -> {
+                AtomicInteger count = new AtomicInteger();
+                Consumer<T> recordingConsumer = recorder.record(consumer);
+                upload.stream(element -> {
+                    count.incrementAndGet();
+                    recordingConsumer.accept(element);
+                });
+                if (count.get() == 0) {
+                    throw new EmptyUploadException();
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            // the HTTP client may wrap the exceptions thrown while writing a streamed body
+            if (ExceptionUtils.indexOfThrowable(e, EmptyUploadException.class) >= 0) {
+                return false;
+            }
+            throw e;
+        }
+        recorder.commit();
+        return true;
+    }
+
+    @Override
+    public FileUploadResponse repushSubstations() {
+        if (!geoDataSnapshots.isEnabled()) {
+            return new FileUploadResponse(HttpStatus.NOT_FOUND.value(), "Snapshots are disabled, no substations kept!");
+        }
+        GeoDataSnapshots.Snapshot<SubstationGeoData> snapshot = geoDataSnapshots.getSubstations();
+        if (snapshot.isEmpty()) {
+            return new FileUploadResponse(HttpStatus.NOT_FOUND.value(), "No substations imported yet!");
+        }
+        GeoDataFingerprints.Delta<SubstationGeoData> delta = geoDataFingerprints.substationsDelta(true);
+        geoDataPusher.push(GeoDataPusher.SUBSTATIONS, ImportMetrics.SNAPSHOT_SOURCE,
+                (Consumer<SubstationGeoData> consumer) -> snapshot.elements().forEach(delta.filter(consumer)));
+        delta.commit();
+        return new FileUploadResponse(HttpStatus.OK.value(), "List of substations updated successfully");
+    }
+
+    @Override
+    public FileUploadResponse repushLines() {
+        if (!geoDataSnapshots.isEnabled()) {
+            return new FileUploadResponse(HttpStatus.NOT_FOUND.value(), "Snapshots are disabled, no lines kept!");
+        }
+        GeoDataSnapshots.Snapshot<LineGeoData> snapshot = geoDataSnapshots.getLines();
+        if (snapshot.isEmpty()) {
+            return new FileUploadResponse(HttpStatus.NOT_FOUND.value(), "No lines imported yet!");
+        }
+        GeoDataFingerprints.Delta<LineGeoData> delta = geoDataFingerprints.linesDelta(true);
+        geoDataPusher.push(GeoDataPusher.LINES, ImportMetrics.SNAPSHOT_SOURCE,
+                (Consumer<LineGeoData> consumer) -> snapshot.elements().forEach(delta.filter(consumer)));
+        delta.commit();
+        return new FileUploadResponse(HttpStatus.OK.value(), "List of lines updated successfully");
+    }
+
+    @Override
+    public List<SubstationGeoData> getSubstations() {
+        return geoDataSnapshots.getSubstations().elements();
+    }
+
+    @Override
+    public Optional<SubstationGeoData> getSubstation(String id) {
+        return geoDataSnapshots.getSubstations().get(id);
+    }
+
+    @Override
+    public List<LineGeoData> getLines() {
+        return geoDataSnapshots.getLines().elements();
+    }
+
+    @Override
+    public Optional<LineGeoData> getLine(String id) {
+        return geoDataSnapshots.getLines().get(id);
+    }
+
+    @Override
+    public GeoDataSelection getGeoData(double minLat, double minLon, double maxLat, double maxLon) {
+        return new GeoDataSelection(geoDataSnapshots.getLines().query(minLat, minLon, maxLat, maxLon),
+                geoDataSnapshots.getSubstations().query(minLat, minLon, maxLat, maxLon));
+    }
+
+    private static final class EmptyUploadException extends RuntimeException {
+
+        private EmptyUploadException() {
+            super("The upload yields no element", null, false, false);
+        }
+    }
 }
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.dto.Coordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable buffer of the coordinates of a geometry, stored as latitude/longitude pairs in a primitive array.
+ * The coordinates are split into parts, one per line string of the geometry.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class CoordinateBuffer {
+
+    private double[] latLon = new double[256];
+
+    private int size;
+
+    private int[] partEnds = new int[4];
+
+    private int partCount;
+
+    public void clear() {
+        size = 0;
+        partCount = 0;
+    }
+
+    public void add(double lat, double lon) {
+        if (2 * size == latLon.length) {
+            latLon = Arrays.copyOf(latLon, latLon.length * 2);
+        }
+        latLon[2 * size] = lat;
+        latLon[2 * size + 1] = lon;
+        size++;
+    }
+
+    /**
+     * End the current part. Nothing is done if the current part has no coordinate.
+     */
+    public void endPart() {
+        if (size == getPartStart(partCount)) {
+            return;
+        }
+        if (partCount == partEnds.length) {
+            partEnds = Arrays.copyOf(partEnds, partCount * 2);
+        }
+        partEnds[partCount++] = size;
+    }
+
+    /**
+     * @return the number of coordinates of all the ended parts and of the current part
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getPartCount() {
+        return partCount;
+    }
+
+    /**
+     * @return the index of the first coordinate of the given part
+     */
+    public int getPartStart(int part) {
+        return part == 0 ? 0 : partEnds[part - 1];
+    }
+
+    /**
+     * @return the index following the last coordinate of the given part
+     */
+    public int getPartEnd(int part) {
+        return partEnds[part];
+    }
+
+    public double getLat(int index) {
+        return latLon[2 * index];
+    }
+
+    public double getLon(int index) {
+        return latLon[2 * index + 1];
+    }
+
+    public List<Coordinate> toCoordinates(int part) {
+        int start = getPartStart(part);
+        int end = getPartEnd(part);
+        List<Coordinate> coordinates = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            coordinates.add(new Coordinate(getLat(i), getLon(i)));
+        }
+        return coordinates;
+    }
+}
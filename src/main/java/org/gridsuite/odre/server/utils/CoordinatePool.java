@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import java.util.Arrays;
+
+/**
+ * Pool of distinct coordinates, each coordinate being stored once and identified by an int index.
+ * <p>
+ * Pylons shared by several lines, and segments listed under several line codes, are then stored once
+ * for all the lines. Coordinates are equal if their latitudes and longitudes have the same bit patterns,
+ * as for {@link org.gridsuite.odre.server.dto.Coordinate}, and are looked up in open-addressing tables
+ * keyed by these bit patterns.
+ * <p>
+ * Interning is thread safe: coordinates are split by hash into stripes, each having its own table and lock,
+ * so that several files can be parsed concurrently into the same pool. Coordinates are meant to be read
+ * once interning is done.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class CoordinatePool {
+
+    private static final int STRIPE_BITS = 4;
+
+    private static final int STRIPE_MASK = (1 << STRIPE_BITS) - 1;
+
+    private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+
+    public CoordinatePool() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private static int hash(long latBits, long lonBits) {
+        long h = latBits * 0x9E3779B97F4A7C15L + lonBits;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * @return the index of the given coordinate, which is added to the pool if it is not in it yet
+     */
+    public int intern(double lat, double lon) {
+        long latBits = Double.doubleToLongBits(lat);
+        long lonBits = Double.doubleToLongBits(lon);
+        int hash = hash(latBits, lonBits);
+        int stripe = hash & STRIPE_MASK;
+        return (stripes[stripe].intern(lat, lon, latBits, lonBits, hash >>> STRIPE_BITS) << STRIPE_BITS) | stripe;
+    }
+
+    public double getLat(int index) {
+        return stripes[index & STRIPE_MASK].latLon[2 * (index >>> STRIPE_BITS)];
+    }
+
+    public double getLon(int index) {
+        return stripes[index & STRIPE_MASK].latLon[2 * (index >>> STRIPE_BITS) + 1];
+    }
+
+    /**
+     * @return the number of distinct coordinates
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of interned coordinates, duplicates included
+     */
+    public long getInternCount() {
+        long internCount = 0;
+        for (Stripe stripe : stripes) {
+            internCount += stripe.internCount();
+        }
+        return internCount;
+    }
+
+    /**
+     * @return the share of the interned coordinates that were already in the pool
+     */
+    public double getDeduplicationRatio() {
+        long internCount = getInternCount();
+        return internCount == 0 ? 0 : 1 - (double) size() / internCount;
+    }
+
+    private static final class Stripe {
+
+        // index + 1 of the coordinate of each slot, 0 for an empty slot
+        private int[] slots = new int[64];
+
+        private double[] latLon = new double[64];
+
+        private int size;
+
+        private long internCount;
+
+        synchronized int intern(double lat, double lon, long latBits, long lonBits, int hash) {
+            internCount++;
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                int index = slots[slot] - 1;
+                if (Double.doubleToLongBits(latLon[2 * index]) == latBits && Double.doubleToLongBits(latLon[2 * index + 1]) == lonBits) {
+                    return index;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int index = size++;
+            if (2 * size > latLon.length) {
+                latLon = Arrays.copyOf(latLon, 4 * size);
+            }
+            latLon[2 * index] = lat;
+            latLon[2 * index + 1] = lon;
+            slots[slot] = index + 1;
+            // keep the load factor under 1/2
+            if (2 * size > slots.length) {
+                rehash();
+            }
+            return index;
+        }
+
+        private void rehash() {
+            slots = new int[2 * slots.length];
+            int mask = slots.length - 1;
+            for (int index = 0; index < size; index++) {
+                long latBits = Double.doubleToLongBits(latLon[2 * index]);
+                long lonBits = Double.doubleToLongBits(latLon[2 * index + 1]);
+                int slot = (hash(latBits, lonBits) >>> STRIPE_BITS) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = index + 1;
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long internCount() {
+            return internCount;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Tokenizer of the semicolon separated files of ODRE.
+ * <p>
+ * Column indexes are resolved once from the header. Records are read into a reusable buffer and their fields
+ * are handed out as {@link CharSequence} slices over this buffer, so that reading a record does not allocate:
+ * only the fields that are needed are turned into strings. Slices are only valid until the next record is read.
+ * <p>
+ * Fields may be surrounded by double quotes, in which case they can contain separators, line breaks and
+ * escaped (doubled) double quotes. Empty lines are skipped.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class CsvTokenizer implements Closeable {
+
+    private static final char SEPARATOR = ';';
+    private static final char QUOTE = '"';
+    private static final char BOM = '\uFEFF';
+    private static final int END_OF_INPUT = -1;
+
+    private final Reader reader;
+
+    private final char[] input = new char[8192];
+    private int inputPosition;
+    private int inputLimit;
+
+    private char[] record = new char[1024];
+    private int recordLength;
+
+    private int[] fieldStarts = new int[32];
+    private int[] fieldEnds = new int[32];
+    private int fieldCount;
+
+    private final Field[] fields;
+    private final Field emptyField = new Field();
+
+    private final List<String> header;
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+    private long recordNumber;
+
+    private boolean hasRecord;
+
+    private boolean pushedBack;
+
+    public CsvTokenizer(Reader reader) throws IOException {
+        this.reader = Objects.requireNonNull(reader);
+        List<String> names = new ArrayList<>();
+        if (nextRecord()) {
+            for (int i = 0; i < fieldCount; i++) {
+                String name = new String(record, fieldStarts[i], fieldEnds[i] - fieldStarts[i]);
+                if (i == 0 && !name.isEmpty() && name.charAt(0) == BOM) {
+                    name = name.substring(1);
+                }
+                names.add(name);
+                columnIndexes.putIfAbsent(name, i);
+            }
+        }
+        this.header = Collections.unmodifiableList(names);
+        this.fields = new Field[header.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = new Field();
+        }
+        recordNumber = 0;
+    }
+
+    public List<String> getHeader() {
+        return header;
+    }
+
+    /**
+     * @return the index of the given column, or -1 if the header does not contain it
+     */
+    public int getColumnIndex(String name) {
+        return columnIndexes.getOrDefault(name, -1);
+    }
+
+    /**
+     * @return the index of the given column
+     * @throws IOException if the header does not contain the column
+     */
+    public int requireColumnIndex(String name) throws IOException {
+        int index = getColumnIndex(name);
+        if (index < 0) {
+            throw new IOException("Column '" + name + "' not found in header " + header);
+        }
+        return index;
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return false if the end of the input has been reached
+     */
+    public boolean next() throws IOException {
+        if (pushedBack) {
+            pushedBack = false;
+            return true;
+        }
+        hasRecord = nextRecord();
+        return hasRecord;
+    }
+
+    /**
+     * Hand the current record out again at the next call to {@link #next()}, so that a record read to look at the
+     * content of a file before parsing it is then parsed as the others.
+     *
+     * @throws IllegalStateException if there is no current record
+     */
+    public void pushBack() {
+        if (!hasRecord || pushedBack) {
+            throw new IllegalStateException("No record to push back");
+        }
+        pushedBack = true;
+    }
+
+    /**
+     * @return the number of records read so far, header excluded
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * @return the number of fields of the current record
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return the field of the current record at the given column, empty if the record has no such field.
+     * The returned slice is only valid until the next record is read.
+     */
+    public CharSequence get(int column) {
+        if (column < 0 || column >= fieldCount) {
+            return emptyField;
+        }
+        Field field = column < fields.length ? fields[column] : new Field();
+        field.start = fieldStarts[column];
+        field.end = fieldEnds[column];
+        return field;
+    }
+
+    /**
+     * @return the field of the current record at the given column, or null if it is empty
+     */
+    public String getString(int column) {
+        CharSequence field = get(column);
+        return field.length() == 0 ? null : field.toString();
+    }
+
+    /**
+     * Hand the field of the current record at the given column to a parser, without copying it.
+     */
+    public void parse(int column, FieldParser parser) throws IOException {
+        if (column < 0 || column >= fieldCount) {
+            parser.parse(record, 0, 0);
+        } else {
+            parser.parse(record, fieldStarts[column], fieldEnds[column] - fieldStarts[column]);
+        }
+    }
+
+    /**
+     * Parser of a field, given as a range of a char array which is only valid during the call.
+     */
+    @FunctionalInterface
+    public interface FieldParser {
+
+        void parse(char[] chars, int offset, int length) throws IOException;
+    }
+
+    private int read() throws IOException {
+        if (inputPosition == inputLimit) {
+            inputLimit = reader.read(input, 0, input.length);
+            inputPosition = 0;
+            if (inputLimit <= 0) {
+                inputLimit = 0;
+                return END_OF_INPUT;
+            }
+        }
+        return input[inputPosition++];
+    }
+
+    private void append(int c) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLength++] = (char) c;
+    }
+
+    private void endField(int start) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = recordLength;
+        fieldCount++;
+    }
+
+    private boolean nextRecord() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+
+        int c = read();
+        while (c == '\n' || c == '\r') {
+            c = read();
+        }
+        if (c == END_OF_INPUT) {
+            return false;
+        }
+
+        int fieldStart = 0;
+        boolean fieldStarted = false;
+        while (true) {
+            if (c == QUOTE && !fieldStarted) {
+                c = readQuoted();
+                fieldStarted = true;
+                continue;
+            }
+            if (c == SEPARATOR) {
+                endField(fieldStart);
+                fieldStart = recordLength;
+                fieldStarted = false;
+            } else if (c == '\n' || c == END_OF_INPUT) {
+                endField(fieldStart);
+                recordNumber++;
+                return true;
+            } else if (c != '\r') {
+                append(c);
+                fieldStarted = true;
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Read a quoted field content, the opening quote being already read.
+     *
+     * @return the character following the closing quote
+     */
+    private int readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == END_OF_INPUT) {
+                throw new IOException("Unterminated quoted field in record " + (recordNumber + 1));
+            }
+            if (c == QUOTE) {
+                c = read();
+                if (c != QUOTE) {
+                    return c;
+                }
+            }
+            append(c);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Slice of the record buffer.
+     */
+    private final class Field implements CharSequence {
+
+        private int start;
+
+        private int end;
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            Objects.checkIndex(index, length());
+            return record[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            Objects.checkFromToIndex(from, to, length());
+            return new String(record, start + from, to - from);
+        }
+
+        @Override
+        public String toString() {
+            return new String(record, start, end - start);
+        }
+    }
+}
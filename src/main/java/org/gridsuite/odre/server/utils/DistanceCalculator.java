@@ -11,6 +11,8 @@ package org.gridsuite.odre.server.utils;
  */
 public final class DistanceCalculator {
 
+    static final double EARTH_RADIUS = 6_378_137;
+
     private DistanceCalculator() {
 
     }
@@ -30,7 +32,26 @@ public final class DistanceCalculator {
             double dist = Math.sin(Math.toRadians(lat1)) * Math.sin(Math.toRadians(lat2)) + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.cos(Math.toRadians(dL));
             dist = Math.acos(dist);
             //6 378 137 is the conventional earth radius
-            return dist * 6_378_137;
+            return dist * EARTH_RADIUS;
         }
     }
+
+    /**
+     * Compute an approximate distance in meters between a geographical point and a segment (latitude, longitude in degrees).
+     * The segment is projected on a plane tangent to the earth at the point, which is accurate enough for segments
+     * of a few kilometers. The earth is assumed spherical with the same radius as in {@link #distance}.
+     * @return the approximate distance in meters from the point to the nearest point of the segment
+     */
+    public static double distanceToSegment(double lat, double lon, double lat1, double lon1, double lat2, double lon2) {
+        double metersPerDegreeLat = Math.toRadians(EARTH_RADIUS);
+        double metersPerDegreeLon = metersPerDegreeLat * Math.cos(Math.toRadians(lat));
+        double x1 = (lon1 - lon) * metersPerDegreeLon;
+        double y1 = (lat1 - lat) * metersPerDegreeLat;
+        double dx = (lon2 - lon1) * metersPerDegreeLon;
+        double dy = (lat2 - lat1) * metersPerDegreeLat;
+        double squaredLength = dx * dx + dy * dy;
+        // position on the segment of the projection of the point, clamped to the ends of the segment
+        double t = squaredLength == 0 ? 0 : Math.max(0, Math.min(1, -(x1 * dx + y1 * dy) / squaredLength));
+        return Math.hypot(x1 + t * dx, y1 + t * dy);
+    }
 }
@@ -9,10 +9,8 @@ package org.gridsuite.odre.server.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.multipart.MultipartFile;
-import org.supercsv.io.CsvMapReader;
 import org.supercsv.prefs.CsvPreference;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UncheckedIOException;
@@ -21,6 +19,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -51,6 +50,8 @@ public final class FileValidator {
     public static final String CODE_LIGNE_KEY_5 = "id5";
     static final Map<String, String> IDS_COLUMNS_NAME = Map.of("id1", CODE_LIGNE_1, "id2", CODE_LIGNE_2, "id3", CODE_LIGNE_3, "id4", CODE_LIGNE_4, "id5", CODE_LIGNE_5);
     public static final String GEO_SHAPE = "Geo Shape";
+    public static final String TENSION = "TENSION";
+    static final String TYPE_OUVRAGE = "Type ouvrage";
     static final String CODE_POSTE = "Code poste";
     static final String LONGITUDE_POSTE_DD = "Longitude poste (DD)";
     static final String LATITUDE_POSTE_DD = "Latitude poste (DD)";
@@ -59,12 +60,25 @@ public final class FileValidator {
     private static final List<String> UNDERGROUND_LINES_EXPECTED_HEADERS = List.of(CODE_LIGNE_1, CODE_LIGNE_2, CODE_LIGNE_3, CODE_LIGNE_4, CODE_LIGNE_5, GEO_SHAPE);
 
     public static boolean validateSubstations(MultipartFile file) {
-        try (BufferedReader fileReader = new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(file.getInputStream()), StandardCharsets.UTF_8));
-             CsvMapReader mapReader = new CsvMapReader(fileReader, CSV_PREFERENCE)) {
-            @SuppressWarnings("checkstyle:LambdaBodyLength")
-            final List<String> headers = List.of(mapReader.getHeader(true));
+        Optional<CsvTokenizer> tokenizer = openSubstations(file);
+        tokenizer.ifPresent(FileValidator::closeQuietly);
+        return tokenizer.isPresent();
+    }
+
+    /**
+     * Open an uploaded substations file and check its header, so that the file is parsed from the tokenizer which
+     * validated it rather than opened again.
+     *
+     * @return a tokenizer on the file, its header being read, which the caller has to close, or nothing if the
+     * file is not a substations file
+     */
+    public static Optional<CsvTokenizer> openSubstations(MultipartFile file) {
+        CsvTokenizer tokenizer = null;
+        try {
+            tokenizer = openTokenizer(file);
+            final List<String> headers = tokenizer.getHeader();
             if (new HashSet<>(headers).containsAll(SUBSTATIONS_EXPECTED_HEADERS)) {
-                return true;
+                return Optional.of(tokenizer);
             } else {
                 List<String> notFoundHeaders = SUBSTATIONS_EXPECTED_HEADERS.stream().filter(isChangedHeaders(headers)).collect(Collectors.toList());
                 String fileName = sanitizeParam(file.getOriginalFilename());
@@ -72,51 +86,93 @@ public final class FileValidator {
             }
         } catch (IOException e) {
             LOGGER.error(e.getMessage());
-            return false;
         }
-        return false;
+        closeQuietly(tokenizer);
+        return Optional.empty();
     }
 
-    @SuppressWarnings("checkstyle:LambdaBodyLength")
-    public static Map<String, BufferedReader> validateLines(List<MultipartFile> files) {
-        Map<String, BufferedReader> mapResult = new HashMap<>();
-        files.forEach(file -> {
-            try (CsvMapReader mapReader = new CsvMapReader(new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(file.getInputStream()), StandardCharsets.UTF_8)), CSV_PREFERENCE)) {
-                final String[] headersString = mapReader.getHeader(true);
-                final List<String> headers = List.of(headersString);
-                Map<String, String> row = mapReader.read(headersString);
-                String typeOuvrage = row.get("Type ouvrage");
-                switch ((typeOuvrage != null) ? typeOuvrage : "NULL") {
-                    case "NULL":
-                        getIfSubstationsOrLogError(mapResult, file, headers, typeOuvrage);
-                        break;
-                    case "AERIEN":
-                        getResultOrLogError(headers, AERIAL_LINES_EXPECTED_HEADERS, mapResult, FileTypeEnum.AERIAL_LINES, file);
-                        break;
-                    case "SOUTERRAIN":
-                        getResultOrLogError(headers, UNDERGROUND_LINES_EXPECTED_HEADERS, mapResult, FileTypeEnum.UNDERGROUND_LINES, file);
-                        break;
-                    default:
-                        String fileName = sanitizeParam(file.getOriginalFilename());
-                        LOGGER.error("The file {} has no known equipment type : {}", fileName, typeOuvrage);
+    /**
+     * Find out which dataset each uploaded file is, from its header and the equipment type of its first record.
+     * Each file is read once: the tokenizer used to look at the file is returned to parse it, positioned
+     * on its first record.
+     *
+     * @return tokenizers by dataset, which the caller has to close, files that are not valid or whose dataset has
+     * already been found being ignored
+     */
+    public static Map<String, CsvTokenizer> validateLines(List<MultipartFile> files) {
+        Map<String, CsvTokenizer> mapResult = new HashMap<>();
+        CsvTokenizer tokenizer = null;
+        try {
+            for (MultipartFile file : files) {
+                tokenizer = openTokenizer(file);
+                FileTypeEnum fileType = getFileType(tokenizer, file);
+                if (fileType != null && !mapResult.containsKey(fileType.getValue())) {
+                    mapResult.put(fileType.getValue(), tokenizer);
+                } else {
+                    tokenizer.close();
                 }
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
             }
-        });
+        } catch (IOException e) {
+            closeQuietly(tokenizer);
+            mapResult.values().forEach(FileValidator::closeQuietly);
+            throw new UncheckedIOException(e);
+        }
         return mapResult;
     }
 
-    private static void getIfSubstationsOrLogError(Map<String, BufferedReader> mapResult, MultipartFile file, List<String> headers, String typeOuvrage) throws IOException {
+    private static CsvTokenizer openTokenizer(MultipartFile file) throws IOException {
+        // the tokenizer buffers its input, no need for a buffered reader
+        return new CsvTokenizer(new InputStreamReader(InputUtils.toBomInputStream(file.getInputStream()), StandardCharsets.UTF_8));
+    }
+
+    private static void closeQuietly(CsvTokenizer tokenizer) {
+        if (tokenizer == null) {
+            return;
+        }
+        try {
+            tokenizer.close();
+        } catch (IOException e) {
+            LOGGER.warn(e.getMessage());
+        }
+    }
+
+    /**
+     * @return the dataset of the file, or null if it is not valid
+     */
+    private static FileTypeEnum getFileType(CsvTokenizer tokenizer, MultipartFile file) throws IOException {
+        final List<String> headers = tokenizer.getHeader();
+        int typeOuvrageColumn = tokenizer.getColumnIndex(TYPE_OUVRAGE);
+        String typeOuvrage = null;
+        if (tokenizer.next()) {
+            typeOuvrage = tokenizer.getString(typeOuvrageColumn);
+            // the first record is parsed with the others
+            tokenizer.pushBack();
+        }
+        switch ((typeOuvrage != null) ? typeOuvrage : "NULL") {
+            case "NULL":
+                return getIfSubstationsOrLogError(file, headers, typeOuvrage);
+            case "AERIEN":
+                return getResultOrLogError(headers, AERIAL_LINES_EXPECTED_HEADERS, FileTypeEnum.AERIAL_LINES, file);
+            case "SOUTERRAIN":
+                return getResultOrLogError(headers, UNDERGROUND_LINES_EXPECTED_HEADERS, FileTypeEnum.UNDERGROUND_LINES, file);
+            default:
+                String fileName = sanitizeParam(file.getOriginalFilename());
+                LOGGER.error("The file {} has no known equipment type : {}", fileName, typeOuvrage);
+                return null;
+        }
+    }
+
+    private static FileTypeEnum getIfSubstationsOrLogError(MultipartFile file, List<String> headers, String typeOuvrage) {
         String fileName = sanitizeParam(file.getOriginalFilename());
         if (new HashSet<>(headers).containsAll(SUBSTATIONS_EXPECTED_HEADERS)) {
-            mapResult.putIfAbsent(FileTypeEnum.SUBSTATIONS.getValue(), new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(file.getInputStream()), StandardCharsets.UTF_8)));
+            return FileTypeEnum.SUBSTATIONS;
         } else if (isAerealOrUnderground(headers)) {
             LOGGER.error("The file {} has no equipment type : {}", fileName, typeOuvrage);
         } else {
             List<String> notFoundHeaders = SUBSTATIONS_EXPECTED_HEADERS.stream().filter(isChangedHeaders(headers)).collect(Collectors.toList());
             LOGGER.error(HEADERS_OF_FILE_HAS_CHANGED, fileName, notFoundHeaders);
         }
+        return null;
     }
 
     private static Predicate<String> isChangedHeaders(List<String> headers) {
@@ -128,14 +184,14 @@ public final class FileValidator {
                 new HashSet<>(headers).containsAll(UNDERGROUND_LINES_EXPECTED_HEADERS);
     }
 
-    private static void getResultOrLogError(List<String> headers, List<String> expectedHeaders, Map<String, BufferedReader> mapResult, FileTypeEnum fileType, MultipartFile file) throws IOException {
+    private static FileTypeEnum getResultOrLogError(List<String> headers, List<String> expectedHeaders, FileTypeEnum fileType, MultipartFile file) {
         if (new HashSet<>(headers).containsAll(expectedHeaders)) {
-            mapResult.putIfAbsent(fileType.getValue(), new BufferedReader(new InputStreamReader(InputUtils.toBomInputStream(file.getInputStream()), StandardCharsets.UTF_8)));
-        } else {
-            List<String> notFoundHeaders = expectedHeaders.stream().filter(isChangedHeaders(headers)).collect(Collectors.toList());
-            String fileName = sanitizeParam(file.getOriginalFilename());
-            LOGGER.error(HEADERS_OF_FILE_HAS_CHANGED, fileName, notFoundHeaders);
+            return fileType;
         }
+        List<String> notFoundHeaders = expectedHeaders.stream().filter(isChangedHeaders(headers)).collect(Collectors.toList());
+        String fileName = sanitizeParam(file.getOriginalFilename());
+        LOGGER.error(HEADERS_OF_FILE_HAS_CHANGED, fileName, notFoundHeaders);
+        return null;
     }
 
     public static boolean hasCSVFormat(MultipartFile file) {
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.dto.Coordinate;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.PackedCoordinates;
+import org.gridsuite.odre.server.dto.SubstationGeoData;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Spatial index of lines or substations, to find the ones intersecting a bounding box.
+ * <p>
+ * A substation is indexed by its coordinate. A line is indexed by the bounding boxes of runs of
+ * {@link #SEGMENTS_PER_ENTRY} consecutive segments, which are tight around the line without having an entry
+ * per segment, and the segments of the runs intersecting the box are then checked one by one, so that a line
+ * is only found if one of its segments crosses or touches the box.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class GeoDataIndex<T> {
+
+    public static final int SEGMENTS_PER_ENTRY = 8;
+
+    private static final GeoDataIndex<?> EMPTY = new GeoDataIndex<>(List.of(), SpatialIndex.EMPTY, new int[0], null, null);
+
+    private final List<T> elements;
+
+    private final SpatialIndex spatialIndex;
+
+    // element of each entry
+    private final int[] entryElements;
+
+    // for lines, index of the first coordinate of each entry, and coordinates of each element
+    private final int[] entryFirstCoordinates;
+
+    private final PackedCoordinates[] coordinates;
+
+    private GeoDataIndex(List<T> elements, SpatialIndex spatialIndex, int[] entryElements, int[] entryFirstCoordinates,
+                         PackedCoordinates[] coordinates) {
+        this.elements = elements;
+        this.spatialIndex = spatialIndex;
+        this.entryElements = entryElements;
+        this.entryFirstCoordinates = entryFirstCoordinates;
+        this.coordinates = coordinates;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> GeoDataIndex<T> empty() {
+        return (GeoDataIndex<T>) EMPTY;
+    }
+
+    public static GeoDataIndex<SubstationGeoData> ofSubstations(List<SubstationGeoData> substations) {
+        double[] boxes = new double[4 * substations.size()];
+        int[] entryElements = new int[substations.size()];
+        for (int i = 0; i < substations.size(); i++) {
+            Coordinate coordinate = substations.get(i).getCoordinate();
+            boxes[4 * i] = coordinate.getLat();
+            boxes[4 * i + 1] = coordinate.getLon();
+            boxes[4 * i + 2] = coordinate.getLat();
+            boxes[4 * i + 3] = coordinate.getLon();
+            entryElements[i] = i;
+        }
+        return new GeoDataIndex<>(substations, new SpatialIndex(boxes), entryElements, null, null);
+    }
+
+    public static GeoDataIndex<LineGeoData> ofLines(List<LineGeoData> lines) {
+        PackedCoordinates[] coordinates = new PackedCoordinates[lines.size()];
+        int entryCount = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            coordinates[i] = PackedCoordinates.copyOf(lines.get(i).getCoordinates());
+            entryCount += entryCount(coordinates[i].size());
+        }
+        double[] boxes = new double[4 * entryCount];
+        int[] entryElements = new int[entryCount];
+        int[] entryFirstCoordinates = new int[entryCount];
+        int entry = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            PackedCoordinates lineCoordinates = coordinates[i];
+            if (lineCoordinates.isEmpty()) {
+                continue;
+            }
+            // a single point line has one entry, of this point
+            int lastCoordinate = lineCoordinates.size() - 1;
+            int first = 0;
+            do {
+                int last = Math.min(first + SEGMENTS_PER_ENTRY, lastCoordinate);
+                double minLat = Double.POSITIVE_INFINITY;
+                double minLon = Double.POSITIVE_INFINITY;
+                double maxLat = Double.NEGATIVE_INFINITY;
+                double maxLon = Double.NEGATIVE_INFINITY;
+                for (int j = first; j <= last; j++) {
+                    minLat = Math.min(minLat, lineCoordinates.getLat(j));
+                    minLon = Math.min(minLon, lineCoordinates.getLon(j));
+                    maxLat = Math.max(maxLat, lineCoordinates.getLat(j));
+                    maxLon = Math.max(maxLon, lineCoordinates.getLon(j));
+                }
+                boxes[4 * entry] = minLat;
+                boxes[4 * entry + 1] = minLon;
+                boxes[4 * entry + 2] = maxLat;
+                boxes[4 * entry + 3] = maxLon;
+                entryElements[entry] = i;
+                entryFirstCoordinates[entry] = first;
+                entry++;
+                first += SEGMENTS_PER_ENTRY;
+            } while (first < lastCoordinate);
+        }
+        return new GeoDataIndex<>(lines, new SpatialIndex(boxes), entryElements, entryFirstCoordinates, coordinates);
+    }
+
+    /**
+     * @return the number of entries of a line with the given number of coordinates, a single point line having one
+     */
+    private static int entryCount(int coordinateCount) {
+        if (coordinateCount == 0) {
+            return 0;
+        }
+        return Math.max(1, (coordinateCount - 1 + SEGMENTS_PER_ENTRY - 1) / SEGMENTS_PER_ENTRY);
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * @return the elements intersecting the given box, borders included, in the order of the indexed elements
+     */
+    public List<T> query(double minLat, double minLon, double maxLat, double maxLon) {
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("Invalid bounding box [" + minLat + ", " + minLon + ", " + maxLat + ", " + maxLon + "]");
+        }
+        BitSet found = new BitSet(elements.size());
+        spatialIndex.query(minLat, minLon, maxLat, maxLon, entry -> {
+            int element = entryElements[entry];
+            if (!found.get(element) && (coordinates == null
+                    || intersects(coordinates[element], entryFirstCoordinates[entry], minLat, minLon, maxLat, maxLon))) {
+                found.set(element);
+            }
+        });
+        List<T> result = new ArrayList<>(found.cardinality());
+        found.stream().forEach(element -> result.add(elements.get(element)));
+        return result;
+    }
+
+    private static boolean intersects(PackedCoordinates coordinates, int first, double minLat, double minLon, double maxLat, double maxLon) {
+        if (coordinates.size() == 1) {
+            return contains(coordinates.getLat(0), coordinates.getLon(0), minLat, minLon, maxLat, maxLon);
+        }
+        int last = Math.min(first + SEGMENTS_PER_ENTRY, coordinates.size() - 1);
+        for (int i = first; i < last; i++) {
+            if (segmentIntersects(coordinates.getLat(i), coordinates.getLon(i), coordinates.getLat(i + 1), coordinates.getLon(i + 1),
+                    minLat, minLon, maxLat, maxLon)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(double lat, double lon, double minLat, double minLon, double maxLat, double maxLon) {
+        return lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon;
+    }
+
+    /**
+     * Liang-Barsky clipping of the segment by the box: the segment intersects the box if the range of its parameter t,
+     * from 0 at its first point to 1 at its second point, is not empty once restricted to the latitudes and then to the
+     * longitudes of the box.
+     */
+    static boolean segmentIntersects(double lat1, double lon1, double lat2, double lon2,
+                                     double minLat, double minLon, double maxLat, double maxLon) {
+        double tMin = 0;
+        double tMax = 1;
+        double dLat = lat2 - lat1;
+        if (dLat == 0) {
+            if (lat1 < minLat || lat1 > maxLat) {
+                return false;
+            }
+        } else {
+            double t1 = (minLat - lat1) / dLat;
+            double t2 = (maxLat - lat1) / dLat;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        double dLon = lon2 - lon1;
+        if (dLon == 0) {
+            return lon1 >= minLon && lon1 <= maxLon && tMin <= tMax;
+        }
+        double t1 = (minLon - lon1) / dLon;
+        double t2 = (maxLon - lon1) / dLon;
+        return Math.max(tMin, Math.min(t1, t2)) <= Math.min(tMax, Math.max(t1, t2));
+    }
+}
@@ -6,13 +6,12 @@
  */
 package org.gridsuite.odre.server.utils;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
 import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
-import com.fasterxml.jackson.databind.module.SimpleModule;
 import org.gridsuite.odre.server.dto.Coordinate;
 import org.gridsuite.odre.server.dto.GeoShape;
 import org.slf4j.Logger;
@@ -23,6 +22,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * Reads the Geo Shape column of the line files: a GeoJSON LineString or MultiLineString geometry.
+ * <p>
+ * The geometry is read token by token and its coordinates are streamed into a {@link CoordinateBuffer},
+ * without building any intermediate tree.
+ *
  * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
  */
 
@@ -30,38 +34,156 @@ public class GeoShapeDeserializer extends StdDeserializer<GeoShape> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GeoShapeDeserializer.class);
 
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+            .build();
+
+    private static final String INVALID_STRUCTURE = "Invalid Geo Shape structure";
+    private static final String TYPE = "type";
+    private static final String COORDINATES = "coordinates";
+    static final String LINE_STRING = "LineString";
+    static final String MULTI_LINE_STRING = "MultiLineString";
+
     public GeoShapeDeserializer() {
-        super(Coordinate.class);
+        super(GeoShape.class);
     }
 
     @Override
     public GeoShape deserialize(JsonParser parser, DeserializationContext deserializationContext) throws IOException {
-        JsonNode node = parser.getCodec().readTree(parser);
-        JsonNode coordinatesNode = node.get("coordinates");
-        if (coordinatesNode == null || !coordinatesNode.isArray()) {
-            throw new IOException("Invalid Geo Shape structure");
+        CoordinateBuffer buffer = new CoordinateBuffer();
+        read(parser, buffer);
+        return toGeoShape(buffer);
+    }
+
+    public static GeoShape read(String json) throws IOException {
+        CoordinateBuffer buffer = new CoordinateBuffer();
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            read(parser, buffer);
+        }
+        return toGeoShape(buffer);
+    }
+
+    /**
+     * Read a geometry into the given buffer, one buffer part per line string.
+     */
+    public static void read(char[] chars, int offset, int length, CoordinateBuffer buffer) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(chars, offset, length)) {
+            read(parser, buffer);
         }
+    }
+
+    private static GeoShape toGeoShape(CoordinateBuffer buffer) {
+        List<List<Coordinate>> lineStrings = new ArrayList<>(buffer.getPartCount());
+        for (int part = 0; part < buffer.getPartCount(); part++) {
+            lineStrings.add(buffer.toCoordinates(part));
+        }
+        return new GeoShape(lineStrings);
+    }
 
-        List<Coordinate> coordinateList = new ArrayList<>();
-        for (JsonNode coordinateNode : coordinatesNode) {
-            if (coordinateNode.isArray() && coordinateNode.size() == 2) {
-                double longitude = coordinateNode.get(0).asDouble();
-                double latitude = coordinateNode.get(1).asDouble();
-                coordinateList.add(new Coordinate(latitude, longitude));
+    private static void read(JsonParser parser, CoordinateBuffer buffer) throws IOException {
+        buffer.clear();
+        JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException(INVALID_STRUCTURE);
+        }
+        String type = null;
+        boolean hasCoordinates = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            token = parser.nextToken();
+            if (TYPE.equals(name)) {
+                type = parser.getValueAsString();
+            } else if (COORDINATES.equals(name) && token == JsonToken.START_ARRAY) {
+                readCoordinates(parser, buffer);
+                hasCoordinates = true;
             } else {
-                LOGGER.error("Invalid coordinate format encountered");
+                parser.skipChildren();
             }
         }
+        if (!hasCoordinates) {
+            throw new IOException(INVALID_STRUCTURE);
+        }
+        if (type != null && !LINE_STRING.equals(type) && !MULTI_LINE_STRING.equals(type)) {
+            LOGGER.error("Unsupported Geo Shape type {}", type);
+            buffer.clear();
+        }
+    }
 
-        return new GeoShape(coordinateList);
+    /**
+     * Read the coordinates array of a LineString, an array of positions, or of a MultiLineString, an array of
+     * arrays of positions. The line strings of a MultiLineString are not connected to each other and are
+     * stored as separate parts.
+     */
+    private static void readCoordinates(JsonParser parser, CoordinateBuffer buffer) throws IOException {
+        JsonToken token = parser.nextToken();
+        while (token == JsonToken.START_ARRAY) {
+            token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                // line string of a MultiLineString
+                while (token == JsonToken.START_ARRAY) {
+                    readPosition(parser, parser.nextToken(), buffer);
+                    token = parser.nextToken();
+                }
+                buffer.endPart();
+            } else {
+                // position of a LineString
+                readPosition(parser, token, buffer);
+            }
+            token = parser.nextToken();
+        }
+        buffer.endPart();
+        if (token != JsonToken.END_ARRAY) {
+            // positions are expected in arrays, not directly in the coordinates array
+            LOGGER.error("Invalid coordinate format encountered");
+            buffer.clear();
+            parser.skipChildren();
+            skipToEndOfArray(parser);
+        }
     }
 
-    public static GeoShape read(String json) throws JsonProcessingException {
-        ObjectMapper mapper = new ObjectMapper();
-        SimpleModule module = new SimpleModule();
-        module.addDeserializer(GeoShape.class, new GeoShapeDeserializer());
-        mapper.registerModule(module);
-        return mapper.readValue(json, GeoShape.class);
+    /**
+     * Read a [longitude, latitude] position, whose opening bracket and first token are already read.
+     * Positions with less than two numbers are ignored, an altitude, if any, is ignored.
+     */
+    private static void readPosition(JsonParser parser, JsonToken firstToken, CoordinateBuffer buffer) throws IOException {
+        JsonToken token = firstToken;
+        double lon = 0;
+        double lat = 0;
+        int numbers = 0;
+        while (token != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new IOException(INVALID_STRUCTURE);
+            }
+            if (token.isNumeric()) {
+                if (numbers == 0) {
+                    lon = parser.getDoubleValue();
+                } else if (numbers == 1) {
+                    lat = parser.getDoubleValue();
+                }
+                numbers++;
+            } else {
+                parser.skipChildren();
+            }
+            token = parser.nextToken();
+        }
+        if (numbers >= 2) {
+            buffer.add(lat, lon);
+        } else {
+            LOGGER.error("Invalid coordinate format encountered");
+        }
     }
 
+    private static void skipToEndOfArray(JsonParser parser) throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new IOException(INVALID_STRUCTURE);
+            } else if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+        }
+    }
 }
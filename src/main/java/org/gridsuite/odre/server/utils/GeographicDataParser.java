@@ -6,30 +6,34 @@
  */
 package org.gridsuite.odre.server.utils;
 
-import com.google.common.collect.Lists;
 import org.apache.commons.lang3.time.StopWatch;
 import org.apache.commons.lang3.tuple.Pair;
+import org.gridsuite.odre.server.client.BaseVoltage;
 import org.gridsuite.odre.server.dto.Coordinate;
-import org.gridsuite.odre.server.dto.GeoShape;
 import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.PackedCoordinates;
 import org.gridsuite.odre.server.dto.SubstationGeoData;
-import org.jgrapht.Graph;
-import org.jgrapht.Graphs;
-import org.jgrapht.alg.connectivity.ConnectivityInspector;
-import org.jgrapht.traverse.BreadthFirstIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.supercsv.io.CsvMapReader;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-import static java.util.Collections.min;
-import static java.util.Collections.reverse;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
@@ -42,41 +46,79 @@ public final class GeographicDataParser {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GeographicDataParser.class);
     private static final int THRESHOLD = 5;
+    private static final long HAND_OVER_TIMEOUT_MS = 50;
 
     public static Map<String, SubstationGeoData> parseSubstations(BufferedReader bufferedReader) {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(bufferedReader)) {
+            return parseSubstations(tokenizer, ParsingOptions.DEFAULT);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read the substations of a substations file whose header has already been read by the given tokenizer, which is
+     * not closed, recording the duration of the parsing in the metrics of the options.
+     */
+    public static Map<String, SubstationGeoData> parseSubstations(CsvTokenizer tokenizer, ParsingOptions options) {
+        options.getMetrics().startStage(ImportMetrics.SUBSTATIONS_PARSE_STAGE);
         Map<String, SubstationGeoData> substations = new HashMap<>();
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
         int substationCount = 0;
 
-        try (CsvMapReader mapReader = new CsvMapReader(bufferedReader, FileValidator.CSV_PREFERENCE)) {
-            final String[] headers = mapReader.getHeader(true);
-            Map<String, String> row;
-            while ((row = mapReader.read(headers)) != null) {
-                String id = row.get(FileValidator.CODE_POSTE);
-                double lon = Double.parseDouble(row.get(FileValidator.LONGITUDE_POSTE_DD));
-                double lat = Double.parseDouble(row.get(FileValidator.LATITUDE_POSTE_DD));
-                SubstationGeoData substation = substations.get(id);
-                if (substation == null) {
-                    SubstationGeoData substationGeoData = new SubstationGeoData(id, FileValidator.COUNTRY_FR, new Coordinate(lat, lon));
-                    substations.put(id, substationGeoData);
+        try {
+            int idColumn = tokenizer.requireColumnIndex(FileValidator.CODE_POSTE);
+            int lonColumn = tokenizer.requireColumnIndex(FileValidator.LONGITUDE_POSTE_DD);
+            int latColumn = tokenizer.requireColumnIndex(FileValidator.LATITUDE_POSTE_DD);
+            while (tokenizer.next()) {
+                String id = tokenizer.get(idColumn).toString();
+                if (!substations.containsKey(id)) {
+                    double lon = Double.parseDouble(tokenizer.get(lonColumn).toString());
+                    double lat = Double.parseDouble(tokenizer.get(latColumn).toString());
+                    substations.put(id, new SubstationGeoData(id, FileValidator.COUNTRY_FR, new Coordinate(lat, lon)));
                 }
                 substationCount++;
+                options.getMetrics().rowParsed();
             }
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+        options.getMetrics().recordStage(ImportMetrics.SUBSTATIONS_PARSE_STAGE, stopWatch.getNanoTime());
         LOGGER.info("{} substations read  in {} ms", substationCount, stopWatch.getTime());
         return substations;
     }
 
-    private static double distanceCoordinate(Coordinate coord1, Coordinate coord2) {
-        return DistanceCalculator.distance(coord1.getLat(), coord1.getLon(), coord2.getLat(), coord2.getLon());
+    private static double distanceCoordinate(Coordinate coordinate, double lat, double lon) {
+        return DistanceCalculator.distance(coordinate.getLat(), coordinate.getLon(), lat, lon);
     }
 
     public static Pair<String, String> substationOrder(Map<String, SubstationGeoData> substationGeoData, String lineId, List<Coordinate> coordinates) {
-        String substation1 = lineId.substring(0, 5).trim();
-        String substation2 = lineId.substring(8).trim();
+        Coordinate first = coordinates.get(0);
+        Coordinate last = coordinates.get(coordinates.size() - 1);
+        return substationOrder(substationGeoData, lineId, first.getLat(), first.getLon(), last.getLat(), last.getLon());
+    }
+
+    public static Pair<String, String> substationOrder(Map<String, SubstationGeoData> substationGeoData, String lineId, PackedCoordinates coordinates) {
+        int last = coordinates.size() - 1;
+        return substationOrder(substationGeoData, lineId, coordinates.getLat(0), coordinates.getLon(0), coordinates.getLat(last), coordinates.getLon(last));
+    }
+
+    private static String firstSubstationId(String lineId) {
+        return lineId.substring(0, 5).trim();
+    }
+
+    private static String secondSubstationId(String lineId) {
+        return lineId.substring(8).trim();
+    }
+
+    /**
+     * Find out which substation of a line is at its first coordinate and which one is at its last coordinate.
+     */
+    public static Pair<String, String> substationOrder(Map<String, SubstationGeoData> substationGeoData, String lineId,
+                                                       double firstLat, double firstLon, double lastLat, double lastLon) {
+        String substation1 = firstSubstationId(lineId);
+        String substation2 = secondSubstationId(lineId);
         SubstationGeoData geo1 = substationGeoData.get(substation1);
         SubstationGeoData geo2 = substationGeoData.get(substation2);
 
@@ -84,18 +126,18 @@ public final class GeographicDataParser {
             LOGGER.warn("can't find any substation for {}", lineId);
             return Pair.of("", "");
         } else if (geo1 != null && geo2 != null) {
-            final double sub1pil1 = distanceCoordinate(geo1.getCoordinate(), coordinates.get(0));
-            final double sub2pil1 = distanceCoordinate(geo2.getCoordinate(), coordinates.get(0));
-            final double sub1pil2 = distanceCoordinate(geo1.getCoordinate(), coordinates.get(coordinates.size() - 1));
-            final double sub2pil2 = distanceCoordinate(geo2.getCoordinate(), coordinates.get(coordinates.size() - 1));
+            final double sub1pil1 = distanceCoordinate(geo1.getCoordinate(), firstLat, firstLon);
+            final double sub2pil1 = distanceCoordinate(geo2.getCoordinate(), firstLat, firstLon);
+            final double sub1pil2 = distanceCoordinate(geo1.getCoordinate(), lastLat, lastLon);
+            final double sub2pil2 = distanceCoordinate(geo2.getCoordinate(), lastLat, lastLon);
             if ((sub1pil1 < sub2pil1) == (sub1pil2 < sub2pil2)) {
                 LOGGER.error("line {} for substations {} and {} has both first and last coordinate nearest to {}", lineId, substation1, substation2, sub1pil1 < sub2pil1 ? substation1 : substation2);
                 return Pair.of("", "");
             }
             return Pair.of(sub1pil1 < sub2pil1 ? substation1 : substation2, sub1pil1 < sub2pil1 ? substation2 : substation1);
         } else {
-            boolean isStart = distanceCoordinate((geo1 != null ? geo1 : geo2).getCoordinate(), coordinates.get(0)) < distanceCoordinate((geo1 != null ? geo1 : geo2).getCoordinate(),
-                    coordinates.get(coordinates.size() - 1));
+            Coordinate substationCoordinate = (geo1 != null ? geo1 : geo2).getCoordinate();
+            boolean isStart = distanceCoordinate(substationCoordinate, firstLat, firstLon) < distanceCoordinate(substationCoordinate, lastLat, lastLon);
             String substation = geo1 != null ? substation1 : substation2;
             return Pair.of(isStart ? substation : "", isStart ? "" : substation);
         }
@@ -103,124 +145,433 @@ public final class GeographicDataParser {
 
     public static Map<String, LineGeoData> parseLines(BufferedReader aerialLinesBr, BufferedReader undergroundLinesBr,
                                                       Map<String, SubstationGeoData> stringSubstationGeoDataMap) {
+        Map<String, LineGeoData> lines = new HashMap<>();
+        CoordinatePool coordinatePool = new CoordinatePool();
+        LineSegments segments;
+        try (CsvTokenizer aerialLines = new CsvTokenizer(aerialLinesBr);
+             CsvTokenizer undergroundLines = new CsvTokenizer(undergroundLinesBr)) {
+            segments = parseLineSegments(aerialLines, coordinatePool, ParsingOptions.DEFAULT)
+                    .merge(parseLineSegments(undergroundLines, coordinatePool, ParsingOptions.DEFAULT));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        assembleLines(segments, stringSubstationGeoDataMap, line -> lines.put(line.getId(), line), ParsingOptions.DEFAULT);
+        return lines;
+    }
+
+    /**
+     * Parse aerial lines, underground lines and substations concurrently from tokenizers whose header has already been
+     * read, which are not closed, the coordinates of both line files being
+     * interned in the same pool, then assemble the lines and hand each of
+     * them to the given consumer as soon as it is assembled, so that callers can forward lines without keeping all of
+     * them in memory.
+     * The files are parsed by the parse executor of the options, which should run the three parsings at the same time,
+     * and not in the assembly pool, so that reading the files neither delays nor competes with the assembly.
+     */
+    public static void parseLines(CsvTokenizer aerialLines, CsvTokenizer undergroundLines, CsvTokenizer substationsFile,
+                                  Consumer<LineGeoData> lineConsumer, ParsingOptions options) {
+        Executor parseExecutor = Objects.requireNonNull(options.getParseExecutor(), "An executor is required to parse the files");
+        CoordinatePool coordinatePool = new CoordinatePool();
+        CompletableFuture<LineSegments> aerialSegments = CompletableFuture.supplyAsync(() -> parseLineSegments(aerialLines, coordinatePool, options), parseExecutor);
+        CompletableFuture<LineSegments> undergroundSegments = CompletableFuture.supplyAsync(() -> parseLineSegments(undergroundLines, coordinatePool, options), parseExecutor);
+        CompletableFuture<Map<String, SubstationGeoData>> substations = CompletableFuture.supplyAsync(() -> parseSubstations(substationsFile, options), parseExecutor);
+        join(aerialSegments, undergroundSegments, substations);
+        assembleLines(aerialSegments.join().merge(undergroundSegments.join()), substations.join(), lineConsumer, options);
+    }
+
+    /**
+     * Wait for all the given parsings, the first failure being rethrown as is.
+     */
+    private static void join(CompletableFuture<?>... parsings) {
+        try {
+            CompletableFuture.allOf(parsings).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+
+    /**
+     * Assemble the segments of each line into a single polyline and hand each line to the given consumer.
+     * Lines are independent from each other and are assembled in parallel in the assembly pool of the options, if any,
+     * by ranges handed over to the calling thread through a bounded queue: the consumer is called from the calling
+     * thread only, in no particular order, and a slow consumer holds the assembly back instead of letting assembled
+     * lines pile up.
+     * The segments of a line are released as soon as the line is assembled, and the line is simplified with the
+     * simplifier of the options, if any, given the base voltage read for it.
+     * If the options give a substation snap distance, the ends of a line whose substation is missing from the dataset
+     * are given the nearest substation within this distance, found in a {@link SubstationKdTree} of the substations
+     * built once for all the lines.
+     * The duration and the statistics of the assembly are recorded in the metrics of the options. As lines are handed
+     * to the consumer while they are assembled, the duration of the assembly includes the time spent in the consumer.
+     */
+    public static void assembleLines(LineSegments segments, Map<String, SubstationGeoData> stringSubstationGeoDataMap, Consumer<LineGeoData> lineConsumer,
+                                     ParsingOptions options) {
+        options.getMetrics().startStage(ImportMetrics.ASSEMBLY_STAGE);
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
 
-        Map<String, Graph<Coordinate, Object>> graphByLine = new HashMap<>();
+        CoordinatePool coordinatePool = segments.getCoordinatePool();
+        LOGGER.info("{} distinct coordinates out of {} read, {} % of duplicates", coordinatePool.size(), coordinatePool.getInternCount(),
+                Math.round(coordinatePool.getDeduplicationRatio() * 100));
+
+        Map<String, PooledSegments> segmentsByLine = segments.getSegmentsByLine();
+        int graphsCount = segmentsByLine.size();
+        ForkJoinPool pool = options.getAssemblyPool();
+        double substationSnapDistance = options.getSubstationSnapDistance();
+        SubstationKdTree substationTree = substationSnapDistance > 0 ? new SubstationKdTree(stringSubstationGeoDataMap.values()) : null;
+        Assembly assembly = new Assembly(graphsCount, coordinatePool, stringSubstationGeoDataMap, options.getSimplifier(),
+                options.getMetrics(), pool != null ? 2 * pool.getParallelism() : 1, substationTree, substationSnapDistance);
+        int i = 0;
+        for (Map.Entry<String, PooledSegments> e : segmentsByLine.entrySet()) {
+            assembly.lineIds[i] = e.getKey();
+            assembly.lineSegments[i] = e.getValue();
+            assembly.lineVoltages[i] = segments.getBaseVoltage(e.getKey());
+            i++;
+        }
+        segmentsByLine.clear();
+
+        if (pool != null) {
+            ForkJoinTask<Void> task = pool.submit(new AssembleLinesTask(assembly, 0, graphsCount));
+            try {
+                consumeAssembledLines(assembly, task, lineConsumer);
+            } finally {
+                // stops the tasks if the consumer failed
+                assembly.cancelled = true;
+            }
+        } else {
+            PolylineStitcher stitcher = new PolylineStitcher(coordinatePool);
+            for (int line = 0; line < graphsCount; line++) {
+                LineGeoData lineGeoData = assembleLine(assembly, line, stitcher);
+                if (lineGeoData != null) {
+                    lineConsumer.accept(lineGeoData);
+                }
+            }
+        }
 
-        parseLine(graphByLine, aerialLinesBr);
-        parseLine(graphByLine, undergroundLinesBr);
+        int linesCount = assembly.lines.get();
+        recordAssembly(assembly, stopWatch.getNanoTime(), options.getMetrics());
+        LOGGER.info("{} lines assembled in {} ms using {} threads", linesCount, stopWatch.getTime(), pool != null ? pool.getParallelism() : 1);
+        LOGGER.info("{} lines have one Connected set, {} of them were discarded", assembly.linesWithOneConnectedSet.get(), assembly.oneConnectedSetDiscarded.get());
+        LOGGER.info("{} lines have two or more Connected sets, {} of them were discarded", assembly.linesWithTwoOrMoreConnectedSets.get(), assembly.twoOrMoreConnectedSetsDiscarded.get());
+        if (assembly.snappedSubstationEnds.get() > 0) {
+            LOGGER.info("{} line ends snapped to the nearest substation within {} m", assembly.snappedSubstationEnds.get(), substationSnapDistance);
+        }
+        if (assembly.unresolvedSubstationEnds.get() > 0) {
+            LOGGER.info("{} line ends have no substation", assembly.unresolvedSubstationEnds.get());
+        }
 
-        Map<String, LineGeoData> lines = new HashMap<>();
+        if (graphsCount != linesCount) {
+            LOGGER.warn("Total discarded lines : {}/{} ",
+                    graphsCount - linesCount, graphsCount);
+        }
+    }
 
-        int linesWithOneConnectedSet = 0;
-        int linesWithTwoOrMoreConnectedSets = 0;
-
-        int oneConnectedSetDiscarded = 0;
-        int twoOrMoreConnectedSetsDiscarded = 0;
-
-        for (Map.Entry<String, Graph<Coordinate, Object>> e : graphByLine.entrySet()) {
-            String lineId = e.getKey();
-            Graph<Coordinate, Object> graph = e.getValue();
-            List<Set<Coordinate>> connectedSets = new ConnectivityInspector<>(graph).connectedSets();
-            if (connectedSets.size() == 1) {
-                linesWithOneConnectedSet++;
-                List<Coordinate> ends = getEnds(connectedSets.get(0), graph);
-                if (ends.size() == 2) {
-                    List<Coordinate> coordinates = Lists.newArrayList(new BreadthFirstIterator<>(graph, ends.get(0)));
-                    Pair<String, String> substations = substationOrder(stringSubstationGeoDataMap, lineId, coordinates);
-                    LineGeoData line = new LineGeoData(lineId, FileValidator.COUNTRY_FR, FileValidator.COUNTRY_FR, substations.getLeft(), substations.getRight(), coordinates);
-                    lines.put(lineId, line);
-                } else {
-                    oneConnectedSetDiscarded++;
+    private static void recordAssembly(Assembly assembly, long durationNs, ImportMetrics metrics) {
+        metrics.recordStage(ImportMetrics.ASSEMBLY_STAGE, durationNs);
+        int oneConnectedSetDiscarded = assembly.oneConnectedSetDiscarded.get();
+        int twoOrMoreConnectedSetsDiscarded = assembly.twoOrMoreConnectedSetsDiscarded.get();
+        metrics.countLines(ImportMetrics.ONE_COMPONENT, ImportMetrics.ASSEMBLED, assembly.linesWithOneConnectedSet.get() - (long) oneConnectedSetDiscarded);
+        metrics.countLines(ImportMetrics.ONE_COMPONENT, ImportMetrics.DISCARDED, oneConnectedSetDiscarded);
+        metrics.countLines(ImportMetrics.MULTIPLE_COMPONENTS, ImportMetrics.ASSEMBLED, assembly.linesWithTwoOrMoreConnectedSets.get() - (long) twoOrMoreConnectedSetsDiscarded);
+        metrics.countLines(ImportMetrics.MULTIPLE_COMPONENTS, ImportMetrics.DISCARDED, twoOrMoreConnectedSetsDiscarded);
+        metrics.countSnappedSubstationEnds(assembly.snappedSubstationEnds.get());
+        metrics.countUnresolvedSubstationEnds(assembly.unresolvedSubstationEnds.get());
+    }
+
+    /**
+     * Hand the ranges of lines assembled in the pool to the consumer, until all the lines are assembled.
+     */
+    private static void consumeAssembledLines(Assembly assembly, ForkJoinTask<Void> task, Consumer<LineGeoData> lineConsumer) {
+        try {
+            while (!task.isDone()) {
+                List<LineGeoData> lines = assembly.assembledLines.poll(HAND_OVER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (lines != null) {
+                    lines.forEach(lineConsumer);
                 }
-            } else {
-                List<List<Coordinate>> coordinatesComponents = new ArrayList<>();
-                linesWithTwoOrMoreConnectedSets++;
-                for (Set<Coordinate> connectedSet : connectedSets) {
-                    List<Coordinate> endsComponent = getEnds(connectedSet, graph);
-                    if (endsComponent.size() == 2) {
-                        List<Coordinate> coordinatesComponent = Lists.newArrayList(new BreadthFirstIterator<>(graph, endsComponent.get(0)));
-                        coordinatesComponents.add(coordinatesComponent);
-                    } else {
-                        break;
-                    }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while assembling lines", e);
+        }
+        // rethrows the failure of the assembly, if any
+        task.join();
+        List<LineGeoData> lines;
+        while ((lines = assembly.assembledLines.poll()) != null) {
+            lines.forEach(lineConsumer);
+        }
+    }
+
+    /**
+     * Hand a range of assembled lines over to the calling thread, waiting while the queue is full.
+     */
+    private static void handOver(Assembly assembly, List<LineGeoData> lines) {
+        try {
+            while (!assembly.assembledLines.offer(lines, HAND_OVER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                if (assembly.cancelled) {
+                    throw new CancellationException("Lines assembly cancelled");
                 }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing assembled lines over", e);
+        }
+    }
 
-                if (coordinatesComponents.size() != connectedSets.size()) {
-                    twoOrMoreConnectedSetsDiscarded++;
-                    continue;
+    /**
+     * @return the assembled line, or null if its segments do not form polylines
+     */
+    private static LineGeoData assembleLine(Assembly assembly, int line, PolylineStitcher stitcher) {
+        PooledSegments lineSegments = assembly.lineSegments[line];
+        // the segments of a line are not needed anymore once the line is assembled
+        assembly.lineSegments[line] = null;
+        stitcher.clear();
+        for (int part = 0; part < lineSegments.getPartCount(); part++) {
+            stitcher.addSegment(lineSegments, part);
+        }
+        PackedCoordinates coordinates;
+        int connectedSetsCount = stitcher.findComponents();
+        if (connectedSetsCount == 1) {
+            assembly.linesWithOneConnectedSet.incrementAndGet();
+            if (stitcher.getEndCount(0) != 2) {
+                assembly.oneConnectedSetDiscarded.incrementAndGet();
+                return null;
+            }
+            coordinates = stitcher.walk(0);
+        } else {
+            List<PackedCoordinates> coordinatesComponents = new ArrayList<>();
+            assembly.linesWithTwoOrMoreConnectedSets.incrementAndGet();
+            for (int component = 0; component < connectedSetsCount; component++) {
+                if (stitcher.getEndCount(component) == 2) {
+                    coordinatesComponents.add(stitcher.walk(component));
+                } else {
+                    break;
                 }
+            }
 
-                List<Coordinate> aggregatedCoordinates = aggregateCoordinates(coordinatesComponents);
-                Pair<String, String> substations = substationOrder(stringSubstationGeoDataMap, lineId, aggregatedCoordinates);
-                LineGeoData line = new LineGeoData(lineId, FileValidator.COUNTRY_FR, FileValidator.COUNTRY_FR, substations.getLeft(), substations.getRight(), aggregatedCoordinates);
-                lines.put(lineId, line);
+            if (coordinatesComponents.size() != connectedSetsCount) {
+                assembly.twoOrMoreConnectedSetsDiscarded.incrementAndGet();
+                return null;
             }
+            coordinates = aggregateCoordinates(coordinatesComponents);
+        }
+
+        if (assembly.simplifier != null) {
+            coordinates = assembly.simplifier.simplify(coordinates, assembly.lineVoltages[line]);
+        }
+        String lineId = assembly.lineIds[line];
+        Pair<String, String> substations = substationOrder(assembly.stringSubstationGeoDataMap, lineId, coordinates);
+        String substationStart = substations.getLeft();
+        String substationEnd = substations.getRight();
+        // only the substations missing from the dataset are snapped, a line whose both substations are found but
+        // inconsistent with its coordinates is left unresolved rather than being given a substation of its own
+        if (assembly.substationTree != null && (!assembly.stringSubstationGeoDataMap.containsKey(firstSubstationId(lineId))
+                || !assembly.stringSubstationGeoDataMap.containsKey(secondSubstationId(lineId)))) {
+            int last = coordinates.size() - 1;
+            if (substationStart.isEmpty()) {
+                substationStart = snapToSubstation(assembly, coordinates.getLat(0), coordinates.getLon(0), substationEnd);
+            }
+            if (substationEnd.isEmpty()) {
+                substationEnd = snapToSubstation(assembly, coordinates.getLat(last), coordinates.getLon(last), substationStart);
+            }
+        }
+        int unresolvedEnds = (substationStart.isEmpty() ? 1 : 0) + (substationEnd.isEmpty() ? 1 : 0);
+        if (unresolvedEnds > 0) {
+            assembly.unresolvedSubstationEnds.addAndGet(unresolvedEnds);
         }
+        assembly.lines.incrementAndGet();
+        assembly.metrics.lineAssembled();
+        return new LineGeoData(lineId, FileValidator.COUNTRY_FR, FileValidator.COUNTRY_FR, substationStart, substationEnd, coordinates);
+    }
 
-        LOGGER.info("{} lines read in {} ms", lines.size(), stopWatch.getTime());
-        LOGGER.info("{} lines have one Connected set, {} of them were discarded", linesWithOneConnectedSet, oneConnectedSetDiscarded);
-        LOGGER.info("{} lines have two or more Connected sets, {} of them were discarded", linesWithTwoOrMoreConnectedSets, twoOrMoreConnectedSetsDiscarded);
+    /**
+     * @param otherEnd substation of the other end of the line, which cannot be the substation of this end
+     * @return the nearest substation to the end of a line within the snap distance, or an empty string if there is none
+     */
+    private static String snapToSubstation(Assembly assembly, double lat, double lon, String otherEnd) {
+        String substation = assembly.substationTree.nearest(lat, lon, assembly.substationSnapDistance, otherEnd.isEmpty() ? null : otherEnd);
+        if (substation == null) {
+            return "";
+        }
+        assembly.snappedSubstationEnds.incrementAndGet();
+        return substation;
+    }
 
-        if (graphByLine.size() != lines.size()) {
-            LOGGER.warn("Total discarded lines : {}/{} ",
-                    graphByLine.size() - lines.size(), graphByLine.size());
+    /**
+     * Lines being assembled, the ranges of assembled lines waiting for the consumer, and the assembly statistics.
+     */
+    private static final class Assembly {
+        private final String[] lineIds;
+        private final PooledSegments[] lineSegments;
+        private final BaseVoltage[] lineVoltages;
+        private final CoordinatePool coordinatePool;
+        private final Map<String, SubstationGeoData> stringSubstationGeoDataMap;
+        private final LineSimplifier simplifier;
+        private final BlockingQueue<List<LineGeoData>> assembledLines;
+        private final ImportMetrics metrics;
+        private final SubstationKdTree substationTree;
+        private final double substationSnapDistance;
+        private final AtomicInteger lines = new AtomicInteger();
+        private final AtomicInteger linesWithOneConnectedSet = new AtomicInteger();
+        private final AtomicInteger linesWithTwoOrMoreConnectedSets = new AtomicInteger();
+        private final AtomicInteger oneConnectedSetDiscarded = new AtomicInteger();
+        private final AtomicInteger twoOrMoreConnectedSetsDiscarded = new AtomicInteger();
+        private final AtomicInteger snappedSubstationEnds = new AtomicInteger();
+        private final AtomicInteger unresolvedSubstationEnds = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        private Assembly(int lineCount, CoordinatePool coordinatePool, Map<String, SubstationGeoData> stringSubstationGeoDataMap,
+                         LineSimplifier simplifier, ImportMetrics metrics, int queueCapacity,
+                         SubstationKdTree substationTree, double substationSnapDistance) {
+            this.lineIds = new String[lineCount];
+            this.lineSegments = new PooledSegments[lineCount];
+            this.lineVoltages = new BaseVoltage[lineCount];
+            this.coordinatePool = coordinatePool;
+            this.stringSubstationGeoDataMap = stringSubstationGeoDataMap;
+            this.simplifier = simplifier;
+            this.metrics = metrics;
+            this.assembledLines = new ArrayBlockingQueue<>(queueCapacity);
+            this.substationTree = substationTree;
+            this.substationSnapDistance = substationSnapDistance;
         }
+    }
 
-        return lines;
+    /**
+     * Assembles a range of lines, split in halves until it is small enough, each leaf using its own stitcher and handing
+     * its lines over to the calling thread at once.
+     */
+    private static final class AssembleLinesTask extends RecursiveAction {
+
+        private static final int LINES_PER_TASK = 256;
+
+        private final transient Assembly assembly;
+        private final int from;
+        private final int to;
+
+        private AssembleLinesTask(Assembly assembly, int from, int to) {
+            this.assembly = assembly;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LINES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new AssembleLinesTask(assembly, from, middle), new AssembleLinesTask(assembly, middle, to));
+                return;
+            }
+            if (assembly.cancelled) {
+                return;
+            }
+            PolylineStitcher stitcher = new PolylineStitcher(assembly.coordinatePool);
+            List<LineGeoData> lines = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                LineGeoData line = assembleLine(assembly, i, stitcher);
+                if (line != null) {
+                    lines.add(line);
+                }
+            }
+            if (!lines.isEmpty()) {
+                handOver(assembly, lines);
+            }
+        }
     }
 
-    private static void parseLine(Map<String, Graph<Coordinate, Object>> graphByLine, BufferedReader br) {
-
-        try (CsvMapReader mapReader = new CsvMapReader(br, FileValidator.CSV_PREFERENCE)) {
-            final String[] headers = mapReader.getHeader(true);
-            Map<String, String> row;
-            while ((row = mapReader.read(headers)) != null) {
-                List<String> ids = Stream.of(row.get(FileValidator.IDS_COLUMNS_NAME.get(FileValidator.CODE_LIGNE_KEY_1)), row.get(FileValidator.IDS_COLUMNS_NAME.get(FileValidator.CODE_LIGNE_KEY_2)),
-                        row.get(FileValidator.IDS_COLUMNS_NAME.get(FileValidator.CODE_LIGNE_KEY_3)), row.get(FileValidator.IDS_COLUMNS_NAME.get(FileValidator.CODE_LIGNE_KEY_4)),
-                                row.get(FileValidator.IDS_COLUMNS_NAME.get(FileValidator.CODE_LIGNE_KEY_5))).filter(Objects::nonNull).collect(Collectors.toList());
-                GeoShape geoShape = GeoShapeDeserializer.read(row.get(FileValidator.GEO_SHAPE));
-                if (ids.isEmpty() || geoShape.coordinates().isEmpty()) {
+    /**
+     * Read the segments of an aerial or underground lines file whose header has already been read by the given
+     * tokenizer, which is not closed, interning their coordinates in the given pool, which can be shared by files
+     * parsed concurrently, and recording the duration of the parsing in the metrics of the options.
+     */
+    public static LineSegments parseLineSegments(CsvTokenizer tokenizer, CoordinatePool coordinatePool, ParsingOptions options) {
+        options.getMetrics().startStage(ImportMetrics.LINES_PARSE_STAGE);
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        LineSegments segments = new LineSegments(coordinatePool);
+        int rowCount = 0;
+
+        try {
+            int[] idColumns = Stream.of(FileValidator.CODE_LIGNE_1, FileValidator.CODE_LIGNE_2, FileValidator.CODE_LIGNE_3, FileValidator.CODE_LIGNE_4, FileValidator.CODE_LIGNE_5)
+                    .mapToInt(tokenizer::getColumnIndex)
+                    .toArray();
+            int geoShapeColumn = tokenizer.requireColumnIndex(FileValidator.GEO_SHAPE);
+            int tensionColumn = tokenizer.getColumnIndex(FileValidator.TENSION);
+            Map<String, BaseVoltage> baseVoltages = new HashMap<>();
+            List<String> ids = new ArrayList<>(idColumns.length);
+            CoordinateBuffer coordinates = new CoordinateBuffer();
+            int[] indices = new int[128];
+            CsvTokenizer.FieldParser geoShapeParser = (chars, offset, length) -> GeoShapeDeserializer.read(chars, offset, length, coordinates);
+            while (tokenizer.next()) {
+                ids.clear();
+                for (int idColumn : idColumns) {
+                    String id = tokenizer.getString(idColumn);
+                    if (id != null) {
+                        ids.add(id);
+                    }
+                }
+                if (ids.isEmpty() || tokenizer.get(geoShapeColumn).length() == 0) {
+                    continue;
+                }
+                tokenizer.parse(geoShapeColumn, geoShapeParser);
+                if (coordinates.isEmpty()) {
                     continue;
                 }
 
-                for (String lineId : ids) {
-                    putLineGraph(lineId, graphByLine).addVerticesAndEdges(geoShape.coordinates());
+                if (indices.length < coordinates.size()) {
+                    indices = new int[2 * coordinates.size()];
+                }
+                for (int i = 0; i < coordinates.size(); i++) {
+                    indices[i] = coordinatePool.intern(coordinates.getLat(i), coordinates.getLon(i));
                 }
+                // line strings of a MultiLineString are not connected to each other
+                for (int part = 0; part < coordinates.getPartCount(); part++) {
+                    for (String lineId : ids) {
+                        segments.add(lineId, indices, coordinates.getPartStart(part), coordinates.getPartEnd(part));
+                    }
+                }
+                String tension = tokenizer.getString(tensionColumn);
+                BaseVoltage baseVoltage = tension != null ? baseVoltages.computeIfAbsent(tension, GeographicDataParser::parseBaseVoltage) : null;
+                if (baseVoltage != null) {
+                    ids.forEach(lineId -> segments.setBaseVoltage(lineId, baseVoltage));
+                }
+                rowCount++;
+                options.getMetrics().rowParsed();
             }
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+        options.getMetrics().recordStage(ImportMetrics.LINES_PARSE_STAGE, stopWatch.getNanoTime());
+        LOGGER.info("{} line segments read in {} ms", rowCount, stopWatch.getTime());
+        return segments;
     }
 
-    private static LineGraph<Coordinate, Object> putLineGraph(String lineId, Map<String, Graph<Coordinate, Object>> graphByLine) {
-        return (LineGraph<Coordinate, Object>) graphByLine.computeIfAbsent(lineId, key -> new LineGraph<>(Object.class));
+    private static BaseVoltage parseBaseVoltage(String tension) {
+        try {
+            return BaseVoltage.parse(tension);
+        } catch (IllegalStateException e) {
+            LOGGER.warn(e.getMessage());
+            return null;
+        }
     }
 
-    private static List<Coordinate> getEnds(Set<Coordinate> connectedSet, Graph<Coordinate, Object> graph) {
-        List<Coordinate> ends = new ArrayList<>();
-        for (Coordinate coordinate : connectedSet) {
-            if (Graphs.neighborListOf(graph, coordinate).size() == 1) {
-                ends.add(coordinate);
-            }
-        }
-        return ends;
+    private static double getBranchLength(PackedCoordinates coordinatesComponent) {
+        int last = coordinatesComponent.size() - 1;
+        return DistanceCalculator.distance(coordinatesComponent.getLat(0), coordinatesComponent.getLon(0),
+                coordinatesComponent.getLat(last), coordinatesComponent.getLon(last));
     }
 
-    private static double getBranchLength(List<Coordinate> coordinatesComponent) {
-        return DistanceCalculator.distance(coordinatesComponent.get(0).getLat(), coordinatesComponent.get(0).getLon(),
-                coordinatesComponent.get(coordinatesComponent.size() - 1).getLat(), coordinatesComponent.get(coordinatesComponent.size() - 1).getLon());
+    private static double distanceBetweenEnds(PackedCoordinates coordinatesComponent1, boolean last1, PackedCoordinates coordinatesComponent2, boolean last2) {
+        int index1 = last1 ? coordinatesComponent1.size() - 1 : 0;
+        int index2 = last2 ? coordinatesComponent2.size() - 1 : 0;
+        return DistanceCalculator.distance(coordinatesComponent1.getLat(index1), coordinatesComponent1.getLon(index1),
+                coordinatesComponent2.getLat(index2), coordinatesComponent2.getLon(index2));
     }
 
-    private static List<Coordinate> aggregateCoordinates(List<List<Coordinate>> coordinatesComponents) {
+    static PackedCoordinates aggregateCoordinates(List<PackedCoordinates> coordinatesComponents) {
         coordinatesComponents.sort((comp1, comp2) -> (int) (getBranchLength(comp2) - getBranchLength(comp1)));
         return aggregateCoordinates(coordinatesComponents.get(0), coordinatesComponents.get(1));
     }
 
-    private static List<Coordinate> aggregateCoordinates(List<Coordinate> coordinatesComponent1, List<Coordinate> coordinatesComponent2) {
-        List<Coordinate> aggregatedCoordinates;
-
+    private static PackedCoordinates aggregateCoordinates(PackedCoordinates coordinatesComponent1, PackedCoordinates coordinatesComponent2) {
         double l1 = getBranchLength(coordinatesComponent1);
         double l2 = getBranchLength(coordinatesComponent2);
 
@@ -228,38 +579,21 @@ public final class GeographicDataParser {
             return coordinatesComponent1;
         }
 
-        double d1 = DistanceCalculator.distance(coordinatesComponent1.get(0).getLat(), coordinatesComponent1.get(0).getLon(),
-                coordinatesComponent2.get(coordinatesComponent2.size() - 1).getLat(), coordinatesComponent2.get(coordinatesComponent2.size() - 1).getLon());
-
-        double d2 = DistanceCalculator.distance(coordinatesComponent1.get(0).getLat(), coordinatesComponent1.get(0).getLon(),
-                coordinatesComponent2.get(0).getLat(), coordinatesComponent2.get(0).getLon());
-
-        double d3 = DistanceCalculator.distance(coordinatesComponent1.get(coordinatesComponent1.size() - 1).getLat(), coordinatesComponent1.get(coordinatesComponent1.size() - 1).getLon(),
-                coordinatesComponent2.get(coordinatesComponent2.size() - 1).getLat(), coordinatesComponent2.get(coordinatesComponent2.size() - 1).getLon());
+        double d1 = distanceBetweenEnds(coordinatesComponent1, false, coordinatesComponent2, true);
+        double d2 = distanceBetweenEnds(coordinatesComponent1, false, coordinatesComponent2, false);
+        double d3 = distanceBetweenEnds(coordinatesComponent1, true, coordinatesComponent2, true);
+        double d4 = distanceBetweenEnds(coordinatesComponent1, true, coordinatesComponent2, false);
 
-        double d4 = DistanceCalculator.distance(coordinatesComponent1.get(coordinatesComponent1.size() - 1).getLat(), coordinatesComponent1.get(coordinatesComponent1.size() - 1).getLon(),
-                coordinatesComponent2.get(0).getLat(), coordinatesComponent2.get(0).getLon());
-
-        List<Double> distances = Arrays.asList(d1, d2, d3, d4);
-        double min = min(distances);
+        double min = Math.min(Math.min(d1, d2), Math.min(d3, d4));
 
         if (d1 == min) {
-            aggregatedCoordinates = new ArrayList<>(coordinatesComponent2);
-            aggregatedCoordinates.addAll(coordinatesComponent1);
-
+            return coordinatesComponent2.concat(coordinatesComponent1);
         } else if (d2 == min) {
-            reverse(coordinatesComponent1);
-            aggregatedCoordinates = new ArrayList<>(coordinatesComponent1);
-            aggregatedCoordinates.addAll(coordinatesComponent2);
-
+            return coordinatesComponent1.reversed().concat(coordinatesComponent2);
         } else if (d3 == min) {
-            reverse(coordinatesComponent2);
-            aggregatedCoordinates = new ArrayList<>(coordinatesComponent1);
-            aggregatedCoordinates.addAll(coordinatesComponent2);
+            return coordinatesComponent1.concat(coordinatesComponent2.reversed());
         } else {
-            aggregatedCoordinates = new ArrayList<>(coordinatesComponent1);
-            aggregatedCoordinates.addAll(coordinatesComponent2);
+            return coordinatesComponent1.concat(coordinatesComponent2);
         }
-        return aggregatedCoordinates;
     }
 }
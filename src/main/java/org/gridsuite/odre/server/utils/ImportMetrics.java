@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the stages of an import of geographical data, tagged by the source of the data: the datasets downloaded
+ * from the open data server, the CSV files uploaded by a user or the snapshot of the last import pushed again.
+ * <ul>
+ *     <li>{@code odre.import.stage}: duration of each stage, tagged by stage</li>
+ *     <li>{@code odre.import.payload.bytes}: size of each dataset read</li>
+ *     <li>{@code odre.import.lines}: assembled lines, tagged by number of connected components and by result</li>
+ *     <li>{@code odre.import.substation.ends.snapped}: ends of the assembled lines whose substation was missing from
+ *     the dataset, snapped to the nearest substation</li>
+ *     <li>{@code odre.import.substation.ends.unresolved}: ends of the assembled lines whose substation was not found</li>
+ * </ul>
+ * The stages may also report the progress of a single import, see {@link #withProgress(ImportProgress)}.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class ImportMetrics {
+
+    public static final String DOWNLOAD_SOURCE = "download";
+    public static final String UPLOAD_SOURCE = "upload";
+    public static final String SNAPSHOT_SOURCE = "snapshot";
+
+    public static final String DOWNLOAD_STAGE = "download";
+    public static final String VALIDATION_STAGE = "validation";
+    public static final String SUBSTATIONS_PARSE_STAGE = "substations-parse";
+    public static final String LINES_PARSE_STAGE = "lines-parse";
+    public static final String ASSEMBLY_STAGE = "assembly";
+    public static final String SERIALIZATION_STAGE = "serialization";
+    public static final String PUSH_STAGE = "push";
+
+    public static final String ONE_COMPONENT = "one";
+    public static final String MULTIPLE_COMPONENTS = "multiple";
+    public static final String ASSEMBLED = "assembled";
+    public static final String DISCARDED = "discarded";
+
+    /**
+     * Metrics recorded nowhere, a composite registry without any registry creating no-op meters.
+     */
+    public static final ImportMetrics NONE = new ImportMetrics(new CompositeMeterRegistry(), "none");
+
+    private final MeterRegistry meterRegistry;
+
+    private final String source;
+
+    private final ImportProgress progress;
+
+    public ImportMetrics(MeterRegistry meterRegistry, String source) {
+        this(meterRegistry, source, null);
+    }
+
+    private ImportMetrics(MeterRegistry meterRegistry, String source, ImportProgress progress) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry);
+        this.source = Objects.requireNonNull(source);
+        this.progress = progress;
+    }
+
+    /**
+     * @return metrics recorded in the same meters, which also report the progress of an import to the given progress,
+     * or these metrics if it is null
+     */
+    public ImportMetrics withProgress(ImportProgress progress) {
+        return progress == null ? this : new ImportMetrics(meterRegistry, source, progress);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void startStage(String stage) {
+        if (progress != null) {
+            progress.setStage(stage);
+        }
+    }
+
+    public void rowParsed() {
+        if (progress != null) {
+            progress.rowParsed();
+        }
+    }
+
+    public void lineAssembled() {
+        if (progress != null) {
+            progress.lineAssembled();
+        }
+    }
+
+    public void featurePushed() {
+        if (progress != null) {
+            progress.featurePushed();
+        }
+    }
+
+    public void batchPushed() {
+        if (progress != null) {
+            progress.batchPushed();
+        }
+    }
+
+    public void recordStage(String stage, long durationNs) {
+        Timer.builder("odre.import.stage").tag("stage", stage).tag("source", source)
+                .register(meterRegistry).record(durationNs, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPayloadBytes(long bytes) {
+        DistributionSummary.builder("odre.import.payload.bytes").tag("source", source).baseUnit("bytes")
+                .register(meterRegistry).record(bytes);
+    }
+
+    /**
+     * @param components {@link #ONE_COMPONENT} or {@link #MULTIPLE_COMPONENTS}
+     * @param result {@link #ASSEMBLED} or {@link #DISCARDED}
+     */
+    public void countLines(String components, String result, long count) {
+        Counter.builder("odre.import.lines").tag("components", components).tag("result", result).tag("source", source)
+                .register(meterRegistry).increment(count);
+    }
+
+    public void countSnappedSubstationEnds(long count) {
+        Counter.builder("odre.import.substation.ends.snapped").tag("source", source)
+                .register(meterRegistry).increment(count);
+    }
+
+    public void countUnresolvedSubstationEnds(long count) {
+        Counter.builder("odre.import.substation.ends.unresolved").tag("source", source)
+                .register(meterRegistry).increment(count);
+    }
+}
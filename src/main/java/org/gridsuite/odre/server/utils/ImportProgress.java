@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress of a running import: its current stage and what has been done so far.
+ * It is updated by the threads of the import stages and may be read at any time from another thread.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class ImportProgress {
+
+    private volatile String stage;
+
+    private final LongAdder rowsParsed = new LongAdder();
+
+    private final LongAdder linesAssembled = new LongAdder();
+
+    private final LongAdder featuresPushed = new LongAdder();
+
+    private final LongAdder batchesPushed = new LongAdder();
+
+    /**
+     * @return the last stage started, one of the stages of {@link ImportMetrics}, or null if none has started yet.
+     * As stages overlap, for instance lines are pushed while they are assembled, it is the most recent one.
+     */
+    public String getStage() {
+        return stage;
+    }
+
+    void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.sum();
+    }
+
+    public long getLinesAssembled() {
+        return linesAssembled.sum();
+    }
+
+    public long getFeaturesPushed() {
+        return featuresPushed.sum();
+    }
+
+    public long getBatchesPushed() {
+        return batchesPushed.sum();
+    }
+
+    void rowParsed() {
+        rowsParsed.increment();
+    }
+
+    void lineAssembled() {
+        linesAssembled.increment();
+    }
+
+    void featurePushed() {
+        featuresPushed.increment();
+    }
+
+    void batchPushed() {
+        batchesPushed.increment();
+    }
+}
@@ -9,8 +9,13 @@ package org.gridsuite.odre.server.utils;
 import org.apache.commons.io.ByteOrderMark;
 import org.apache.commons.io.input.BOMInputStream;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
@@ -22,4 +27,19 @@ public final class InputUtils {
     public static BOMInputStream toBomInputStream(InputStream inputStream) throws IOException {
         return BOMInputStream.builder().setInputStream(inputStream).setByteOrderMarks(ByteOrderMark.UTF_8).get();
     }
+
+    /**
+     * Open a UTF-8 reader on a file, skipping its byte order mark if any.
+     * The file is read through its channel with a fixed size buffer, whatever its size.
+     */
+    public static BufferedReader toBufferedReader(Path path) throws IOException {
+        return toBufferedReader(Files.newInputStream(path));
+    }
+
+    /**
+     * Open a UTF-8 reader on a stream, skipping its byte order mark if any.
+     */
+    public static BufferedReader toBufferedReader(InputStream inputStream) throws IOException {
+        return new BufferedReader(new InputStreamReader(toBomInputStream(inputStream), StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.client.BaseVoltage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Segments read from one or several line files, grouped by line id, waiting to be assembled into lines.
+ * The coordinates of the segments are interned in a pool that can be shared by several files, the segments
+ * of a line being kept as pool indices, in reading order.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class LineSegments {
+
+    private static final int EXPECTED_LINE_SIZE = 16;
+
+    private final CoordinatePool coordinatePool;
+
+    private final Map<String, PooledSegments> segmentsByLine = new HashMap<>();
+
+    private final Map<String, BaseVoltage> baseVoltageByLine = new HashMap<>();
+
+    public LineSegments() {
+        this(new CoordinatePool());
+    }
+
+    public LineSegments(CoordinatePool coordinatePool) {
+        this.coordinatePool = Objects.requireNonNull(coordinatePool);
+    }
+
+    /**
+     * Add a segment to a line, given by the pool indices of its coordinates.
+     */
+    void add(String lineId, int[] segmentIndices, int from, int to) {
+        segmentsByLine.computeIfAbsent(lineId, key -> new PooledSegments(EXPECTED_LINE_SIZE)).addPart(segmentIndices, from, to);
+    }
+
+    /**
+     * Set the base voltage of a line, unless one has already been read for it.
+     */
+    void setBaseVoltage(String lineId, BaseVoltage baseVoltage) {
+        baseVoltageByLine.putIfAbsent(lineId, baseVoltage);
+    }
+
+    /**
+     * @return the base voltage of a line, or null if none has been read for it
+     */
+    public BaseVoltage getBaseVoltage(String lineId) {
+        return baseVoltageByLine.get(lineId);
+    }
+
+    /**
+     * Add the segments of another file to this one, as if both files had been read one after the other.
+     * Segments of another pool are interned in the pool of this one.
+     */
+    public LineSegments merge(LineSegments other) {
+        CoordinatePool otherPool = other.coordinatePool;
+        other.segmentsByLine.forEach((lineId, segments) -> {
+            if (otherPool != coordinatePool) {
+                segments.remap(index -> coordinatePool.intern(otherPool.getLat(index), otherPool.getLon(index)));
+            }
+            PooledSegments existingSegments = segmentsByLine.putIfAbsent(lineId, segments);
+            if (existingSegments != null) {
+                existingSegments.addParts(segments);
+            }
+        });
+        other.baseVoltageByLine.forEach(baseVoltageByLine::putIfAbsent);
+        return this;
+    }
+
+    public int size() {
+        return segmentsByLine.size();
+    }
+
+    public CoordinatePool getCoordinatePool() {
+        return coordinatePool;
+    }
+
+    Map<String, PooledSegments> getSegmentsByLine() {
+        return segmentsByLine;
+    }
+}
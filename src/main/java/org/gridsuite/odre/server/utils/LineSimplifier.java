@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.client.BaseVoltage;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.PackedCoordinates;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simplifies the geometry of lines with the Douglas-Peucker algorithm: points closer than a tolerance, in meters,
+ * to the simplified line are removed, the ends of the line being always kept.
+ * <p>
+ * The tolerance may depend on the base voltage of the line, so that the main lines, which are displayed at lower
+ * zoom levels, can be simplified more. The numbers of points before and after simplification are counted for all
+ * the lines simplified by a simplifier, which can be used concurrently.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class LineSimplifier {
+
+    private final double defaultTolerance;
+
+    private final Map<BaseVoltage, Double> tolerances;
+
+    private final LongAdder inputPointCount = new LongAdder();
+
+    private final LongAdder outputPointCount = new LongAdder();
+
+    /**
+     * @param defaultTolerance tolerance in meters of the lines whose base voltage is unknown or has no tolerance
+     * @param tolerances tolerances in meters by base voltage
+     */
+    public LineSimplifier(double defaultTolerance, Map<BaseVoltage, Double> tolerances) {
+        this.defaultTolerance = defaultTolerance;
+        this.tolerances = tolerances.isEmpty() ? Map.of() : new EnumMap<>(tolerances);
+    }
+
+    public LineSimplifier(double tolerance) {
+        this(tolerance, Map.of());
+    }
+
+    public double getTolerance(BaseVoltage baseVoltage) {
+        return baseVoltage == null ? defaultTolerance : tolerances.getOrDefault(baseVoltage, defaultTolerance);
+    }
+
+    /**
+     * @param baseVoltage base voltage of the line, or null if unknown
+     */
+    public PackedCoordinates simplify(PackedCoordinates coordinates, BaseVoltage baseVoltage) {
+        PackedCoordinates simplified = simplify(coordinates, getTolerance(baseVoltage));
+        inputPointCount.add(coordinates.size());
+        outputPointCount.add(simplified.size());
+        return simplified;
+    }
+
+    /**
+     * @param baseVoltage base voltage of the line, or null if unknown
+     */
+    public LineGeoData simplify(LineGeoData line, BaseVoltage baseVoltage) {
+        PackedCoordinates coordinates = PackedCoordinates.copyOf(line.getCoordinates());
+        PackedCoordinates simplified = simplify(coordinates, baseVoltage);
+        return simplified == coordinates ? line : new LineGeoData(line.getId(), line.getCountry1(), line.getCountry2(),
+                line.getSubstationStart(), line.getSubstationEnd(), simplified);
+    }
+
+    public long getInputPointCount() {
+        return inputPointCount.sum();
+    }
+
+    public long getOutputPointCount() {
+        return outputPointCount.sum();
+    }
+
+    /**
+     * @return the share of the points that were removed
+     */
+    public double getReductionRatio() {
+        long input = getInputPointCount();
+        return input == 0 ? 0 : 1 - (double) getOutputPointCount() / input;
+    }
+
+    /**
+     * @return the simplified coordinates, or the given ones if no point can be removed
+     */
+    public static PackedCoordinates simplify(PackedCoordinates coordinates, double tolerance) {
+        int size = coordinates.size();
+        if (size <= 2 || tolerance <= 0) {
+            return coordinates;
+        }
+        boolean[] kept = new boolean[size];
+        kept[0] = true;
+        kept[size - 1] = true;
+        int keptCount = 2;
+        // ranges still to simplify, as pairs of first and last indices
+        int[] stack = new int[64];
+        int stackSize = 0;
+        stack[stackSize++] = 0;
+        stack[stackSize++] = size - 1;
+        while (stackSize > 0) {
+            int last = stack[--stackSize];
+            int first = stack[--stackSize];
+            int farthest = -1;
+            double farthestDistance = tolerance;
+            for (int i = first + 1; i < last; i++) {
+                double distance = DistanceCalculator.distanceToSegment(coordinates.getLat(i), coordinates.getLon(i),
+                        coordinates.getLat(first), coordinates.getLon(first), coordinates.getLat(last), coordinates.getLon(last));
+                if (distance > farthestDistance) {
+                    farthest = i;
+                    farthestDistance = distance;
+                }
+            }
+            if (farthest < 0) {
+                continue;
+            }
+            kept[farthest] = true;
+            keptCount++;
+            if (stackSize + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+            }
+            stack[stackSize++] = first;
+            stack[stackSize++] = farthest;
+            stack[stackSize++] = farthest;
+            stack[stackSize++] = last;
+        }
+        if (keptCount == size) {
+            return coordinates;
+        }
+        PackedCoordinates.Builder builder = new PackedCoordinates.Builder(keptCount);
+        for (int i = 0; i < size; i++) {
+            if (kept[i]) {
+                builder.add(coordinates.getLat(i), coordinates.getLon(i));
+            }
+        }
+        return builder.build();
+    }
+}
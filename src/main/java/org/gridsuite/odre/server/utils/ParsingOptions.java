@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Immutable options of {@link GeographicDataParser}, each client building its own once from its configuration.
+ * The default options assemble the lines in the calling thread without simplifying them nor snapping their ends to
+ * substations, record no metrics, and have no executor to parse files concurrently.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class ParsingOptions {
+
+    public static final ParsingOptions DEFAULT = new ParsingOptions(null, null, null, ImportMetrics.NONE, 0);
+
+    private final Executor parseExecutor;
+
+    private final ForkJoinPool assemblyPool;
+
+    private final LineSimplifier simplifier;
+
+    private final ImportMetrics metrics;
+
+    private final double substationSnapDistance;
+
+    private ParsingOptions(Executor parseExecutor, ForkJoinPool assemblyPool, LineSimplifier simplifier, ImportMetrics metrics,
+                           double substationSnapDistance) {
+        this.parseExecutor = parseExecutor;
+        this.assemblyPool = assemblyPool;
+        this.simplifier = simplifier;
+        this.metrics = Objects.requireNonNull(metrics);
+        this.substationSnapDistance = substationSnapDistance;
+    }
+
+    /**
+     * @param parseExecutor executor parsing the files of an import concurrently
+     */
+    public ParsingOptions withParseExecutor(Executor parseExecutor) {
+        return new ParsingOptions(parseExecutor, assemblyPool, simplifier, metrics, substationSnapDistance);
+    }
+
+    /**
+     * @param assemblyPool pool assembling the lines in parallel, which must not be the pool of the thread consuming
+     *                     the lines, or null to assemble them in the calling thread
+     */
+    public ParsingOptions withAssemblyPool(ForkJoinPool assemblyPool) {
+        return new ParsingOptions(parseExecutor, assemblyPool, simplifier, metrics, substationSnapDistance);
+    }
+
+    /**
+     * @param simplifier simplifier of the assembled lines, given the base voltage read for them, or null to keep
+     *                   all the points
+     */
+    public ParsingOptions withSimplifier(LineSimplifier simplifier) {
+        return new ParsingOptions(parseExecutor, assemblyPool, simplifier, metrics, substationSnapDistance);
+    }
+
+    /**
+     * @param metrics metrics in which the parsing and assembly stages are recorded
+     */
+    public ParsingOptions withMetrics(ImportMetrics metrics) {
+        return new ParsingOptions(parseExecutor, assemblyPool, simplifier, metrics, substationSnapDistance);
+    }
+
+    /**
+     * @param substationSnapDistance maximum distance in meters from a line end whose substation is missing from the
+     *                               dataset to the substation it is given, 0 to leave such ends without substation
+     */
+    public ParsingOptions withSubstationSnapDistance(double substationSnapDistance) {
+        return new ParsingOptions(parseExecutor, assemblyPool, simplifier, metrics, substationSnapDistance);
+    }
+
+    public Executor getParseExecutor() {
+        return parseExecutor;
+    }
+
+    public ForkJoinPool getAssemblyPool() {
+        return assemblyPool;
+    }
+
+    public LineSimplifier getSimplifier() {
+        return simplifier;
+    }
+
+    public ImportMetrics getMetrics() {
+        return metrics;
+    }
+
+    public double getSubstationSnapDistance() {
+        return substationSnapDistance;
+    }
+}
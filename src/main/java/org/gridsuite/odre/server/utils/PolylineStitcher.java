@@ -0,0 +1,301 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.dto.PackedCoordinates;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Stitches the segments of a line into polylines.
+ * <p>
+ * Segments are added to an undirected multigraph whose vertices are the distinct coordinates of the segments,
+ * each pair of consecutive coordinates of a segment being an edge. The graph is then split into connected
+ * components, which are walked from one of their ends (vertices with a single incident edge, a loop counting
+ * once) in breadth-first order.
+ * <p>
+ * Coordinates are identified by their index in a {@link CoordinatePool}. Vertices are int ids assigned in order
+ * of appearance, pool indices are mapped to ids with an open-addressing hash table and adjacencies are int arrays,
+ * so that stitching a line does not allocate once the stitcher has grown to the size of the largest line.
+ * A stitcher is meant to be reused from one line to the next, and is not thread safe.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class PolylineStitcher {
+
+    private final CoordinatePool coordinatePool;
+
+    // pool index -> vertex id hash table, a slot is used if it has been used since the last clear
+    private int[] slotKeys = new int[64];
+    private int[] slotVertices = new int[64];
+    private int[] slotGenerations = new int[64];
+    private int generation = 1;
+
+    // pool index of each vertex
+    private int[] vertexCoordinates = new int[32];
+    private int vertexCount;
+
+    // edges, in insertion order
+    private int[] edgeSources = new int[64];
+    private int[] edgeTargets = new int[64];
+    private int edgeCount;
+
+    // adjacency, neighbors of vertex v being adjacency[adjacencyStarts[v]] to adjacency[adjacencyStarts[v + 1] - 1]
+    private int[] adjacencyStarts = new int[33];
+    private int[] adjacency = new int[64];
+
+    // connected components
+    private int[] componentFirstEnds = new int[8];
+    private int[] componentEndCounts = new int[8];
+    private int componentCount;
+
+    // breadth-first traversal
+    private int[] queue = new int[32];
+    private int[] visitedGenerations = new int[32];
+    private int visitGeneration;
+
+    public PolylineStitcher(CoordinatePool coordinatePool) {
+        this.coordinatePool = Objects.requireNonNull(coordinatePool);
+    }
+
+    /**
+     * Remove all the segments.
+     */
+    public void clear() {
+        vertexCount = 0;
+        edgeCount = 0;
+        componentCount = 0;
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(slotGenerations, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Add a segment, given as a part of the segments of a line.
+     */
+    public void addSegment(PooledSegments segments, int part) {
+        int previousVertex = -1;
+        for (int i = segments.getPartStart(part); i < segments.getPartEnd(part); i++) {
+            int vertex = getOrAddVertex(segments.get(i));
+            if (previousVertex >= 0) {
+                addEdge(previousVertex, vertex);
+            }
+            previousVertex = vertex;
+        }
+        componentCount = -1;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int getOrAddVertex(int coordinate) {
+        int mask = slotVertices.length - 1;
+        int slot = hash(coordinate) & mask;
+        while (slotGenerations[slot] == generation) {
+            if (slotKeys[slot] == coordinate) {
+                return slotVertices[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        int vertex = vertexCount++;
+        if (vertexCount > vertexCoordinates.length) {
+            vertexCoordinates = Arrays.copyOf(vertexCoordinates, 2 * vertexCount);
+        }
+        vertexCoordinates[vertex] = coordinate;
+        slotGenerations[slot] = generation;
+        slotKeys[slot] = coordinate;
+        slotVertices[slot] = vertex;
+        // keep the load factor under 1/2
+        if (2 * vertexCount > slotVertices.length) {
+            rehash();
+        }
+        return vertex;
+    }
+
+    private void rehash() {
+        int capacity = 2 * slotVertices.length;
+        slotKeys = new int[capacity];
+        slotVertices = new int[capacity];
+        slotGenerations = new int[capacity];
+        int mask = capacity - 1;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int slot = hash(vertexCoordinates[vertex]) & mask;
+            while (slotGenerations[slot] == generation) {
+                slot = (slot + 1) & mask;
+            }
+            slotGenerations[slot] = generation;
+            slotKeys[slot] = vertexCoordinates[vertex];
+            slotVertices[slot] = vertex;
+        }
+    }
+
+    private void addEdge(int source, int target) {
+        if (edgeCount == edgeSources.length) {
+            edgeSources = Arrays.copyOf(edgeSources, 2 * edgeCount);
+            edgeTargets = Arrays.copyOf(edgeTargets, 2 * edgeCount);
+        }
+        edgeSources[edgeCount] = source;
+        edgeTargets[edgeCount] = target;
+        edgeCount++;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    private void buildAdjacency() {
+        if (adjacencyStarts.length < vertexCount + 1) {
+            adjacencyStarts = new int[2 * vertexCount + 1];
+        }
+        Arrays.fill(adjacencyStarts, 0, vertexCount + 1, 0);
+        // degrees, a loop being a single neighbor of its vertex
+        for (int edge = 0; edge < edgeCount; edge++) {
+            adjacencyStarts[edgeSources[edge] + 1]++;
+            if (edgeSources[edge] != edgeTargets[edge]) {
+                adjacencyStarts[edgeTargets[edge] + 1]++;
+            }
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            adjacencyStarts[vertex + 1] += adjacencyStarts[vertex];
+        }
+        if (adjacency.length < adjacencyStarts[vertexCount]) {
+            adjacency = new int[2 * adjacencyStarts[vertexCount]];
+        }
+        // neighbors in order of edge insertion, the traversal queue being used for the fill positions
+        if (queue.length < vertexCount) {
+            queue = new int[2 * vertexCount];
+        }
+        int[] positions = queue;
+        System.arraycopy(adjacencyStarts, 0, positions, 0, vertexCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int source = edgeSources[edge];
+            int target = edgeTargets[edge];
+            adjacency[positions[source]++] = target;
+            if (source != target) {
+                adjacency[positions[target]++] = source;
+            }
+        }
+    }
+
+    private int degree(int vertex) {
+        return adjacencyStarts[vertex + 1] - adjacencyStarts[vertex];
+    }
+
+    private void startVisit() {
+        if (visitedGenerations.length < vertexCount) {
+            visitedGenerations = new int[2 * vertexCount];
+            visitGeneration = 0;
+        }
+        visitGeneration++;
+        if (visitGeneration == Integer.MAX_VALUE) {
+            Arrays.fill(visitedGenerations, 0);
+            visitGeneration = 1;
+        }
+        if (queue.length < vertexCount) {
+            queue = new int[2 * vertexCount];
+        }
+    }
+
+    /**
+     * Breadth-first traversal from a vertex, the visited vertices being left in the queue.
+     *
+     * @return the number of visited vertices
+     */
+    private int visit(int start) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visitedGenerations[start] = visitGeneration;
+        while (head < tail) {
+            int vertex = queue[head++];
+            for (int i = adjacencyStarts[vertex]; i < adjacencyStarts[vertex + 1]; i++) {
+                int neighbor = adjacency[i];
+                if (visitedGenerations[neighbor] != visitGeneration) {
+                    visitedGenerations[neighbor] = visitGeneration;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Split the segments into connected components, in order of their first vertex.
+     *
+     * @return the number of connected components
+     */
+    public int findComponents() {
+        buildAdjacency();
+        startVisit();
+        componentCount = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (visitedGenerations[vertex] == visitGeneration) {
+                continue;
+            }
+            if (componentCount == componentFirstEnds.length) {
+                componentFirstEnds = Arrays.copyOf(componentFirstEnds, 2 * componentCount);
+                componentEndCounts = Arrays.copyOf(componentEndCounts, 2 * componentCount);
+            }
+            int visitedCount = visit(vertex);
+            int firstEnd = Integer.MAX_VALUE;
+            int endCount = 0;
+            for (int i = 0; i < visitedCount; i++) {
+                int visited = queue[i];
+                if (degree(visited) == 1) {
+                    endCount++;
+                    firstEnd = Math.min(firstEnd, visited);
+                }
+            }
+            componentFirstEnds[componentCount] = firstEnd;
+            componentEndCounts[componentCount] = endCount;
+            componentCount++;
+        }
+        return componentCount;
+    }
+
+    /**
+     * @return the number of ends of a connected component, a simple polyline having two ends
+     */
+    public int getEndCount(int component) {
+        checkComponent(component);
+        return componentEndCounts[component];
+    }
+
+    /**
+     * @return the coordinates of a connected component in breadth-first order from its first end,
+     * which for a simple polyline is the order of its points from one end to the other
+     */
+    public PackedCoordinates walk(int component) {
+        checkComponent(component);
+        if (componentEndCounts[component] == 0) {
+            throw new IllegalStateException("Component " + component + " has no end");
+        }
+        startVisit();
+        int visitedCount = visit(componentFirstEnds[component]);
+        double[] latLon = new double[2 * visitedCount];
+        for (int i = 0; i < visitedCount; i++) {
+            int coordinate = vertexCoordinates[queue[i]];
+            latLon[2 * i] = coordinatePool.getLat(coordinate);
+            latLon[2 * i + 1] = coordinatePool.getLon(coordinate);
+        }
+        return new PackedCoordinates(latLon);
+    }
+
+    private void checkComponent(int component) {
+        if (componentCount < 0) {
+            throw new IllegalStateException("Components have not been computed since the last segment was added");
+        }
+        if (component < 0 || component >= componentCount) {
+            throw new IndexOutOfBoundsException("Component " + component + " out of " + componentCount);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Segments of a line, stored as the indices of their coordinates in a {@link CoordinatePool}.
+ * Like in a {@link CoordinateBuffer}, the indices are split into parts, one per segment.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class PooledSegments {
+
+    private int[] indices;
+
+    private int size;
+
+    private int[] partEnds = new int[4];
+
+    private int partCount;
+
+    public PooledSegments() {
+        this(16);
+    }
+
+    public PooledSegments(int expectedSize) {
+        indices = new int[Math.max(1, expectedSize)];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > indices.length) {
+            indices = Arrays.copyOf(indices, Math.max(capacity, 2 * indices.length));
+        }
+    }
+
+    private void endPart() {
+        if (partCount == partEnds.length) {
+            partEnds = Arrays.copyOf(partEnds, 2 * partCount);
+        }
+        partEnds[partCount++] = size;
+    }
+
+    /**
+     * Add a segment given by the pool indices of its coordinates. Nothing is done if the segment is empty.
+     */
+    public void addPart(int[] segmentIndices, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        ensureCapacity(size + to - from);
+        System.arraycopy(segmentIndices, from, indices, size, to - from);
+        size += to - from;
+        endPart();
+    }
+
+    /**
+     * Add all the segments of another line, whose indices refer to the same pool.
+     */
+    public void addParts(PooledSegments other) {
+        for (int part = 0; part < other.partCount; part++) {
+            addPart(other.indices, other.getPartStart(part), other.getPartEnd(part));
+        }
+    }
+
+    /**
+     * Replace each index by the given function of it, to move the segments to another pool.
+     */
+    void remap(IntUnaryOperator mapping) {
+        for (int i = 0; i < size; i++) {
+            indices[i] = mapping.applyAsInt(indices[i]);
+        }
+    }
+
+    /**
+     * @return the number of coordinates of all the segments
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getPartCount() {
+        return partCount;
+    }
+
+    public int getPartStart(int part) {
+        return part == 0 ? 0 : partEnds[part - 1];
+    }
+
+    public int getPartEnd(int part) {
+        return partEnds[part];
+    }
+
+    /**
+     * @return the pool index of a coordinate
+     */
+    public int get(int i) {
+        return indices[i];
+    }
+}
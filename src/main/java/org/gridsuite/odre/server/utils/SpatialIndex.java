@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Static R-tree of bounding boxes, bulk-loaded with the Sort-Tile-Recursive algorithm.
+ * <p>
+ * At each level, the boxes are sorted by the longitude of their center, cut into vertical slices and sorted by the
+ * latitude of their center within each slice, then grouped by {@link #NODE_SIZE} into the nodes of the level above.
+ * Nodes are packed in primitive arrays, level by level from the entries up to the root: the box of the node at
+ * position p is {@code boxes[4 * p]} to {@code boxes[4 * p + 3]}, as min latitude, min longitude, max latitude and
+ * max longitude, and {@code children[p]} is the id of an entry or the position of the first child of a node.
+ * The index does not change once built and may be queried concurrently.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class SpatialIndex {
+
+    public static final int NODE_SIZE = 16;
+
+    public static final SpatialIndex EMPTY = new SpatialIndex(new double[0]);
+
+    private final int size;
+
+    private final double[] boxes;
+
+    private final int[] children;
+
+    // end position of each level, the entries being the level 0
+    private final int[] levelEnds;
+
+    /**
+     * @param entryBoxes box of each entry, its id being its position, as min latitude, min longitude,
+     *                   max latitude and max longitude
+     */
+    public SpatialIndex(double[] entryBoxes) {
+        if (entryBoxes.length % 4 != 0) {
+            throw new IllegalArgumentException("Bounding boxes are expected by 4 values");
+        }
+        size = entryBoxes.length / 4;
+        int levelCount = 1;
+        int nodeCount = size;
+        for (int levelSize = size; levelSize > 1; levelSize = (levelSize + NODE_SIZE - 1) / NODE_SIZE) {
+            levelCount++;
+            nodeCount += (levelSize + NODE_SIZE - 1) / NODE_SIZE;
+        }
+        boxes = new double[4 * nodeCount];
+        children = new int[nodeCount];
+        levelEnds = new int[size > 1 ? levelCount : 1];
+
+        // entries
+        int[] order = sortTileRecursive(entryBoxes, size);
+        for (int position = 0; position < size; position++) {
+            System.arraycopy(entryBoxes, 4 * order[position], boxes, 4 * position, 4);
+            children[position] = order[position];
+        }
+        levelEnds[0] = size;
+
+        // nodes, each one covering the next NODE_SIZE positions of the level below
+        int levelStart = 0;
+        for (int level = 1; level < levelEnds.length; level++) {
+            int levelEnd = levelEnds[level - 1];
+            int parentCount = (levelEnd - levelStart + NODE_SIZE - 1) / NODE_SIZE;
+            double[] parentBoxes = new double[4 * parentCount];
+            for (int parent = 0; parent < parentCount; parent++) {
+                int childStart = levelStart + parent * NODE_SIZE;
+                union(boxes, childStart, Math.min(childStart + NODE_SIZE, levelEnd), parentBoxes, parent);
+            }
+            int[] parentOrder = sortTileRecursive(parentBoxes, parentCount);
+            for (int i = 0; i < parentCount; i++) {
+                System.arraycopy(parentBoxes, 4 * parentOrder[i], boxes, 4 * (levelEnd + i), 4);
+                children[levelEnd + i] = levelStart + parentOrder[i] * NODE_SIZE;
+            }
+            levelStart = levelEnd;
+            levelEnds[level] = levelEnd + parentCount;
+        }
+    }
+
+    private static void union(double[] boxes, int start, int end, double[] target, int targetPosition) {
+        double minLat = Double.POSITIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+            minLat = Math.min(minLat, boxes[4 * i]);
+            minLon = Math.min(minLon, boxes[4 * i + 1]);
+            maxLat = Math.max(maxLat, boxes[4 * i + 2]);
+            maxLon = Math.max(maxLon, boxes[4 * i + 3]);
+        }
+        target[4 * targetPosition] = minLat;
+        target[4 * targetPosition + 1] = minLon;
+        target[4 * targetPosition + 2] = maxLat;
+        target[4 * targetPosition + 3] = maxLon;
+    }
+
+    /**
+     * @return the positions of the boxes in the Sort-Tile-Recursive order
+     */
+    private static int[] sortTileRecursive(double[] boxes, int count) {
+        int nodeCount = (count + NODE_SIZE - 1) / NODE_SIZE;
+        int sliceSize = (int) Math.ceil(Math.sqrt(nodeCount)) * NODE_SIZE;
+        // positions are sorted along with their key, packed in the low bits of a long
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = sortKey((boxes[4 * i + 1] + boxes[4 * i + 3]) / 2, i);
+        }
+        Arrays.sort(keys);
+        for (int sliceStart = 0; sliceStart < count; sliceStart += sliceSize) {
+            int sliceEnd = Math.min(sliceStart + sliceSize, count);
+            for (int i = sliceStart; i < sliceEnd; i++) {
+                int position = (int) keys[i];
+                keys[i] = sortKey((boxes[4 * position] + boxes[4 * position + 2]) / 2, position);
+            }
+            Arrays.sort(keys, sliceStart, sliceEnd);
+        }
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    /**
+     * @return a long ordered as the value, to the precision of a float, then as the position
+     */
+    private static long sortKey(double value, int position) {
+        int bits = Float.floatToIntBits((float) value);
+        // negative floats are ordered in reverse of their bits
+        bits ^= (bits >> 31) & 0x7fffffff;
+        return ((long) bits << 32) | position;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Hand to the consumer the id of each entry whose box intersects the given box, borders included.
+     */
+    public void query(double minLat, double minLon, double maxLat, double maxLon, IntConsumer entryConsumer) {
+        if (size == 0) {
+            return;
+        }
+        int root = boxes.length / 4 - 1;
+        query(root, levelEnds.length - 1, minLat, minLon, maxLat, maxLon, entryConsumer);
+    }
+
+    private void query(int position, int level, double minLat, double minLon, double maxLat, double maxLon, IntConsumer entryConsumer) {
+        if (boxes[4 * position] > maxLat || boxes[4 * position + 1] > maxLon
+                || boxes[4 * position + 2] < minLat || boxes[4 * position + 3] < minLon) {
+            return;
+        }
+        if (level == 0) {
+            entryConsumer.accept(children[position]);
+            return;
+        }
+        int childStart = children[position];
+        int childEnd = Math.min(childStart + NODE_SIZE, levelEnds[level - 1]);
+        for (int child = childStart; child < childEnd; child++) {
+            query(child, level - 1, minLat, minLon, maxLat, maxLon, entryConsumer);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.dto.SubstationGeoData;
+
+import java.util.Collection;
+
+/**
+ * Static 2-d tree of substations, to find the nearest substation to a point.
+ * <p>
+ * The tree is implicit: substations are reordered in place so that the middle of each range splits it on latitude
+ * or longitude, alternately, the ranges of at most {@link #LEAF_SIZE} substations being scanned. Distances are
+ * measured on a plane tangent to the earth at the queried point, as in {@link DistanceCalculator#distanceToSegment},
+ * which is accurate for distances of a few kilometers. A nearest neighbor search visits O(log n) nodes on average.
+ * The tree does not change once built and may be queried concurrently.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class SubstationKdTree {
+
+    static final int LEAF_SIZE = 8;
+
+    private static final double METERS_PER_DEGREE_LAT = Math.toRadians(DistanceCalculator.EARTH_RADIUS);
+
+    private final String[] ids;
+
+    private final double[] lats;
+
+    private final double[] lons;
+
+    public SubstationKdTree(Collection<SubstationGeoData> substations) {
+        int size = substations.size();
+        ids = new String[size];
+        lats = new double[size];
+        lons = new double[size];
+        int i = 0;
+        for (SubstationGeoData substation : substations) {
+            ids[i] = substation.getId();
+            lats[i] = substation.getCoordinate().getLat();
+            lons[i] = substation.getCoordinate().getLon();
+            i++;
+        }
+        build(0, size - 1, true);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    private void build(int left, int right, boolean byLat) {
+        if (right - left < LEAF_SIZE) {
+            return;
+        }
+        int middle = (left + right) >>> 1;
+        select(middle, left, right, byLat ? lats : lons);
+        build(left, middle - 1, !byLat);
+        build(middle + 1, right, !byLat);
+    }
+
+    /**
+     * Reorder the range so that the k-th substation is the one it would be if the range were sorted on the given
+     * coordinates, the ones before being lower or equal and the ones after greater or equal (Hoare's selection).
+     */
+    private void select(int k, int left, int right, double[] coordinates) {
+        int l = left;
+        int r = right;
+        while (l < r) {
+            double pivot = coordinates[(l + r) >>> 1];
+            int i = l;
+            int j = r;
+            while (i <= j) {
+                while (coordinates[i] < pivot) {
+                    i++;
+                }
+                while (coordinates[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                r = j;
+            } else if (k >= i) {
+                l = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        String id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double lat = lats[i];
+        lats[i] = lats[j];
+        lats[j] = lat;
+        double lon = lons[i];
+        lons[i] = lons[j];
+        lons[j] = lon;
+    }
+
+    /**
+     * @param maxDistance maximum distance in meters
+     * @param excludedId id of a substation not to be found, or null
+     * @return the id of the nearest substation to the point within the maximum distance, other than the excluded one,
+     * or null if there is none
+     */
+    public String nearest(double lat, double lon, double maxDistance, String excludedId) {
+        Search search = new Search(lat, lon, maxDistance, excludedId);
+        search.visit(0, ids.length - 1, true);
+        return search.nearest >= 0 ? ids[search.nearest] : null;
+    }
+
+    /**
+     * State of a nearest neighbor search, distances being squared and in meters.
+     */
+    private final class Search {
+
+        private final double lat;
+        private final double lon;
+        private final double metersPerDegreeLon;
+        private final String excludedId;
+        private double nearestDistance;
+        private int nearest = -1;
+
+        private Search(double lat, double lon, double maxDistance, String excludedId) {
+            this.lat = lat;
+            this.lon = lon;
+            this.metersPerDegreeLon = METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(lat));
+            this.excludedId = excludedId;
+            this.nearestDistance = maxDistance * maxDistance;
+        }
+
+        private void visit(int left, int right, boolean byLat) {
+            if (right - left < LEAF_SIZE) {
+                for (int i = left; i <= right; i++) {
+                    check(i);
+                }
+                return;
+            }
+            int middle = (left + right) >>> 1;
+            check(middle);
+            double delta = byLat ? (lat - lats[middle]) * METERS_PER_DEGREE_LAT : (lon - lons[middle]) * metersPerDegreeLon;
+            // the side of the point first, the other side only if it may be nearer than the nearest found so far
+            if (delta < 0) {
+                visit(left, middle - 1, !byLat);
+                if (delta * delta <= nearestDistance) {
+                    visit(middle + 1, right, !byLat);
+                }
+            } else {
+                visit(middle + 1, right, !byLat);
+                if (delta * delta <= nearestDistance) {
+                    visit(left, middle - 1, !byLat);
+                }
+            }
+        }
+
+        private void check(int i) {
+            double dy = (lats[i] - lat) * METERS_PER_DEGREE_LAT;
+            double dx = (lons[i] - lon) * metersPerDegreeLon;
+            double distance = dx * dx + dy * dy;
+            if (distance <= nearestDistance && !ids[i].equals(excludedId)) {
+                nearestDistance = distance;
+                nearest = i;
+            }
+        }
+    }
+}
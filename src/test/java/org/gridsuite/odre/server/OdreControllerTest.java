@@ -6,29 +6,48 @@
  */
 package org.gridsuite.odre.server;
 
+import com.jayway.jsonpath.JsonPath;
 import org.apache.commons.io.IOUtils;
+import org.gridsuite.odre.server.dto.Coordinate;
+import org.gridsuite.odre.server.dto.FileUploadResponse;
+import org.gridsuite.odre.server.dto.GeoDataSelection;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.services.ImportJobService;
 import org.gridsuite.odre.server.services.OdreService;
+import org.gridsuite.odre.server.utils.ImportProgress;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.util.ResourceUtils;
 
 import java.io.FileInputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
  */
 @WebMvcTest(OdreController.class)
-@ContextConfiguration(classes = {OdreApplication.class, OdreSwaggerConfig.class})
+@ContextConfiguration(classes = {OdreApplication.class, OdreSwaggerConfig.class, ImportJobService.class})
 class OdreControllerTest {
 
     @Autowired
@@ -78,4 +97,106 @@ class OdreControllerTest {
         mvc.perform(multipart("/" + OdreController.API_VERSION + "/lines").file(substationsFile).file(aerialLinesFile).file(undergroundLinesFile).file(undergroundLinesFile))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void testFullPush() throws Exception {
+        mvc.perform(post("/" + OdreController.API_VERSION + "/lines")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk());
+        Mockito.verify(odreService).pushLines(false, false, null);
+
+        mvc.perform(post("/" + OdreController.API_VERSION + "/lines")
+                .param("fullPush", "true")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk());
+        Mockito.verify(odreService).pushLines(true, false, null);
+    }
+
+    @Test
+    void testSimplifiedPush() throws Exception {
+        mvc.perform(post("/" + OdreController.API_VERSION + "/lines")
+                .param("simplify", "true")
+                .param("tolerance", "25")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk());
+        Mockito.verify(odreService).pushLines(false, true, 25.0);
+    }
+
+    @Test
+    void testAsyncImport() throws Exception {
+        MvcResult submitted = mvc.perform(post("/" + OdreController.API_VERSION + "/lines")
+                .param("fullPush", "true")
+                .param("async", "true")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.type").value("lines"))
+                .andReturn();
+        String id = JsonPath.read(submitted.getResponse().getContentAsString(), "$.id");
+        Mockito.verify(odreService, Mockito.timeout(10000)).pushLines(eq(true), eq(false), isNull(), any(ImportProgress.class));
+
+        long deadline = System.currentTimeMillis() + 10000;
+        String state;
+        do {
+            String status = mvc.perform(get("/" + OdreController.API_VERSION + "/jobs/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            state = JsonPath.read(status, "$.state");
+        } while (!"SUCCEEDED".equals(state) && System.currentTimeMillis() < deadline);
+        assertTrue("SUCCEEDED".equals(state));
+        mvc.perform(get("/" + OdreController.API_VERSION + "/jobs/" + id))
+                .andExpect(jsonPath("$.result.status").value(200));
+
+        mvc.perform(post("/" + OdreController.API_VERSION + "/substations")
+                .param("async", "true")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isAccepted());
+        Mockito.verify(odreService, Mockito.timeout(10000)).pushSubstations(eq(false), any(ImportProgress.class));
+
+        mvc.perform(get("/" + OdreController.API_VERSION + "/jobs/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSnapshot() throws Exception {
+        LineGeoData line = new LineGeoData("line1", "FR", "FR", "substation1", "substation2", List.of(new Coordinate(1, 2), new Coordinate(3, 4)));
+        Mockito.when(odreService.getLines()).thenReturn(List.of(line));
+        Mockito.when(odreService.getLine("line1")).thenReturn(Optional.of(line));
+        Mockito.when(odreService.repushLines()).thenReturn(new FileUploadResponse(200, "List of lines updated successfully"));
+        Mockito.when(odreService.repushSubstations()).thenReturn(new FileUploadResponse(404, "No substations imported yet!"));
+
+        mvc.perform(get("/" + OdreController.API_VERSION + "/lines"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("line1"))
+                .andExpect(jsonPath("$[0].coordinates[1].lon").value(4.0));
+        mvc.perform(get("/" + OdreController.API_VERSION + "/lines/line1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.substationEnd").value("substation2"));
+        mvc.perform(get("/" + OdreController.API_VERSION + "/lines/line2"))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/" + OdreController.API_VERSION + "/substations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+        mvc.perform(get("/" + OdreController.API_VERSION + "/substations/substation1"))
+                .andExpect(status().isNotFound());
+
+        mvc.perform(post("/" + OdreController.API_VERSION + "/lines/repush"))
+                .andExpect(status().isOk());
+        mvc.perform(post("/" + OdreController.API_VERSION + "/substations/repush"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGeoData() throws Exception {
+        LineGeoData line = new LineGeoData("line1", "FR", "FR", "substation1", "substation2", List.of(new Coordinate(1, 2), new Coordinate(3, 4)));
+        Mockito.when(odreService.getGeoData(1, 2, 3, 4)).thenReturn(new GeoDataSelection(List.of(line), List.of()));
+        mvc.perform(get("/" + OdreController.API_VERSION + "/geo-data")
+                .param("minLat", "1").param("minLon", "2").param("maxLat", "3").param("maxLon", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lines[0].id").value("line1"))
+                .andExpect(jsonPath("$.substations").isEmpty());
+        mvc.perform(get("/" + OdreController.API_VERSION + "/geo-data")
+                .param("minLat", "3").param("minLon", "2").param("maxLat", "1").param("maxLon", "4"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -6,14 +6,24 @@
  */
 package org.gridsuite.odre.server.client;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.gridsuite.odre.server.dto.Coordinate;
 import org.gridsuite.odre.server.dto.LineGeoData;
 import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.gridsuite.odre.server.utils.CoordinatePool;
+import org.gridsuite.odre.server.utils.CsvTokenizer;
 import org.gridsuite.odre.server.utils.GeographicDataParser;
+import org.gridsuite.odre.server.utils.ImportMetrics;
+import org.gridsuite.odre.server.utils.InputUtils;
+import org.gridsuite.odre.server.utils.LineSegments;
+import org.gridsuite.odre.server.utils.ParsingOptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -21,20 +31,42 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.util.ResourceUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
 import java.io.FileInputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
@@ -42,12 +74,17 @@ import static org.mockito.BDDMockito.given;
 @SpringBootTest
 class OdreClientImplTest {
 
+    private static final String DATASET_ETAG = "\"v1\"";
+
     @MockitoBean
     private RestTemplate openDataRest;
 
     @Autowired
     private RestTemplateBuilder restTemplateBuilder;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() throws Exception {
         byte[] aerialLinesBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:lignes-aeriennes-rte.csv")));
@@ -71,11 +108,38 @@ class OdreClientImplTest {
                 eq(HttpMethod.GET),
                 any(HttpEntity.class),
                 eq(byte[].class))).willReturn(new ResponseEntity<>(undergroundLinesBytes, HttpStatus.OK));
+
+        // the download client streams the datasets to files through execute
+        givenDataset("/explore/dataset/postes-electriques-rte/download/?format=csv", substationsBytes);
+        givenDataset("/explore/dataset/lignes-aeriennes-rte/download/?format=csv", aerialLinesBytes);
+        givenDataset("/explore/dataset/lignes-souterraines-rte/download/?format=csv", undergroundLinesBytes);
+    }
+
+    private void givenDataset(String uri, byte[] content) {
+        given(openDataRest.execute(
+                eq(uri),
+                eq(HttpMethod.GET),
+                any(),
+                any())).willAnswer(invocation -> {
+                    MockClientHttpRequest request = new MockClientHttpRequest();
+                    RequestCallback requestCallback = invocation.getArgument(2);
+                    if (requestCallback != null) {
+                        requestCallback.doWithRequest(request);
+                    }
+                    MockClientHttpResponse response;
+                    if (request.getHeaders().getIfNoneMatch().contains(DATASET_ETAG)) {
+                        response = new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+                    } else {
+                        response = new MockClientHttpResponse(content, HttpStatus.OK);
+                        response.getHeaders().setETag(DATASET_ETAG);
+                    }
+                    return invocation.<ResponseExtractor<?>>getArgument(3).extractData(response);
+                });
     }
 
     @Test
     void testDownloadClientImpl() {
-        OdreDownloadClientImpl odreOpenDataClientImpl = new OdreDownloadClientImpl(restTemplateBuilder);
+        OdreDownloadClientImpl odreOpenDataClientImpl = new OdreDownloadClientImpl(restTemplateBuilder, 3, "", 0, 2, 0, meterRegistry);
         odreOpenDataClientImpl.setOpenDataRest(openDataRest);
 
         List<LineGeoData> linesGeoData = odreOpenDataClientImpl.getLines();
@@ -85,6 +149,92 @@ class OdreClientImplTest {
         checkContent(linesGeoData, substationGeoData);
     }
 
+    @Test
+    void testDownloadTimers() {
+        OdreDownloadClientImpl odreOpenDataClientImpl = new OdreDownloadClientImpl(restTemplateBuilder, 3, "", 0, 0, 0, meterRegistry);
+        odreOpenDataClientImpl.setOpenDataRest(openDataRest);
+
+        odreOpenDataClientImpl.getLines();
+        // one download timer per dataset
+        assertEquals(3, meterRegistry.find("odre.download").timers().size());
+        // one of the coordinates of the test files is shared by two segments
+        assertTrue(meterRegistry.get("odre.coordinates.deduplication.ratio").summary().max() > 0);
+        odreOpenDataClientImpl.destroy();
+    }
+
+    @Test
+    void testDownloadImportMetrics() {
+        SimpleMeterRegistry importMeterRegistry = new SimpleMeterRegistry();
+        OdreDownloadClientImpl odreOpenDataClientImpl = new OdreDownloadClientImpl(restTemplateBuilder, 3, "", 0, 0, 0, importMeterRegistry);
+        odreOpenDataClientImpl.setOpenDataRest(openDataRest);
+
+        List<LineGeoData> linesGeoData = odreOpenDataClientImpl.getLines();
+        odreOpenDataClientImpl.getSubstations();
+
+        for (String stage : List.of(ImportMetrics.DOWNLOAD_STAGE, ImportMetrics.SUBSTATIONS_PARSE_STAGE, ImportMetrics.LINES_PARSE_STAGE, ImportMetrics.ASSEMBLY_STAGE)) {
+            assertTrue(importMeterRegistry.get("odre.import.stage").tag("stage", stage).tag("source", ImportMetrics.DOWNLOAD_SOURCE).timer().count() > 0);
+        }
+        assertEquals(linesGeoData.size(), importMeterRegistry.find("odre.import.lines").tag("result", ImportMetrics.ASSEMBLED)
+                .tag("source", ImportMetrics.DOWNLOAD_SOURCE).counters().stream().mapToDouble(Counter::count).sum());
+        // the three datasets of the lines, then the substations dataset again
+        assertEquals(4, importMeterRegistry.get("odre.import.payload.bytes").tag("source", ImportMetrics.DOWNLOAD_SOURCE).summary().count());
+        assertTrue(importMeterRegistry.get("odre.import.payload.bytes").tag("source", ImportMetrics.DOWNLOAD_SOURCE).summary().totalAmount() > 0);
+        long unresolvedEnds = linesGeoData.stream().filter(line -> line.getSubstationStart().isEmpty()).count()
+                + linesGeoData.stream().filter(line -> line.getSubstationEnd().isEmpty()).count();
+        assertEquals(unresolvedEnds, importMeterRegistry.get("odre.import.substation.ends.unresolved").tag("source", ImportMetrics.DOWNLOAD_SOURCE).counter().count());
+        odreOpenDataClientImpl.destroy();
+    }
+
+    @Test
+    void testDownloadFailure() throws Exception {
+        OdreDownloadClientImpl odreOpenDataClientImpl = new OdreDownloadClientImpl(restTemplateBuilder, 3, "", 0, 0, 0, meterRegistry);
+        odreOpenDataClientImpl.setOpenDataRest(openDataRest);
+        willThrow(new RestClientException("Substations unavailable")).given(openDataRest)
+                .execute(eq("/explore/dataset/postes-electriques-rte/download/?format=csv"), eq(HttpMethod.GET), any(), any());
+        CountDownLatch released = new CountDownLatch(1);
+        CountDownLatch aerialLinesDone = new CountDownLatch(1);
+        AtomicReference<Throwable> aerialLinesFailure = new AtomicReference<>();
+        willAnswer(invocation -> {
+            try {
+                assertTrue(released.await(10, TimeUnit.SECONDS));
+                return invocation.<ResponseExtractor<?>>getArgument(3).extractData(new MockClientHttpResponse(new byte[] {'a'}, HttpStatus.OK));
+            } catch (Throwable t) {
+                aerialLinesFailure.set(t);
+                throw t;
+            } finally {
+                aerialLinesDone.countDown();
+            }
+        }).given(openDataRest).execute(eq("/explore/dataset/lignes-aeriennes-rte/download/?format=csv"), eq(HttpMethod.GET), any(), any());
+
+        // the failure is reported without waiting for the aerial lines, whose download is then aborted
+        assertThrows(RestClientException.class, () -> odreOpenDataClientImpl.streamLines(line -> { }));
+        assertEquals(1, aerialLinesDone.getCount());
+        released.countDown();
+        assertTrue(aerialLinesDone.await(10, TimeUnit.SECONDS));
+        assertInstanceOf(InterruptedIOException.class, aerialLinesFailure.get());
+        odreOpenDataClientImpl.destroy();
+    }
+
+    @Test
+    void testDownloadClientImplWithCache(@TempDir Path cacheDirectory) throws Exception {
+        OdreDownloadClientImpl odreOpenDataClientImpl = new OdreDownloadClientImpl(restTemplateBuilder, 3, cacheDirectory.toString(), 1024, 0, 0, meterRegistry);
+        odreOpenDataClientImpl.setOpenDataRest(openDataRest);
+
+        // first downloads fill the cache
+        checkContent(odreOpenDataClientImpl.getLines(), odreOpenDataClientImpl.getSubstations());
+        assertTrue(Files.exists(cacheDirectory.resolve("postes-electriques.csv")));
+        assertEquals(0, meterRegistry.find("odre.download.cache").tag("result", "hit").counters().size());
+
+        // next downloads are answered "not modified" and reuse the cached datasets
+        checkContent(odreOpenDataClientImpl.getLines(), odreOpenDataClientImpl.getSubstations());
+        assertEquals(2, meterRegistry.get("odre.download.cache").tag("dataset", "postes-electriques").tag("result", "hit").counter().count());
+        // the checkouts of the cached datasets are deleted once parsed
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".checkout")));
+        }
+        odreOpenDataClientImpl.destroy();
+    }
+
     @Test
     void testCSVClientImpl() throws Exception {
         byte[] aerialLinesBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:lignes-aeriennes-rte.csv")));
@@ -111,6 +261,99 @@ class OdreClientImplTest {
         checkContent(linesGeoDataFromMultipart, substationGeoDataFromMultipart);
     }
 
+    @Test
+    void testParallelAssembly() throws Exception {
+        Map<String, SubstationGeoData> substations;
+        try (BufferedReader reader = InputUtils.toBufferedReader(ResourceUtils.getFile("classpath:postes-electriques-rte.csv").toPath())) {
+            substations = GeographicDataParser.parseSubstations(reader);
+        }
+        Map<String, LineGeoData> sequentialLines = new HashMap<>();
+        GeographicDataParser.assembleLines(readLineSegments(), substations, line -> sequentialLines.put(line.getId(), line), ParsingOptions.DEFAULT);
+
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+        try {
+            // the consumer is only called from the calling thread, never concurrently
+            AtomicInteger calling = new AtomicInteger();
+            Thread callingThread = Thread.currentThread();
+            Map<String, LineGeoData> parallelLines = new HashMap<>();
+            GeographicDataParser.assembleLines(readLineSegments(), substations, line -> {
+                assertSame(callingThread, Thread.currentThread());
+                assertEquals(1, calling.incrementAndGet());
+                parallelLines.put(line.getId(), line);
+                calling.decrementAndGet();
+            }, ParsingOptions.DEFAULT.withAssemblyPool(parallelPool));
+
+            assertEquals(6, sequentialLines.size());
+            assertEquals(sequentialLines.keySet(), parallelLines.keySet());
+            sequentialLines.forEach((id, line) -> {
+                assertEquals(line.getCoordinates(), parallelLines.get(id).getCoordinates());
+                assertEquals(line.getSubstationStart(), parallelLines.get(id).getSubstationStart());
+                assertEquals(line.getSubstationEnd(), parallelLines.get(id).getSubstationEnd());
+            });
+        } finally {
+            parallelPool.shutdown();
+        }
+    }
+
+    @Test
+    void testSubstationSnapping() throws Exception {
+        Map<String, SubstationGeoData> substations;
+        try (BufferedReader reader = InputUtils.toBufferedReader(ResourceUtils.getFile("classpath:postes-electriques-rte.csv").toPath())) {
+            substations = GeographicDataParser.parseSubstations(reader);
+        }
+        SimpleMeterRegistry snapMeterRegistry = new SimpleMeterRegistry();
+        ParsingOptions options = ParsingOptions.DEFAULT.withMetrics(new ImportMetrics(snapMeterRegistry, ImportMetrics.UPLOAD_SOURCE));
+
+        // none of the substations of the test lines is in the test files, and snapping is disabled by default
+        Map<String, LineGeoData> lines = new HashMap<>();
+        GeographicDataParser.assembleLines(readLineSegments(), substations, line -> lines.put(line.getId(), line), options);
+        assertEquals(12, snapMeterRegistry.get("odre.import.substation.ends.unresolved").counter().count());
+        assertEquals(0, snapMeterRegistry.get("odre.import.substation.ends.snapped").counter().count());
+
+        // V.POR is 27 km away from the start of PALUNL31ROUS5 and 28 km away from its end, the other substations are further:
+        // the start is snapped to it, and the end is not since both ends of a line are never snapped to the same substation
+        lines.clear();
+        GeographicDataParser.assembleLines(readLineSegments(), substations, line -> lines.put(line.getId(), line), options.withSubstationSnapDistance(50_000));
+        assertEquals("V.POR", lines.get("PALUNL31ROUS5").getSubstationStart());
+        assertEquals("", lines.get("PALUNL31ROUS5").getSubstationEnd());
+        assertEquals(1, snapMeterRegistry.get("odre.import.substation.ends.snapped").counter().count());
+        assertEquals(12 + 11, snapMeterRegistry.get("odre.import.substation.ends.unresolved").counter().count());
+
+        // all the ends are snapped within 500 km, in parallel as well
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+        try {
+            lines.clear();
+            GeographicDataParser.assembleLines(readLineSegments(), substations, line -> lines.put(line.getId(), line),
+                    options.withSubstationSnapDistance(500_000).withAssemblyPool(parallelPool));
+        } finally {
+            parallelPool.shutdown();
+        }
+        assertEquals(6, lines.size());
+        lines.values().forEach(line -> {
+            assertFalse(line.getSubstationStart().isEmpty());
+            assertFalse(line.getSubstationEnd().isEmpty());
+            assertNotEquals(line.getSubstationStart(), line.getSubstationEnd());
+        });
+        assertEquals(Pair.of("V.POR", "1ONER"), Pair.of(lines.get("PALUNL31ROUS5").getSubstationStart(), lines.get("PALUNL31ROUS5").getSubstationEnd()));
+
+        // both substations of PALUNL31ROUS5 are found but its both ends are nearest to PALUN: the line is left unresolved
+        Map<String, SubstationGeoData> inconsistentSubstations = new HashMap<>(substations);
+        inconsistentSubstations.put("PALUN", new SubstationGeoData("PALUN", "FR", substations.get("V.POR").getCoordinate()));
+        inconsistentSubstations.put("ROUS5", new SubstationGeoData("ROUS5", "FR", new Coordinate(0, 0)));
+        lines.clear();
+        GeographicDataParser.assembleLines(readLineSegments(), inconsistentSubstations, line -> lines.put(line.getId(), line),
+                options.withSubstationSnapDistance(500_000));
+        assertEquals(Pair.of("", ""), Pair.of(lines.get("PALUNL31ROUS5").getSubstationStart(), lines.get("PALUNL31ROUS5").getSubstationEnd()));
+    }
+
+    private static LineSegments readLineSegments() throws Exception {
+        try (CsvTokenizer aerialTokenizer = new CsvTokenizer(InputUtils.toBufferedReader(ResourceUtils.getFile("classpath:lignes-aeriennes-rte.csv").toPath()));
+             CsvTokenizer undergroundTokenizer = new CsvTokenizer(InputUtils.toBufferedReader(ResourceUtils.getFile("classpath:lignes-souterraines-rte.csv").toPath()))) {
+            CoordinatePool coordinatePool = new CoordinatePool();
+            return GeographicDataParser.parseLineSegments(aerialTokenizer, coordinatePool, ParsingOptions.DEFAULT).merge(GeographicDataParser.parseLineSegments(undergroundTokenizer, coordinatePool, ParsingOptions.DEFAULT));
+        }
+    }
+
     private void checkContent(List<LineGeoData> linesGeoData, List<SubstationGeoData> substationGeoData) {
         assertEquals(6, linesGeoData.size());
 
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class OdreDatasetCacheTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testValidators() throws Exception {
+        OdreDatasetCache cache = new OdreDatasetCache(directory, 0);
+        assertEquals(Optional.empty(), cache.getValidators("postes-electriques"));
+
+        OdreDatasetCache.Validators validators = new OdreDatasetCache.Validators("\"v1\"", "Wed, 21 Oct 2026 07:28:00 GMT");
+        Path file = cache.store("postes-electriques", new ByteArrayInputStream(new byte[] {1, 2, 3}), validators);
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(file));
+        assertEquals(Optional.of(validators), cache.getValidators("postes-electriques"));
+        Path reused = cache.reuse("postes-electriques");
+        assertNotEquals(file, reused);
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(reused));
+
+        // without validator, the next download cannot be conditional
+        cache.store("lignes-aeriennes", new ByteArrayInputStream(new byte[] {1}), new OdreDatasetCache.Validators(null, null));
+        assertEquals(Optional.empty(), cache.getValidators("lignes-aeriennes"));
+        assertNull(cache.reuse("lignes-souterraines"));
+    }
+
+    @Test
+    void testCheckouts() throws Exception {
+        OdreDatasetCache cache = new OdreDatasetCache(directory, 4);
+        OdreDatasetCache.Validators validators = new OdreDatasetCache.Validators("\"v1\"", null);
+        cache.store("postes-electriques", new ByteArrayInputStream(new byte[] {1, 2, 3}), validators);
+        Path reused = cache.reuse("postes-electriques");
+
+        // a checkout is left untouched when its dataset is replaced, then evicted
+        cache.store("postes-electriques", new ByteArrayInputStream(new byte[] {4, 5}), validators);
+        assertArrayEquals(new byte[] {4, 5}, Files.readAllBytes(cache.reuse("postes-electriques")));
+        cache.store("lignes-aeriennes", new ByteArrayInputStream(new byte[4]), validators);
+        assertNull(cache.reuse("postes-electriques"));
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(reused));
+
+        // deleting a checkout does not delete its dataset
+        Files.delete(cache.reuse("lignes-aeriennes"));
+        assertArrayEquals(new byte[4], Files.readAllBytes(directory.resolve("lignes-aeriennes.csv")));
+    }
+
+    @Test
+    void testEviction() throws Exception {
+        OdreDatasetCache cache = new OdreDatasetCache(directory, 10);
+        OdreDatasetCache.Validators validators = new OdreDatasetCache.Validators("\"v1\"", null);
+        Path substations = directory.resolve("postes-electriques.csv");
+        Path aerialLines = directory.resolve("lignes-aeriennes.csv");
+        Path undergroundLines = directory.resolve("lignes-souterraines.csv");
+        cache.store("postes-electriques", new ByteArrayInputStream(new byte[4]), validators);
+        cache.store("lignes-aeriennes", new ByteArrayInputStream(new byte[4]), validators);
+        Files.setLastModifiedTime(substations, FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(aerialLines, FileTime.fromMillis(2000));
+
+        // the least recently used dataset is evicted to make room for the new one
+        cache.store("lignes-souterraines", new ByteArrayInputStream(new byte[4]), validators);
+        assertFalse(Files.exists(substations));
+        assertEquals(Optional.empty(), cache.getValidators("postes-electriques"));
+        assertTrue(Files.exists(aerialLines));
+        assertTrue(Files.exists(undergroundLines));
+
+        // a dataset larger than the cache is kept until the next one is stored
+        cache.store("postes-electriques", new ByteArrayInputStream(new byte[20]), validators);
+        assertTrue(Files.exists(substations));
+        assertFalse(Files.exists(aerialLines));
+        assertFalse(Files.exists(undergroundLines));
+    }
+}
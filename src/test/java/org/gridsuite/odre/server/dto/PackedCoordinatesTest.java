@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class PackedCoordinatesTest {
+    @Test
+    void test() {
+        List<Coordinate> coordinates = List.of(new Coordinate(1, 2), new Coordinate(3, 4), new Coordinate(5, 6));
+        PackedCoordinates packedCoordinates = PackedCoordinates.copyOf(coordinates);
+        assertEquals(3, packedCoordinates.size());
+        assertEquals(3, packedCoordinates.getLat(1), 0);
+        assertEquals(4, packedCoordinates.getLon(1), 0);
+        assertEquals(coordinates, packedCoordinates);
+        assertEquals(packedCoordinates, coordinates);
+        assertEquals(coordinates.hashCode(), packedCoordinates.hashCode());
+        assertSame(packedCoordinates, PackedCoordinates.copyOf(packedCoordinates));
+        assertThrows(IndexOutOfBoundsException.class, () -> packedCoordinates.get(3));
+        assertThrows(IllegalArgumentException.class, () -> new PackedCoordinates(new double[3]));
+
+        assertEquals(List.of(new Coordinate(5, 6), new Coordinate(3, 4), new Coordinate(1, 2)), packedCoordinates.reversed());
+        assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4), new Coordinate(5, 6), new Coordinate(7, 8)),
+                packedCoordinates.concat(new PackedCoordinates.Builder(1).add(7, 8).build()));
+        assertTrue(PackedCoordinates.EMPTY.isEmpty());
+    }
+
+    @Test
+    void testHashCode() {
+        assertEquals(new Coordinate(48.8566, -2.3522).hashCode(), new PackedCoordinates(new double[] {48.8566, -2.3522}).get(0).hashCode());
+        List<Coordinate> coordinates = List.of(new Coordinate(48.8566, -2.3522), new Coordinate(-0.0, 0.0), new Coordinate(Double.NaN, 1e-300));
+        assertEquals(coordinates.hashCode(), PackedCoordinates.copyOf(coordinates).hashCode());
+        assertEquals(List.of().hashCode(), PackedCoordinates.EMPTY.hashCode());
+    }
+
+    @Test
+    void testJson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Coordinate> coordinates = List.of(new Coordinate(1.5, 2.25), new Coordinate(48.8566, 2.3522));
+        LineGeoData line = new LineGeoData("l", "FR", "FR", "ALAMO", "CORAL", coordinates);
+        LineGeoData packedLine = new LineGeoData("l", "FR", "FR", "ALAMO", "CORAL", PackedCoordinates.copyOf(coordinates));
+        assertEquals(objectMapper.writeValueAsString(line), objectMapper.writeValueAsString(packedLine));
+    }
+
+    @Test
+    void testPolyline() throws Exception {
+        // example of the encoded polyline algorithm format documentation
+        PackedCoordinates coordinates = new PackedCoordinates(new double[] {38.5, -120.2, 40.7, -120.95, 43.252, -126.453});
+        String polyline = coordinates.toPolyline(5);
+        assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", polyline);
+        assertEquals(coordinates, PackedCoordinates.fromPolyline(polyline, 5));
+        assertEquals("", PackedCoordinates.EMPTY.toPolyline(5));
+        assertTrue(PackedCoordinates.fromPolyline("", 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> PackedCoordinates.fromPolyline("_p~iF~ps|U_ulL", 5));
+        assertThrows(IllegalArgumentException.class, () -> coordinates.toPolyline(11));
+
+        // close points are rounded to the precision
+        PackedCoordinates pylons = new PackedCoordinates(new double[] {48.8566123, 2.3522456, 48.8566789, 2.3521987});
+        PackedCoordinates decoded = PackedCoordinates.fromPolyline(pylons.toPolyline(6), 6);
+        for (int i = 0; i < pylons.size(); i++) {
+            assertEquals(pylons.getLat(i), decoded.getLat(i), 1e-6);
+            assertEquals(pylons.getLon(i), decoded.getLon(i), 1e-6);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        LineGeoData line = new LineGeoData("l", "FR", "FR", "ALAMO", "CORAL", coordinates);
+        String json = objectMapper.writer().withAttribute(PackedCoordinates.POLYLINE_PRECISION_ATTRIBUTE, 5).writeValueAsString(line);
+        assertEquals(polyline, objectMapper.readTree(json).get("coordinates").asText());
+    }
+}
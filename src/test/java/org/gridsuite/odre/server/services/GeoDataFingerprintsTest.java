@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gridsuite.odre.server.dto.Coordinate;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class GeoDataFingerprintsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final GeoDataFingerprints fingerprints = new GeoDataFingerprints(meterRegistry);
+
+    private static LineGeoData line(String id, String substationEnd, Coordinate... coordinates) {
+        return new LineGeoData(id, "FR", "FR", "substation1", substationEnd, List.of(coordinates));
+    }
+
+    private List<String> pushLines(boolean fullPush, List<LineGeoData> lines) {
+        GeoDataFingerprints.Delta<LineGeoData> delta = fingerprints.linesDelta(fullPush);
+        List<String> pushedIds = new ArrayList<>();
+        Consumer<LineGeoData> consumer = delta.filter(line -> pushedIds.add(line.getId()));
+        lines.forEach(consumer);
+        delta.commit();
+        return pushedIds;
+    }
+
+    @Test
+    void testFingerprint() {
+        LineGeoData line = line("line1", "substation2", new Coordinate(1, 2), new Coordinate(3, 4));
+        assertEquals(GeoDataFingerprints.fingerprint(line), GeoDataFingerprints.fingerprint(line("line1", "substation2", new Coordinate(1, 2), new Coordinate(3, 4))));
+        assertNotEquals(GeoDataFingerprints.fingerprint(line), GeoDataFingerprints.fingerprint(line("line1", "substation3", new Coordinate(1, 2), new Coordinate(3, 4))));
+        assertNotEquals(GeoDataFingerprints.fingerprint(line), GeoDataFingerprints.fingerprint(line("line1", "substation2", new Coordinate(1, 2), new Coordinate(3, 5))));
+        assertNotEquals(GeoDataFingerprints.fingerprint(line), GeoDataFingerprints.fingerprint(line("line1", "substation2", new Coordinate(3, 4), new Coordinate(1, 2))));
+    }
+
+    @Test
+    void testDelta() {
+        LineGeoData line1 = line("line1", "substation2", new Coordinate(1, 2), new Coordinate(3, 4));
+        LineGeoData line2 = line("line2", "substation2", new Coordinate(5, 6), new Coordinate(7, 8));
+        LineGeoData line3 = line("line3", "substation3", new Coordinate(1, 2), new Coordinate(5, 6));
+
+        // nothing pushed yet
+        assertEquals(List.of("line1", "line2"), pushLines(false, List.of(line1, line2)));
+
+        // only the changed and added lines are pushed
+        LineGeoData movedLine2 = line("line2", "substation2", new Coordinate(5, 6), new Coordinate(7, 9));
+        assertEquals(List.of("line2", "line3"), pushLines(false, List.of(line1, movedLine2, line3)));
+        assertEquals(List.of(), pushLines(false, List.of(line1, movedLine2, line3)));
+
+        // removed lines are only reported
+        assertEquals(List.of(), pushLines(false, List.of(line1, movedLine2)));
+        assertEquals(1, meterRegistry.get("odre.push.delta").tag("change", "removed").counter().count());
+        assertEquals(List.of("line3"), pushLines(false, List.of(line1, movedLine2, line3)));
+
+        // full push on demand, or after the lines have been pushed from another source
+        assertEquals(List.of("line1", "line2", "line3"), pushLines(true, List.of(line1, movedLine2, line3)));
+        fingerprints.invalidate(GeoDataPusher.LINES);
+        assertEquals(List.of("line1"), pushLines(false, List.of(line1)));
+    }
+
+    @Test
+    void testUncommittedDelta() {
+        LineGeoData line1 = line("line1", "substation2", new Coordinate(1, 2), new Coordinate(3, 4));
+        pushLines(false, List.of(line1));
+
+        // a failed push is not committed, its lines are pushed again next time
+        LineGeoData movedLine1 = line("line1", "substation2", new Coordinate(1, 2), new Coordinate(3, 5));
+        fingerprints.linesDelta(false).filter(line -> { }).accept(movedLine1);
+        assertEquals(List.of("line1"), pushLines(false, List.of(movedLine1)));
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gridsuite.odre.server.dto.Coordinate;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.PackedCoordinates;
+import org.gridsuite.odre.server.utils.ImportMetrics;
+import org.gridsuite.odre.server.utils.ImportProgress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+@ExtendWith(MockitoExtension.class)
+class GeoDataPusherTest {
+
+    private static final String LINES_URI = "https://localhost:8080/v1/lines";
+
+    @Mock
+    private RestTemplate geoDataServerRest;
+
+    @Mock
+    private RestTemplateBuilder restTemplateBuilder;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<LineGeoData> lines = List.of(
+            new LineGeoData("lines1", "FR", "FR", "substation1", "substation2", List.of(new Coordinate(2, 3), new Coordinate(3, 4))),
+            new LineGeoData("lines2", "FR", "BE", "substation1", "substation2", List.of(new Coordinate(1, 3), new Coordinate(5, 3))),
+            new LineGeoData("lines3", "FR", "GE", "substation2", "substation2", List.of(new Coordinate(4, 3), new Coordinate(2, 3), new Coordinate(7, 4))));
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(restTemplateBuilder.build()).thenReturn(geoDataServerRest);
+    }
+
+    private GeoDataPusher createPusher(int batchSize, int maxRetries) {
+        return createPusher(batchSize, maxRetries, "identity", "json");
+    }
+
+    private GeoDataPusher createPusher(int batchSize, int maxRetries, String contentEncoding, String format) {
+        return createPusher(batchSize, maxRetries, contentEncoding, format, "array");
+    }
+
+    private GeoDataPusher createPusher(int batchSize, int maxRetries, String contentEncoding, String format, String coordinatesEncoding) {
+        return new GeoDataPusher("https://localhost:8080", batchSize, 0, 1, maxRetries, 0, contentEncoding, format, coordinatesEncoding, 5,
+                restTemplateBuilder, objectMapper, meterRegistry);
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testStreamedBody() throws Exception {
+        GeoDataPusher.Result result = createPusher(0, 0).push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, lines::forEach);
+        assertEquals(1, result.batches());
+
+        ArgumentCaptor<RequestCallback> callbackCaptor = ArgumentCaptor.forClass(RequestCallback.class);
+        Mockito.verify(geoDataServerRest).execute(eq(LINES_URI), eq(HttpMethod.POST), callbackCaptor.capture(), isNull());
+
+        MockClientHttpRequest request = new MockClientHttpRequest();
+        callbackCaptor.getValue().doWithRequest(request);
+        assertEquals(MediaType.APPLICATION_JSON, request.getHeaders().getContentType());
+        assertEquals(objectMapper.writeValueAsString(lines), request.getBodyAsString());
+    }
+
+    @Test
+    void testStreamedBodyNotTerminatedOnFailure() throws Exception {
+        createPusher(0, 0).push(GeoDataPusher.LINES, (Consumer<LineGeoData> consumer) -> {
+            consumer.accept(lines.get(0));
+            throw new IllegalStateException("Download failed");
+        });
+
+        ArgumentCaptor<RequestCallback> callbackCaptor = ArgumentCaptor.forClass(RequestCallback.class);
+        Mockito.verify(geoDataServerRest).execute(eq(LINES_URI), eq(HttpMethod.POST), callbackCaptor.capture(), isNull());
+
+        // the elements written before the failure are not sent as a complete array
+        MockClientHttpRequest request = new MockClientHttpRequest();
+        assertThrows(IllegalStateException.class, () -> callbackCaptor.getValue().doWithRequest(request));
+        assertEquals("[" + objectMapper.writeValueAsString(lines.get(0)), request.getBodyAsString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatches() throws Exception {
+        GeoDataPusher.Result result = createPusher(2, 0).push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, lines::forEach);
+        assertEquals(3, result.features());
+        assertEquals(2, result.batches());
+
+        ArgumentCaptor<HttpEntity<byte[]>> entityCaptor = ArgumentCaptor.forClass(HttpEntity.class);
+        Mockito.verify(geoDataServerRest, Mockito.times(2)).exchange(eq(LINES_URI), eq(HttpMethod.POST), entityCaptor.capture(), eq(Void.class));
+        assertEquals(objectMapper.writeValueAsString(lines.subList(0, 2)), new String(entityCaptor.getAllValues().get(0).getBody(), StandardCharsets.UTF_8));
+        assertEquals(objectMapper.writeValueAsString(lines.subList(2, 3)), new String(entityCaptor.getAllValues().get(1).getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testImportMetrics() {
+        createPusher(2, 0).push(GeoDataPusher.LINES, ImportMetrics.UPLOAD_SOURCE, lines::forEach);
+
+        assertEquals(3, meterRegistry.get("odre.push.features").tag("source", ImportMetrics.UPLOAD_SOURCE).counter().count());
+        assertEquals(1, meterRegistry.get("odre.import.stage").tag("stage", ImportMetrics.PUSH_STAGE).tag("source", ImportMetrics.UPLOAD_SOURCE).timer().count());
+        assertEquals(1, meterRegistry.get("odre.import.stage").tag("stage", ImportMetrics.SERIALIZATION_STAGE).tag("source", ImportMetrics.UPLOAD_SOURCE).timer().count());
+    }
+
+    @Test
+    void testImportProgress() {
+        ImportProgress progress = new ImportProgress();
+        createPusher(2, 0).push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, progress, lines::forEach);
+
+        assertEquals(ImportMetrics.PUSH_STAGE, progress.getStage());
+        assertEquals(3, progress.getFeaturesPushed());
+        assertEquals(2, progress.getBatchesPushed());
+    }
+
+    @Test
+    void testGzipStreamedBody() throws Exception {
+        GeoDataPusher.Result result = createPusher(0, 0, "gzip", "json").push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, lines::forEach);
+        String json = objectMapper.writeValueAsString(lines);
+        assertEquals(json.length(), result.uncompressedBytes());
+
+        ArgumentCaptor<RequestCallback> callbackCaptor = ArgumentCaptor.forClass(RequestCallback.class);
+        Mockito.verify(geoDataServerRest).execute(eq(LINES_URI), eq(HttpMethod.POST), callbackCaptor.capture(), isNull());
+
+        MockClientHttpRequest request = new MockClientHttpRequest();
+        callbackCaptor.getValue().doWithRequest(request);
+        assertEquals(MediaType.APPLICATION_JSON, request.getHeaders().getContentType());
+        assertEquals("gzip", request.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(json, gunzip(request.getBodyAsBytes()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGzipBatches() throws Exception {
+        GeoDataPusher.Result result = createPusher(2, 0, "gzip", "json").push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, lines::forEach);
+        assertEquals(2, result.batches());
+
+        ArgumentCaptor<HttpEntity<byte[]>> entityCaptor = ArgumentCaptor.forClass(HttpEntity.class);
+        Mockito.verify(geoDataServerRest, Mockito.times(2)).exchange(eq(LINES_URI), eq(HttpMethod.POST), entityCaptor.capture(), eq(Void.class));
+        HttpEntity<byte[]> firstBatch = entityCaptor.getAllValues().get(0);
+        assertEquals("gzip", firstBatch.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(objectMapper.writeValueAsString(lines.subList(0, 2)), gunzip(firstBatch.getBody()));
+        assertEquals(objectMapper.writeValueAsString(lines.subList(2, 3)), gunzip(entityCaptor.getAllValues().get(1).getBody()));
+        assertEquals(firstBatch.getBody().length + entityCaptor.getAllValues().get(1).getBody().length, result.bytes());
+    }
+
+    @Test
+    void testUnsupportedContentEncoding() {
+        assertThrows(IllegalArgumentException.class, () -> createPusher(0, 0, "br", "json"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBinaryFormats() throws Exception {
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsString(lines));
+
+        GeoDataPusher.Result result = createPusher(10, 0, "identity", "smile").push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, lines::forEach);
+        ArgumentCaptor<HttpEntity<byte[]>> entityCaptor = ArgumentCaptor.forClass(HttpEntity.class);
+        Mockito.verify(geoDataServerRest).exchange(eq(LINES_URI), eq(HttpMethod.POST), entityCaptor.capture(), eq(Void.class));
+        assertEquals(GeoDataPusher.APPLICATION_SMILE, entityCaptor.getValue().getHeaders().getContentType());
+        assertEquals(expected, new ObjectMapper(new SmileFactory()).readTree(entityCaptor.getValue().getBody()));
+        assertEquals(entityCaptor.getValue().getBody().length, result.bytes());
+
+        Mockito.reset(geoDataServerRest);
+        createPusher(10, 0, "identity", "cbor").push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, lines::forEach);
+        Mockito.verify(geoDataServerRest).exchange(eq(LINES_URI), eq(HttpMethod.POST), entityCaptor.capture(), eq(Void.class));
+        assertEquals(MediaType.APPLICATION_CBOR, entityCaptor.getValue().getHeaders().getContentType());
+        assertEquals(expected, new ObjectMapper(new CBORFactory()).readTree(entityCaptor.getValue().getBody()));
+
+        assertThrows(IllegalArgumentException.class, () -> createPusher(0, 0, "identity", "xml"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPolylineCoordinates() throws Exception {
+        List<LineGeoData> packedLines = lines.stream().map(line -> new LineGeoData(line.getId(), line.getCountry1(), line.getCountry2(),
+                line.getSubstationStart(), line.getSubstationEnd(), PackedCoordinates.copyOf(line.getCoordinates()))).toList();
+        createPusher(10, 0, "identity", "json", "polyline").push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, packedLines::forEach);
+
+        ArgumentCaptor<HttpEntity<byte[]>> entityCaptor = ArgumentCaptor.forClass(HttpEntity.class);
+        Mockito.verify(geoDataServerRest).exchange(eq(LINES_URI), eq(HttpMethod.POST), entityCaptor.capture(), eq(Void.class));
+        JsonNode body = objectMapper.readTree(entityCaptor.getValue().getBody());
+        assertEquals(3, body.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals(lines.get(i).getId(), body.get(i).get("id").asText());
+            assertEquals(lines.get(i).getCoordinates(), PackedCoordinates.fromPolyline(body.get(i).get("coordinates").asText(), 5));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> createPusher(0, 0, "identity", "json", "geojson"));
+    }
+
+    @Test
+    void testBatchRetry() {
+        Mockito.when(geoDataServerRest.exchange(eq(LINES_URI), eq(HttpMethod.POST), any(HttpEntity.class), eq(Void.class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+                .thenReturn(null);
+        GeoDataPusher.Result result = createPusher(10, 1).push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, lines::forEach);
+        assertEquals(1, result.batches());
+        Mockito.verify(geoDataServerRest, Mockito.times(2)).exchange(eq(LINES_URI), eq(HttpMethod.POST), any(HttpEntity.class), eq(Void.class));
+
+        // rejected batches are not retried and make the push fail
+        Mockito.reset(geoDataServerRest);
+        Mockito.when(geoDataServerRest.exchange(eq(LINES_URI), eq(HttpMethod.POST), any(HttpEntity.class), eq(Void.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+        GeoDataPusher pusher = createPusher(10, 3);
+        assertThrows(IllegalStateException.class, () -> pusher.push(GeoDataPusher.LINES, ImportMetrics.DOWNLOAD_SOURCE, lines::forEach));
+        Mockito.verify(geoDataServerRest, Mockito.times(1)).exchange(eq(LINES_URI), eq(HttpMethod.POST), any(HttpEntity.class), eq(Void.class));
+    }
+
+    @Test
+    void testFailedBatchStopsProducer() {
+        Mockito.when(geoDataServerRest.exchange(eq(LINES_URI), eq(HttpMethod.POST), any(HttpEntity.class), eq(Void.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+        GeoDataPusher pusher = createPusher(1, 0);
+        AtomicInteger produced = new AtomicInteger();
+
+        // with one batch in flight, the second batch waits for the first one, which fails: the third line is never produced
+        assertThrows(IllegalStateException.class, () -> pusher.push(GeoDataPusher.LINES, (Consumer<LineGeoData> consumer) -> lines.forEach(line -> {
+            produced.incrementAndGet();
+            consumer.accept(line);
+        })));
+        assertEquals(2, produced.get());
+        Mockito.verify(geoDataServerRest, Mockito.times(1)).exchange(eq(LINES_URI), eq(HttpMethod.POST), any(HttpEntity.class), eq(Void.class));
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.services;
+
+import org.gridsuite.odre.server.dto.Coordinate;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.gridsuite.odre.server.utils.ImportMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class GeoDataSnapshotsTest {
+
+    private final GeoDataSnapshots snapshots = new GeoDataSnapshots();
+
+    private static LineGeoData line(String id) {
+        return new LineGeoData(id, "FR", "FR", "substation1", "substation2", List.of(new Coordinate(1, 2), new Coordinate(3, 4)));
+    }
+
+    @Test
+    void testLinesSnapshot() {
+        assertTrue(snapshots.getLines().isEmpty());
+        assertNull(snapshots.getLines().importedAt());
+        assertTrue(snapshots.getLines().get("line1").isEmpty());
+
+        // elements are recorded as they are streamed, but only visible once committed
+        GeoDataSnapshots.Recorder<LineGeoData> recorder = snapshots.linesRecorder(ImportMetrics.DOWNLOAD_SOURCE);
+        List<String> pushedIds = new ArrayList<>();
+        Consumer<LineGeoData> consumer = recorder.record(line -> pushedIds.add(line.getId()));
+        List.of(line("line2"), line("line1")).forEach(consumer);
+        assertEquals(List.of("line2", "line1"), pushedIds);
+        assertTrue(snapshots.getLines().isEmpty());
+
+        recorder.commit();
+        GeoDataSnapshots.Snapshot<LineGeoData> snapshot = snapshots.getLines();
+        assertEquals(2, snapshot.size());
+        assertEquals(List.of("line2", "line1"), snapshot.elements().stream().map(LineGeoData::getId).toList());
+        assertEquals("line1", snapshot.get("line1").orElseThrow().getId());
+        assertEquals(ImportMetrics.DOWNLOAD_SOURCE, snapshot.source());
+        assertNotNull(snapshot.importedAt());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.elements().add(line("line3")));
+
+        // a failed import does not replace the snapshot, a successful one replaces it as a whole
+        snapshots.linesRecorder(ImportMetrics.DOWNLOAD_SOURCE).record(line -> { }).accept(line("line3"));
+        assertSame(snapshot, snapshots.getLines());
+        GeoDataSnapshots.Recorder<LineGeoData> uploadRecorder = snapshots.linesRecorder(ImportMetrics.UPLOAD_SOURCE);
+        uploadRecorder.recordAll(List.of(line("line3")));
+        uploadRecorder.commit();
+        assertEquals(List.of("line3"), snapshots.getLines().elements().stream().map(LineGeoData::getId).toList());
+        assertEquals(ImportMetrics.UPLOAD_SOURCE, snapshots.getLines().source());
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    void testSubstationsSnapshot() {
+        GeoDataSnapshots.Recorder<SubstationGeoData> recorder = snapshots.substationsRecorder(ImportMetrics.UPLOAD_SOURCE);
+        recorder.recordAll(List.of(new SubstationGeoData("substation1", "FR", new Coordinate(1, 2))));
+        recorder.commit();
+        assertEquals(1, snapshots.getSubstations().size());
+        assertEquals("FR", snapshots.getSubstations().get("substation1").orElseThrow().getCountry());
+        assertTrue(snapshots.getLines().isEmpty());
+    }
+
+    @Test
+    void testQuery() {
+        GeoDataSnapshots.Recorder<LineGeoData> linesRecorder = snapshots.linesRecorder(ImportMetrics.DOWNLOAD_SOURCE);
+        linesRecorder.recordAll(List.of(line("line2"), line("line1")));
+        linesRecorder.commit();
+        GeoDataSnapshots.Recorder<SubstationGeoData> substationsRecorder = snapshots.substationsRecorder(ImportMetrics.DOWNLOAD_SOURCE);
+        substationsRecorder.recordAll(List.of(new SubstationGeoData("substation1", "FR", new Coordinate(1, 2))));
+        substationsRecorder.commit();
+
+        // the elements intersecting the box, in the order of the import
+        assertEquals(List.of("line2", "line1"), snapshots.getLines().query(2, 3, 3, 4).stream().map(LineGeoData::getId).toList());
+        assertTrue(snapshots.getLines().query(5, 5, 6, 6).isEmpty());
+        assertEquals(1, snapshots.getSubstations().query(0, 0, 1, 2).size());
+        assertTrue(snapshots.getSubstations().query(0, 0, 0.5, 0.5).isEmpty());
+        assertTrue(GeoDataSnapshots.Snapshot.<LineGeoData>empty().query(0, 0, 90, 180).isEmpty());
+    }
+
+    @Test
+    void testDuplicateIds() {
+        GeoDataSnapshots.Recorder<SubstationGeoData> recorder = snapshots.substationsRecorder(ImportMetrics.UPLOAD_SOURCE);
+        recorder.recordAll(List.of(new SubstationGeoData("substation1", "FR", new Coordinate(1, 2)),
+                new SubstationGeoData("substation2", "FR", new Coordinate(3, 4)),
+                new SubstationGeoData("substation1", "BE", new Coordinate(5, 6))));
+        recorder.commit();
+        assertEquals(List.of("substation1", "substation2"), snapshots.getSubstations().elements().stream().map(SubstationGeoData::getId).toList());
+        assertEquals("BE", snapshots.getSubstations().get("substation1").orElseThrow().getCountry());
+    }
+
+    @Test
+    void testDisabled() {
+        GeoDataSnapshots disabledSnapshots = new GeoDataSnapshots(false);
+        assertFalse(disabledSnapshots.isEnabled());
+        GeoDataSnapshots.Recorder<LineGeoData> recorder = disabledSnapshots.linesRecorder(ImportMetrics.DOWNLOAD_SOURCE);
+        List<String> pushedIds = new ArrayList<>();
+        recorder.record(line -> pushedIds.add(line.getId())).accept(line("line1"));
+        recorder.recordAll(List.of(line("line2")));
+        recorder.commit();
+        // elements are still pushed, but not kept
+        assertEquals(List.of("line1"), pushedIds);
+        assertTrue(disabledSnapshots.getLines().isEmpty());
+        assertNull(disabledSnapshots.getLines().importedAt());
+    }
+}
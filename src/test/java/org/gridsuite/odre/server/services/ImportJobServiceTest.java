@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.services;
+
+import org.gridsuite.odre.server.dto.FileUploadResponse;
+import org.gridsuite.odre.server.dto.ImportJobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class ImportJobServiceTest {
+
+    private ImportJobService importJobService;
+
+    @AfterEach
+    void tearDown() {
+        importJobService.destroy();
+    }
+
+    private ImportJobStatus awaitEnd(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            ImportJobStatus status = importJobService.getStatus(id).orElseThrow();
+            if (status.getState() == ImportJobStatus.State.SUCCEEDED || status.getState() == ImportJobStatus.State.FAILED) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + id + " did not end");
+    }
+
+    @Test
+    void testJob() throws InterruptedException {
+        importJobService = new ImportJobService(1, 1, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ImportJobStatus submitted = importJobService.submit(GeoDataPusher.LINES, progress -> {
+            started.countDown();
+            await(release);
+            return new FileUploadResponse(200, "done");
+        });
+        assertEquals(GeoDataPusher.LINES, submitted.getType());
+        assertNotNull(submitted.getSubmittedAt());
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        ImportJobStatus running = importJobService.getStatus(submitted.getId()).orElseThrow();
+        assertEquals(ImportJobStatus.State.RUNNING, running.getState());
+        assertNotNull(running.getDurationMs());
+        assertNull(running.getResult());
+
+        release.countDown();
+        ImportJobStatus done = awaitEnd(submitted.getId());
+        assertEquals(ImportJobStatus.State.SUCCEEDED, done.getState());
+        assertEquals("done", done.getResult().getMessage());
+        assertNotNull(done.getFinishedAt());
+        assertTrue(importJobService.getStatus(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void testFailedJob() throws InterruptedException {
+        importJobService = new ImportJobService(1, 1, 10);
+        ImportJobStatus submitted = importJobService.submit(GeoDataPusher.SUBSTATIONS, progress -> {
+            throw new IllegalStateException("geo data server unavailable");
+        });
+        ImportJobStatus done = awaitEnd(submitted.getId());
+        assertEquals(ImportJobStatus.State.FAILED, done.getState());
+        assertEquals(500, done.getResult().getStatus());
+        assertTrue(done.getResult().getMessage().contains("geo data server unavailable"));
+    }
+
+    @Test
+    void testBoundedQueue() throws InterruptedException {
+        importJobService = new ImportJobService(1, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        ImportJobStatus running = importJobService.submit(GeoDataPusher.LINES, progress -> {
+            await(release);
+            return new FileUploadResponse(200, "done");
+        });
+        ImportJobStatus queued = importJobService.submit(GeoDataPusher.LINES, progress -> new FileUploadResponse(200, "done"));
+        assertEquals(ImportJobStatus.State.QUEUED, queued.getState());
+        // one job is running and another one is waiting
+        assertThrows(RejectedExecutionException.class, () -> importJobService.submit(GeoDataPusher.LINES, progress -> new FileUploadResponse(200, "done")));
+
+        // queued and running jobs are kept beyond the retained ones, a rejected job is not
+        assertEquals(ImportJobStatus.State.RUNNING, importJobService.getStatus(running.getId()).orElseThrow().getState());
+        assertEquals(ImportJobStatus.State.QUEUED, importJobService.getStatus(queued.getId()).orElseThrow().getState());
+        release.countDown();
+        assertEquals(ImportJobStatus.State.SUCCEEDED, awaitEnd(running.getId()).getState());
+        assertEquals(ImportJobStatus.State.SUCCEEDED, awaitEnd(queued.getId()).getState());
+
+        // only the most recent finished job is kept
+        ImportJobStatus last = importJobService.submit(GeoDataPusher.LINES, progress -> new FileUploadResponse(200, "done"));
+        assertTrue(importJobService.getStatus(running.getId()).isEmpty());
+        assertTrue(importJobService.getStatus(queued.getId()).isEmpty());
+        assertEquals(ImportJobStatus.State.SUCCEEDED, awaitEnd(last.getId()).getState());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
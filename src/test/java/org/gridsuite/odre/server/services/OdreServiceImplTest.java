@@ -6,6 +6,9 @@
  */
 package org.gridsuite.odre.server.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.commons.io.IOUtils;
 import org.gridsuite.odre.server.client.OdreClient;
 import org.gridsuite.odre.server.client.OdreCsvClient;
@@ -13,6 +16,8 @@ import org.gridsuite.odre.server.client.OdreCsvClientImpl;
 import org.gridsuite.odre.server.dto.Coordinate;
 import org.gridsuite.odre.server.dto.LineGeoData;
 import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.gridsuite.odre.server.utils.ImportMetrics;
+import org.gridsuite.odre.server.utils.LineSimplifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,17 +26,28 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.client.MockClientHttpRequest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.ResourceUtils;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
@@ -59,7 +75,11 @@ class OdreServiceImplTest {
     @BeforeEach
     void setUp() {
         Mockito.when(restTemplateBuilder.build()).thenReturn(geoDataServerRest);
-        odreService = new OdreServiceImpl("https://localhost:8080", restTemplateBuilder);
+        odreService = new OdreServiceImpl();
+        ReflectionTestUtils.setField(odreService, "geoDataPusher", new GeoDataPusher("https://localhost:8080", 0, 0, 1, 0, 0, "identity", "json", "array", 5,
+                restTemplateBuilder, new ObjectMapper(), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(odreService, "geoDataFingerprints", new GeoDataFingerprints(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(odreService, "geoDataSnapshots", new GeoDataSnapshots());
         ReflectionTestUtils.setField(odreService, "client", client);
         ReflectionTestUtils.setField(odreService, "csvClient", csvClient);
 
@@ -78,10 +98,10 @@ class OdreServiceImplTest {
         lineGeoData.add(new LineGeoData("lines3", "FR", "GE", "substation2", "substation2",
                 Arrays.asList(new Coordinate(4, 3), new Coordinate(2, 3), new Coordinate(7, 4))));
 
-        Mockito.when(client.getSubstations())
+        Mockito.lenient().when(client.getSubstations())
                 .thenReturn(substationGeoData);
 
-        Mockito.when(client.getLines())
+        Mockito.lenient().when(client.getLines())
                 .thenReturn(lineGeoData);
     }
 
@@ -108,9 +128,103 @@ class OdreServiceImplTest {
         assertEquals(0, odreCsvClientImpl.getLinesFromCsv(List.of(invalidFile, aerialLinesFile, undergroundLinesFile)).size());
         assertEquals(0, odreCsvClientImpl.getSubstationsFromCsv(invalidFile).size());
 
-        odreService.pushLines();
-        odreService.pushSubstations();
+        odreService.pushLines(false, false, null);
+        odreService.pushSubstations(true);
         odreService.pushSubstationsFromCsv(file);
         odreService.pushLinesFromCsv(List.of(substationsFile, aerialLinesFile, undergroundLinesFile));
     }
+
+    @Test
+    void testSnapshots() throws Exception {
+        // the body of a push is written when the request is executed
+        Mockito.when(geoDataServerRest.execute(any(String.class), eq(HttpMethod.POST), any(RequestCallback.class), isNull())).thenAnswer(invocation -> {
+            invocation.<RequestCallback>getArgument(2).doWithRequest(new MockClientHttpRequest());
+            return null;
+        });
+        ReflectionTestUtils.setField(odreService, "csvClient", odreCsvClientImpl);
+        byte[] substationsBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:postes-electriques-rte.csv")));
+        byte[] aerialLinesBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:lignes-aeriennes-rte.csv")));
+        byte[] undergroundLinesBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:lignes-souterraines-rte.csv")));
+        List<MultipartFile> files = List.of(new MockMultipartFile("files", "postes-electriques-rte.csv", "text/csv", substationsBytes),
+                new MockMultipartFile("files", "lignes-aeriennes-rte.csv", "text/csv", aerialLinesBytes),
+                new MockMultipartFile("files", "lignes-souterraines-rte.csv", "text/csv", undergroundLinesBytes));
+
+        assertTrue(odreService.getLines().isEmpty());
+        assertEquals(404, odreService.repushLines().getStatus());
+        assertEquals(404, odreService.repushSubstations().getStatus());
+
+        // the last imported lines are kept and can be pushed again without parsing the files
+        assertEquals(200, odreService.pushLinesFromCsv(files).getStatus());
+        assertEquals(6, odreService.getLines().size());
+        LineGeoData line = odreService.getLines().get(0);
+        assertSame(line, odreService.getLine(line.getId()).orElseThrow());
+        assertTrue(odreService.getLine("unknown").isEmpty());
+        Mockito.clearInvocations(geoDataServerRest);
+        assertEquals(200, odreService.repushLines().getStatus());
+        Mockito.verify(geoDataServerRest).execute(endsWith(GeoDataPusher.LINES), eq(HttpMethod.POST), any(RequestCallback.class), isNull());
+    }
+
+    @Test
+    void testSimplifiedPush() {
+        odreService.pushLines(true, true, null);
+        Mockito.verify(client).streamLines(any(), any(LineSimplifier.class));
+        odreService.pushLines(true, true, 25.0);
+        Mockito.verify(client, Mockito.times(2)).streamLines(any(), any(LineSimplifier.class));
+    }
+
+    @Test
+    void testEmptyUpload() throws Exception {
+        // the body of a push is written when the request is executed
+        Mockito.when(geoDataServerRest.execute(any(String.class), eq(HttpMethod.POST), any(RequestCallback.class), isNull())).thenAnswer(invocation -> {
+            invocation.<RequestCallback>getArgument(2).doWithRequest(new MockClientHttpRequest());
+            return null;
+        });
+        ReflectionTestUtils.setField(odreService, "csvClient", odreCsvClientImpl);
+        byte[] substationsBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:postes-electriques-rte.csv")));
+        MockMultipartFile file = new MockMultipartFile("file", "postes-electriques-rte.csv", "text/csv", substationsBytes);
+        // a file with the header only is valid, but has no substation to push
+        String header = new String(substationsBytes, StandardCharsets.UTF_8).lines().findFirst().orElseThrow();
+        MockMultipartFile emptyFile = new MockMultipartFile("file", "postes-electriques-rte.csv", "text/csv", header.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(200, odreService.pushSubstationsFromCsv(file).getStatus());
+        assertEquals(400, odreService.pushSubstationsFromCsv(emptyFile).getStatus());
+    }
+
+    @Test
+    void testUploadImportMetrics() throws Exception {
+        Mockito.when(geoDataServerRest.execute(any(String.class), eq(HttpMethod.POST), any(RequestCallback.class), isNull())).thenAnswer(invocation -> {
+            invocation.<RequestCallback>getArgument(2).doWithRequest(new MockClientHttpRequest());
+            return null;
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(odreService, "geoDataPusher", new GeoDataPusher("https://localhost:8080", 0, 0, 1, 0, 0, "identity", "json", "array", 5,
+                restTemplateBuilder, new ObjectMapper(), meterRegistry));
+        OdreCsvClientImpl csvClientImpl = new OdreCsvClientImpl(0, 0, meterRegistry);
+        ReflectionTestUtils.setField(odreService, "csvClient", csvClientImpl);
+        byte[] substationsBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:postes-electriques-rte.csv")));
+        byte[] aerialLinesBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:lignes-aeriennes-rte.csv")));
+        byte[] undergroundLinesBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:lignes-souterraines-rte.csv")));
+        List<MultipartFile> files = List.of(new MockMultipartFile("files", "postes-electriques-rte.csv", "text/csv", substationsBytes),
+                new MockMultipartFile("files", "lignes-aeriennes-rte.csv", "text/csv", aerialLinesBytes),
+                new MockMultipartFile("files", "lignes-souterraines-rte.csv", "text/csv", undergroundLinesBytes));
+
+        assertEquals(200, odreService.pushLinesFromCsv(files).getStatus());
+
+        for (String stage : List.of(ImportMetrics.VALIDATION_STAGE, ImportMetrics.SUBSTATIONS_PARSE_STAGE, ImportMetrics.LINES_PARSE_STAGE,
+                ImportMetrics.ASSEMBLY_STAGE, ImportMetrics.SERIALIZATION_STAGE, ImportMetrics.PUSH_STAGE)) {
+            assertEquals(1, meterRegistry.get("odre.import.stage").tag("stage", stage).tag("source", ImportMetrics.UPLOAD_SOURCE).timer().count());
+        }
+        // the lines uploaded, assembled again without metrics to know which of their ends have a substation
+        List<LineGeoData> lines = new OdreCsvClientImpl().getLinesFromCsv(files);
+        assertEquals(lines.size(), meterRegistry.find("odre.import.lines").tag("result", ImportMetrics.ASSEMBLED)
+                .tag("source", ImportMetrics.UPLOAD_SOURCE).counters().stream().mapToDouble(Counter::count).sum());
+        assertEquals(3, meterRegistry.get("odre.import.payload.bytes").tag("source", ImportMetrics.UPLOAD_SOURCE).summary().count());
+        assertEquals(substationsBytes.length + aerialLinesBytes.length + undergroundLinesBytes.length,
+                meterRegistry.get("odre.import.payload.bytes").tag("source", ImportMetrics.UPLOAD_SOURCE).summary().totalAmount());
+        long unresolvedEnds = lines.stream().filter(line -> line.getSubstationStart().isEmpty()).count()
+                + lines.stream().filter(line -> line.getSubstationEnd().isEmpty()).count();
+        assertEquals(unresolvedEnds, meterRegistry.get("odre.import.substation.ends.unresolved").tag("source", ImportMetrics.UPLOAD_SOURCE).counter().count());
+        assertTrue(meterRegistry.find("odre.import.stage").tag("source", ImportMetrics.DOWNLOAD_SOURCE).timers().isEmpty());
+        csvClientImpl.destroy();
+    }
 }
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class CoordinatePoolTest {
+
+    @Test
+    void test() {
+        CoordinatePool pool = new CoordinatePool();
+        assertEquals(0, pool.getDeduplicationRatio(), 0);
+
+        int index = pool.intern(48.8566, 2.3522);
+        assertEquals(index, pool.intern(48.8566, 2.3522));
+        assertNotEquals(index, pool.intern(2.3522, 48.8566));
+        // same equality as coordinates
+        assertNotEquals(pool.intern(0.0, 0.0), pool.intern(-0.0, 0.0));
+        assertEquals(48.8566, pool.getLat(index), 0);
+        assertEquals(2.3522, pool.getLon(index), 0);
+
+        assertEquals(4, pool.size());
+        assertEquals(5, pool.getInternCount());
+        assertEquals(0.2, pool.getDeduplicationRatio(), 1e-9);
+    }
+
+    @Test
+    void testGrowth() {
+        CoordinatePool pool = new CoordinatePool();
+        int[] indices = new int[100000];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = pool.intern(45 + i * 1e-5, 2 - i * 1e-5);
+        }
+        for (int i = 0; i < indices.length; i++) {
+            assertEquals(indices[i], pool.intern(45 + i * 1e-5, 2 - i * 1e-5));
+            assertEquals(45 + i * 1e-5, pool.getLat(indices[i]), 0);
+            assertEquals(2 - i * 1e-5, pool.getLon(indices[i]), 0);
+        }
+        assertEquals(indices.length, pool.size());
+        assertEquals(0.5, pool.getDeduplicationRatio(), 1e-9);
+    }
+
+    @Test
+    void testConcurrentInterning() throws Exception {
+        CoordinatePool pool = new CoordinatePool();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int t = 0; t < futures.length; t++) {
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 50000; i++) {
+                        pool.intern(i, -i);
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(50000, pool.size());
+        assertEquals(200000, pool.getInternCount());
+        int index = pool.intern(1234, -1234);
+        assertEquals(1234, pool.getLat(index), 0);
+        assertEquals(-1234, pool.getLon(index), 0);
+    }
+
+    @Test
+    void testMergeFromAnotherPool() {
+        LineSegments segments = new LineSegments();
+        CoordinatePool pool = segments.getCoordinatePool();
+        segments.add("L1", new int[] {pool.intern(0, 0), pool.intern(1, 1)}, 0, 2);
+
+        LineSegments otherSegments = new LineSegments();
+        CoordinatePool otherPool = otherSegments.getCoordinatePool();
+        otherPool.intern(5, 5);
+        otherSegments.add("L1", new int[] {otherPool.intern(1, 1), otherPool.intern(2, 2)}, 0, 2);
+        otherSegments.add("L2", new int[] {otherPool.intern(5, 5), otherPool.intern(0, 0)}, 0, 2);
+
+        segments.merge(otherSegments);
+        assertEquals(2, segments.size());
+        assertEquals(4, pool.size());
+        PooledSegments line1 = segments.getSegmentsByLine().get("L1");
+        assertEquals(2, line1.getPartCount());
+        // the shared point is stored once
+        assertEquals(line1.get(1), line1.get(2));
+        assertEquals(2, pool.getLat(line1.get(3)), 0);
+        PooledSegments line2 = segments.getSegmentsByLine().get("L2");
+        assertEquals(line1.get(0), line2.get(1));
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ResourceUtils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class CsvTokenizerTest {
+
+    @Test
+    void testTokenize() throws IOException {
+        String csv = "\uFEFFCode;Name;Geo Shape;Empty\r\n"
+                + "A;first;\"{\"\"coordinates\"\": [[1.0, 2.0]]; \"\"type\"\": \"\"LineString\"\"}\";\r\n"
+                + "\r\n"
+                + "B;\"multi\nline\";;\n"
+                + "C\n";
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv))) {
+            assertEquals(List.of("Code", "Name", "Geo Shape", "Empty"), tokenizer.getHeader());
+            assertEquals(0, tokenizer.getColumnIndex("Code"));
+            assertEquals(2, tokenizer.requireColumnIndex("Geo Shape"));
+            assertEquals(-1, tokenizer.getColumnIndex("Unknown"));
+            assertThrows(IOException.class, () -> tokenizer.requireColumnIndex("Unknown"));
+
+            assertTrue(tokenizer.next());
+            assertEquals("A", tokenizer.get(0).toString());
+            assertEquals("{\"coordinates\": [[1.0, 2.0]]; \"type\": \"LineString\"}", tokenizer.get(2).toString());
+            assertEquals(0, tokenizer.get(3).length());
+            assertNull(tokenizer.getString(3));
+            assertEquals('i', tokenizer.get(1).charAt(1));
+            assertEquals("irs", tokenizer.get(1).subSequence(1, 4).toString());
+
+            // empty lines are skipped, quoted fields may contain line breaks
+            assertTrue(tokenizer.next());
+            assertEquals("B", tokenizer.getString(0));
+            assertEquals("multi\nline", tokenizer.getString(1));
+            assertEquals(4, tokenizer.getFieldCount());
+
+            // missing fields are empty
+            assertTrue(tokenizer.next());
+            assertEquals("C", tokenizer.getString(0));
+            assertEquals(0, tokenizer.get(2).length());
+            assertEquals(0, tokenizer.get(-1).length());
+
+            assertFalse(tokenizer.next());
+            assertEquals(3, tokenizer.getRecordNumber());
+        }
+    }
+
+    @Test
+    void testUnterminatedQuote() throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("Code;Name\nA;\"unterminated\n"))) {
+            assertThrows(IOException.class, tokenizer::next);
+        }
+    }
+
+    @Test
+    void testPushBack() throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("Code;Name\nA;first\nB;second\n"))) {
+            assertThrows(IllegalStateException.class, tokenizer::pushBack);
+            assertTrue(tokenizer.next());
+            tokenizer.pushBack();
+            assertThrows(IllegalStateException.class, tokenizer::pushBack);
+
+            // the pushed back record is read again, then the following ones
+            assertTrue(tokenizer.next());
+            assertEquals("first", tokenizer.getString(1));
+            assertTrue(tokenizer.next());
+            assertEquals("B", tokenizer.getString(0));
+            assertFalse(tokenizer.next());
+            assertThrows(IllegalStateException.class, tokenizer::pushBack);
+            assertEquals(2, tokenizer.getRecordNumber());
+        }
+    }
+
+    @Test
+    void testOdreFile() throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(InputUtils.toBufferedReader(ResourceUtils.getFile("classpath:lignes-aeriennes-rte.csv").toPath()))) {
+            int idColumn = tokenizer.requireColumnIndex(FileValidator.CODE_LIGNE_1);
+            int geoShapeColumn = tokenizer.requireColumnIndex(FileValidator.GEO_SHAPE);
+            assertTrue(tokenizer.next());
+            assertEquals("ARGOEL71MANDA", tokenizer.getString(idColumn));
+            assertTrue(tokenizer.get(geoShapeColumn).toString().startsWith("{\"coordinates\": [[1.7916139004, 50.8969863957]"));
+            assertEquals(tokenizer.getHeader().size(), tokenizer.getFieldCount());
+        }
+    }
+}
@@ -17,7 +17,10 @@ import org.springframework.util.ResourceUtils;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -56,6 +59,28 @@ class FileValidatorTest {
         Assertions.assertThat(FileValidator.validateLines(List.of(invalidFile, invalidFile, invalidFile, invalidFile))).isEmpty();
     }
 
+    @Test
+    void validatedFilesAreReadOnce() throws IOException {
+        byte[] substationsBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:postes-electriques-rte.csv")));
+        byte[] aerialLinesBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:lignes-aeriennes-rte.csv")));
+        MockMultipartFile substationsFile = new MockMultipartFile("files", "postes-electriques-rte.csv", "text/csv", substationsBytes);
+        MockMultipartFile aerialLinesFile = new MockMultipartFile("files", "lignes-aeriennes-rte.csv", "text/csv", aerialLinesBytes);
+
+        Map<String, CsvTokenizer> tokenizers = FileValidator.validateLines(List.of(aerialLinesFile, substationsFile, aerialLinesFile));
+        assertEquals(Set.of(FileTypeEnum.AERIAL_LINES.getValue(), FileTypeEnum.SUBSTATIONS.getValue()), tokenizers.keySet());
+        // the first record, read to find out the equipment type, is parsed with the others
+        try (CsvTokenizer tokenizer = tokenizers.get(FileTypeEnum.AERIAL_LINES.getValue())) {
+            assertTrue(tokenizer.next());
+            assertEquals("ARGOEL71MANDA", tokenizer.getString(tokenizer.requireColumnIndex(FileValidator.CODE_LIGNE_1)));
+        }
+        try (CsvTokenizer tokenizer = tokenizers.get(FileTypeEnum.SUBSTATIONS.getValue())) {
+            assertEquals(10, GeographicDataParser.parseSubstations(tokenizer, ParsingOptions.DEFAULT).size());
+        }
+        try (CsvTokenizer tokenizer = FileValidator.openSubstations(substationsFile).orElseThrow()) {
+            assertEquals(10, GeographicDataParser.parseSubstations(tokenizer, ParsingOptions.DEFAULT).size());
+        }
+    }
+
     @Test
     void hasCSVFormatTest() throws IOException {
         byte[] substationsBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:postes-electriques-rte.csv")));
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.dto.Coordinate;
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.gridsuite.odre.server.dto.PackedCoordinates;
+import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class GeoDataIndexTest {
+
+    private static LineGeoData line(String id, Coordinate... coordinates) {
+        return new LineGeoData(id, "FR", "FR", null, null, List.of(coordinates));
+    }
+
+    private static List<String> lineIds(List<LineGeoData> lines) {
+        return lines.stream().map(LineGeoData::getId).toList();
+    }
+
+    @Test
+    void testSegmentIntersects() {
+        // one end inside
+        assertTrue(GeoDataIndex.segmentIntersects(0.5, 0.5, 2, 2, 0, 0, 1, 1));
+        // crossing without any end inside
+        assertTrue(GeoDataIndex.segmentIntersects(-1, 0.5, 2, 0.5, 0, 0, 1, 1));
+        assertTrue(GeoDataIndex.segmentIntersects(-0.5, 0.5, 0.5, 1.5, 0, 0, 1, 1));
+        // touching a corner
+        assertTrue(GeoDataIndex.segmentIntersects(1, 1, 2, 2, 0, 0, 1, 1));
+        // bounding boxes intersecting, but not the segment
+        assertFalse(GeoDataIndex.segmentIntersects(-0.5, 0.8, 0.8, 2, 0, 0, 1, 1));
+        assertFalse(GeoDataIndex.segmentIntersects(2, 0, 2, 1, 0, 0, 1, 1));
+        assertFalse(GeoDataIndex.segmentIntersects(0.5, 2, 0.5, 3, 0, 0, 1, 1));
+    }
+
+    @Test
+    void testLines() {
+        // a long line going out of the box and back, and lines with a single or no coordinate
+        PackedCoordinates.Builder zigzag = new PackedCoordinates.Builder();
+        for (int i = 0; i <= 40; i++) {
+            zigzag.add(i % 2 == 0 ? 45 : 46, 2 + i * 0.1);
+        }
+        List<LineGeoData> lines = List.of(
+                line("diagonal", new Coordinate(44, 1), new Coordinate(48, 5)),
+                new LineGeoData("zigzag", "FR", "FR", null, null, zigzag.build()),
+                line("point", new Coordinate(47, 4)),
+                line("empty"),
+                line("far", new Coordinate(50, 8), new Coordinate(51, 9)));
+        GeoDataIndex<LineGeoData> index = GeoDataIndex.ofLines(lines);
+        assertEquals(5, index.size());
+
+        assertEquals(List.of("diagonal", "zigzag", "point", "far"), lineIds(index.query(-90, -180, 90, 180)));
+        // the diagonal crosses the box without any of its points in it
+        assertEquals(List.of("diagonal", "point"), lineIds(index.query(46.5, 3.5, 47, 4)));
+        // only the middle of the zigzag, beyond its first entries, is in the box
+        assertEquals(List.of("zigzag"), lineIds(index.query(45.4, 5.5, 45.6, 5.6)));
+        // between two teeth of the zigzag, inside the bounding box of its segments
+        assertEquals(List.of(), lineIds(index.query(45.9, 4.05, 46.1, 4.08)));
+        assertEquals(List.of(), index.query(10, 10, 11, 11));
+        assertThrows(IllegalArgumentException.class, () -> index.query(46, 3, 45, 4));
+    }
+
+    @Test
+    void testSubstations() {
+        List<SubstationGeoData> substations = List.of(
+                new SubstationGeoData("S1", "FR", new Coordinate(45, 2)),
+                new SubstationGeoData("S2", "FR", new Coordinate(46, 3)),
+                new SubstationGeoData("S3", "FR", new Coordinate(45.5, 2.5)));
+        GeoDataIndex<SubstationGeoData> index = GeoDataIndex.ofSubstations(substations);
+        assertEquals(List.of("S1", "S3"), index.query(45, 2, 45.5, 2.5).stream().map(SubstationGeoData::getId).toList());
+        assertEquals(List.of(), GeoDataIndex.<SubstationGeoData>empty().query(45, 2, 46, 3));
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gridsuite.odre.server.dto.Coordinate;
+import org.gridsuite.odre.server.dto.GeoShape;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class GeoShapeDeserializerTest {
+
+    @Test
+    void testLineString() throws IOException {
+        GeoShape geoShape = GeoShapeDeserializer.read("{\"coordinates\": [[1.7916139004, 50.8969863957], [1.7859076785, 50.900326848]], \"type\": \"LineString\"}");
+        assertEquals(List.of(List.of(new Coordinate(50.8969863957, 1.7916139004), new Coordinate(50.900326848, 1.7859076785))), geoShape.lineStrings());
+
+        // same geometry through an object mapper, with an altitude and an invalid position
+        geoShape = new ObjectMapper().readValue("{\"type\": \"LineString\", \"bbox\": [0, 0, 1, 1], \"coordinates\": [[1, 2, 100], [3], [5, 6]]}", GeoShape.class);
+        assertEquals(List.of(List.of(new Coordinate(2, 1), new Coordinate(6, 5))), geoShape.lineStrings());
+    }
+
+    @Test
+    void testMultiLineString() throws IOException {
+        CoordinateBuffer buffer = new CoordinateBuffer();
+        char[] chars = "x{\"type\": \"MultiLineString\", \"coordinates\": [[[1, 2], [3, 4]], [], [[5, 6], [7, 8], [9, 10]]]}x".toCharArray();
+        GeoShapeDeserializer.read(chars, 1, chars.length - 2, buffer);
+        assertEquals(2, buffer.getPartCount());
+        assertEquals(5, buffer.size());
+        assertEquals(List.of(new Coordinate(2, 1), new Coordinate(4, 3)), buffer.toCoordinates(0));
+        assertEquals(List.of(new Coordinate(6, 5), new Coordinate(8, 7), new Coordinate(10, 9)), buffer.toCoordinates(1));
+
+        // the buffer is reused
+        chars = "{\"coordinates\": [[1, 2]]}".toCharArray();
+        GeoShapeDeserializer.read(chars, 0, chars.length, buffer);
+        assertEquals(1, buffer.getPartCount());
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    void testInvalidGeoShapes() throws IOException {
+        assertEquals(List.of(), GeoShapeDeserializer.read("{\"type\": \"Point\", \"coordinates\": [1, 2]}").lineStrings());
+        assertEquals(List.of(), GeoShapeDeserializer.read("{\"type\": \"Polygon\", \"coordinates\": [[[1, 2], [3, 4], [1, 2]]]}").lineStrings());
+        assertThrows(IOException.class, () -> GeoShapeDeserializer.read("{\"type\": \"LineString\"}"));
+        assertThrows(IOException.class, () -> GeoShapeDeserializer.read("[[1, 2]]"));
+        assertThrows(IOException.class, () -> GeoShapeDeserializer.read("{\"coordinates\": [[1, 2], [3"));
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.client.BaseVoltage;
+import org.gridsuite.odre.server.dto.PackedCoordinates;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ResourceUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class LineSimplifierTest {
+
+    // about 11 meters along a meridian
+    private static final double TEN_METERS = 1e-4;
+
+    private static PackedCoordinates detour() {
+        return new PackedCoordinates(new double[] {45, 2, 45.001, 2, 45.002, 2.001, 45.003, 2, 45.004, 2});
+    }
+
+    @Test
+    void testDistanceToSegment() {
+        double segmentLength = DistanceCalculator.distance(45, 2, 45, 2.01);
+        // projection inside the segment, at 11 meters
+        assertEquals(DistanceCalculator.distance(45, 2.005, 45 + TEN_METERS, 2.005), DistanceCalculator.distanceToSegment(45 + TEN_METERS, 2.005, 45, 2, 45, 2.01), 0.01);
+        // projection outside the segment, distance to its nearest end
+        assertEquals(segmentLength, DistanceCalculator.distanceToSegment(45, 2.02, 45, 2, 45, 2.01), 0.5);
+        // degenerate segment
+        assertEquals(DistanceCalculator.distance(45, 2, 45.001, 2), DistanceCalculator.distanceToSegment(45.001, 2, 45, 2, 45, 2), 0.01);
+    }
+
+    @Test
+    void testSimplify() {
+        // points aligned with the ends, or a few meters away, are removed
+        PackedCoordinates line = new PackedCoordinates(new double[] {45, 2, 45.001, 2.001, 45.002, 2.002 + TEN_METERS / 10, 45.003, 2.003, 45.004, 2.004});
+        assertEquals(new PackedCoordinates(new double[] {45, 2, 45.004, 2.004}), LineSimplifier.simplify(line, 5));
+        // no tolerance, no simplification
+        assertSame(line, LineSimplifier.simplify(line, 0));
+
+        // a detour of about 80 meters is kept with a smaller tolerance, the points next to it being 37 meters away
+        // from the simplified line
+        PackedCoordinates detour = detour();
+        assertEquals(new PackedCoordinates(new double[] {45, 2, 45.002, 2.001, 45.004, 2}), LineSimplifier.simplify(detour, 50));
+        assertEquals(new PackedCoordinates(new double[] {45, 2, 45.004, 2}), LineSimplifier.simplify(detour, 100));
+        assertSame(detour, LineSimplifier.simplify(detour, 10));
+
+        PackedCoordinates twoPoints = new PackedCoordinates(new double[] {45, 2, 46, 3});
+        assertSame(twoPoints, LineSimplifier.simplify(twoPoints, 1000));
+    }
+
+    @Test
+    void testToleranceByBaseVoltage() {
+        LineSimplifier simplifier = new LineSimplifier(50, Map.of(BaseVoltage.VL_400_KV, 100.0));
+        assertEquals(100, simplifier.getTolerance(BaseVoltage.VL_400_KV), 0);
+        assertEquals(50, simplifier.getTolerance(BaseVoltage.VL_63_KV), 0);
+        assertEquals(50, simplifier.getTolerance(null), 0);
+
+        PackedCoordinates detour = detour();
+        assertEquals(2, simplifier.simplify(detour, BaseVoltage.VL_400_KV).size());
+        assertEquals(3, simplifier.simplify(detour, BaseVoltage.VL_63_KV).size());
+        assertEquals(10, simplifier.getInputPointCount());
+        assertEquals(5, simplifier.getOutputPointCount());
+        assertEquals(0.5, simplifier.getReductionRatio(), 1e-9);
+    }
+
+    @Test
+    void testBaseVoltagesOfLines() throws Exception {
+        LineSegments segments;
+        try (CsvTokenizer aerialTokenizer = new CsvTokenizer(InputUtils.toBufferedReader(ResourceUtils.getFile("classpath:lignes-aeriennes-rte.csv").toPath()));
+             CsvTokenizer undergroundTokenizer = new CsvTokenizer(InputUtils.toBufferedReader(ResourceUtils.getFile("classpath:lignes-souterraines-rte.csv").toPath()))) {
+            CoordinatePool coordinatePool = new CoordinatePool();
+            segments = GeographicDataParser.parseLineSegments(aerialTokenizer, coordinatePool, ParsingOptions.DEFAULT).merge(GeographicDataParser.parseLineSegments(undergroundTokenizer, coordinatePool, ParsingOptions.DEFAULT));
+        }
+        assertEquals(BaseVoltage.VL_400_KV, segments.getBaseVoltage("ARGOEL71MANDA"));
+        assertEquals(BaseVoltage.VL_90_KV, segments.getBaseVoltage("COGNAL41JARNA"));
+        assertEquals(BaseVoltage.VL_63_KV, segments.getBaseVoltage("PALUNL31ROUS5"));
+        assertNull(segments.getBaseVoltage("UNKNOWN"));
+    }
+}
@@ -0,0 +1,463 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generator of synthetic ODRE substations, aerial lines and underground lines files, with the same columns as the
+ * real files, for benchmarks and load tests at the scale of the real grid or above.
+ * <p>
+ * Substations are spread at random over France. Each line joins a substation to a nearby one, its id being made of
+ * the codes of both substations as in the real files, and follows a random path from one to the other, with a pylon
+ * every few hundred meters for aerial lines. A line is cut into several records sharing their end pylons, listed in
+ * any order and in any direction. Some records carry the ids of two circuits on the same pylons, and some lines
+ * miss a record and then have two connected sets.
+ * <p>
+ * The files only depend on the seed and the settings: each of them is generated with its own random generator,
+ * so that they can be generated separately.
+ *
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+public final class OdreDatasetGenerator {
+
+    // rough sizes of the real files
+    public static final int SUBSTATIONS = 4_500;
+    public static final int AERIAL_LINES = 6_000;
+    public static final int UNDERGROUND_LINES = 1_500;
+
+    public static final String SUBSTATIONS_FILE = "postes-electriques-rte.csv";
+    public static final String AERIAL_LINES_FILE = "lignes-aeriennes-rte.csv";
+    public static final String UNDERGROUND_LINES_FILE = "lignes-souterraines-rte.csv";
+
+    static final List<String> SUBSTATIONS_COLUMNS = List.of(FileValidator.CODE_POSTE, "Nom poste", "Fonction", "Etat", "Tension (kV)",
+            FileValidator.LONGITUDE_POSTE_DD, FileValidator.LATITUDE_POSTE_DD, "G\u00e9o-point poste (DD)");
+    static final List<String> AERIAL_LINES_COLUMNS = List.of("Type ouvrage", FileValidator.CODE_LIGNE_1, "Nom ligne 1", "Propri\u00e9taire ligne 1",
+            "Etat", FileValidator.TENSION, "Source donn\u00e9e", FileValidator.GEO_SHAPE, "Nombre circuit",
+            FileValidator.CODE_LIGNE_2, "Nom ligne 2", "Propri\u00e9taire ligne 2", FileValidator.CODE_LIGNE_3, "Nom ligne 3", "Propri\u00e9taire ligne 3",
+            FileValidator.CODE_LIGNE_4, "Nom ligne 4", "Propri\u00e9taire ligne 4", FileValidator.CODE_LIGNE_5, "Nom ligne 5", "Proprietaire ligne 5",
+            "geo_point_2d");
+    static final List<String> UNDERGROUND_LINES_COLUMNS = List.of("Type ouvrage", FileValidator.CODE_LIGNE_1, "Nom ligne 1", "Propri\u00e9taire ligne 1",
+            "Etat", FileValidator.TENSION, "Nombre circuit", "Source donn\u00e9e",
+            FileValidator.CODE_LIGNE_2, "Nom ligne 2", "Propri\u00e9taire ligne 2", FileValidator.CODE_LIGNE_3, "Nom ligne 3", "Propri\u00e9taire ligne 3",
+            FileValidator.CODE_LIGNE_4, "Nom ligne 4", "Propri\u00e9taire ligne 4", FileValidator.CODE_LIGNE_5, "Nom ligne 5", "Propri\u00e9taire ligne 5",
+            FileValidator.GEO_SHAPE, "Geo Point");
+
+    private static final int MIN_SUBSTATIONS = 10;
+
+    private static final char BOM = '\uFEFF';
+
+    private static final double MIN_LAT = 43;
+    private static final double MAX_LAT = 50.5;
+    private static final double MIN_LON = -1.5;
+    private static final double MAX_LON = 7;
+    private static final double CELL_SIZE = 0.25;
+    private static final double METERS_PER_DEGREE = 111_320;
+
+    private static final String[] VOLTAGES = {"400kV", "225kV", "90kV", "63kV", "<45kV"};
+    // digit of the voltage in the line ids
+    private static final char[] VOLTAGE_CODES = {'7', '6', '4', '3', '1'};
+    private static final double[] VOLTAGE_SHARES = {0.06, 0.22, 0.3, 0.37, 0.05};
+
+    private final long seed;
+
+    private double scale = 1;
+
+    private double multiIdShare = 0.05;
+
+    private double splitShare = 0.02;
+
+    private boolean bom = true;
+
+    private Substations substations;
+
+    public OdreDatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param scale size of the files relative to the real ones, 1 for the size of the real grid
+     */
+    public OdreDatasetGenerator setScale(double scale) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("Scale must be positive: " + scale);
+        }
+        this.scale = scale;
+        substations = null;
+        return this;
+    }
+
+    /**
+     * @param multiIdShare share of the lines whose records also carry the id of a second circuit
+     */
+    public OdreDatasetGenerator setMultiIdShare(double multiIdShare) {
+        this.multiIdShare = multiIdShare;
+        return this;
+    }
+
+    /**
+     * @param splitShare share of the lines missing a record, and then made of two connected sets
+     */
+    public OdreDatasetGenerator setSplitShare(double splitShare) {
+        this.splitShare = splitShare;
+        return this;
+    }
+
+    /**
+     * @param bom true to start the files with a byte order mark, as the real files do
+     */
+    public OdreDatasetGenerator setBom(boolean bom) {
+        this.bom = bom;
+        return this;
+    }
+
+    public int getSubstationCount() {
+        return (int) Math.max(MIN_SUBSTATIONS, Math.round(SUBSTATIONS * scale));
+    }
+
+    /**
+     * Generate the three files in the given directory, with the names of the real files.
+     */
+    public void generate(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(SUBSTATIONS_FILE), StandardCharsets.UTF_8)) {
+            writeSubstations(writer);
+        }
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(AERIAL_LINES_FILE), StandardCharsets.UTF_8)) {
+            writeAerialLines(writer);
+        }
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(UNDERGROUND_LINES_FILE), StandardCharsets.UTF_8)) {
+            writeUndergroundLines(writer);
+        }
+    }
+
+    public String substations() {
+        StringWriter writer = new StringWriter();
+        writeSubstations(writer);
+        return writer.toString();
+    }
+
+    public String aerialLines() {
+        StringWriter writer = new StringWriter();
+        writeAerialLines(writer);
+        return writer.toString();
+    }
+
+    public String undergroundLines() {
+        StringWriter writer = new StringWriter();
+        writeUndergroundLines(writer);
+        return writer.toString();
+    }
+
+    public void writeSubstations(Writer writer) {
+        Substations subs = getSubstations();
+        CsvWriter csv = new CsvWriter(writer, SUBSTATIONS_COLUMNS);
+        for (int i = 0; i < subs.codes.length; i++) {
+            csv.set(FileValidator.CODE_POSTE, subs.codes[i]);
+            csv.set("Nom poste", "POSTE " + subs.codes[i]);
+            csv.set("Fonction", "POSTE DE TRANSFORMATION");
+            csv.set("Etat", "E");
+            csv.set("Tension (kV)", VOLTAGES[subs.voltages[i]]);
+            csv.set(FileValidator.LONGITUDE_POSTE_DD, Double.toString(subs.lons[i]));
+            csv.set(FileValidator.LATITUDE_POSTE_DD, Double.toString(subs.lats[i]));
+            csv.set("G\u00e9o-point poste (DD)", subs.lats[i] + "," + subs.lons[i]);
+            csv.endRecord();
+        }
+        csv.flush();
+    }
+
+    /**
+     * @return the number of lines, a line being counted once per circuit
+     */
+    public int writeAerialLines(Writer writer) {
+        return writeLines(writer, AERIAL_LINES_COLUMNS, "AERIEN", AERIAL_LINES, 350, "1234", seed + 1);
+    }
+
+    /**
+     * @return the number of lines, a line being counted once per circuit
+     */
+    public int writeUndergroundLines(Writer writer) {
+        // circuit numbers differ from the aerial ones, so that the ids of both files do not collide
+        return writeLines(writer, UNDERGROUND_LINES_COLUMNS, "SOUTERRAIN", UNDERGROUND_LINES, 100, "56789", seed + 2);
+    }
+
+    private int writeLines(Writer writer, List<String> columns, String type, int realLineCount, double spanMeters,
+                           String circuits, long fileSeed) {
+        Substations subs = getSubstations();
+        Random random = new Random(fileSeed);
+        CsvWriter csv = new CsvWriter(writer, columns);
+        Set<String> ids = new HashSet<>();
+        int lineCount = (int) Math.max(1, Math.round(realLineCount * scale));
+        int writtenLines = 0;
+        int attempts = 0;
+        while (writtenLines < lineCount) {
+            if (++attempts > 100 * lineCount) {
+                throw new IllegalStateException("Not enough substations for " + lineCount + " lines");
+            }
+            int substation1 = random.nextInt(subs.codes.length);
+            int substation2 = subs.nearby(substation1, random);
+            int voltage = subs.voltages[substation1];
+            String id = nextId(subs, substation1, substation2, voltage, circuits, ids);
+            String twinId = random.nextDouble() < multiIdShare ? nextId(subs, substation1, substation2, voltage, circuits, ids) : null;
+            if (id == null) {
+                continue;
+            }
+            double[] path = path(subs, substation1, substation2, spanMeters, random);
+            int pylonCount = path.length / 2;
+            boolean split = random.nextDouble() < splitShare;
+            int recordCount = Math.min(pylonCount - 1, (split ? 3 : 1) + random.nextInt(5));
+            // record boundaries, consecutive records sharing a pylon
+            int[] bounds = new int[recordCount + 1];
+            for (int r = 0; r <= recordCount; r++) {
+                bounds[r] = (int) ((long) r * (pylonCount - 1) / recordCount);
+            }
+            int missingRecord = split && recordCount >= 3 ? 1 + random.nextInt(recordCount - 2) : -1;
+            int firstRecord = random.nextInt(recordCount);
+            for (int k = 0; k < recordCount; k++) {
+                int r = (firstRecord + k) % recordCount;
+                if (r == missingRecord) {
+                    continue;
+                }
+                csv.set("Type ouvrage", type);
+                csv.set(FileValidator.CODE_LIGNE_1, id);
+                csv.set("Nom ligne 1", "LIAISON " + VOLTAGES[voltage] + " " + subs.codes[substation1] + " - " + subs.codes[substation2]);
+                csv.set("Propri\u00e9taire ligne 1", "RTE");
+                csv.set("Etat", "EN EXPLOITATION");
+                csv.set(FileValidator.TENSION, VOLTAGES[voltage]);
+                csv.set("Source donn\u00e9e", "RTE");
+                csv.set("Nombre circuit", twinId != null ? "2" : "1");
+                if (twinId != null) {
+                    csv.set(FileValidator.CODE_LIGNE_2, twinId);
+                    csv.set("Propri\u00e9taire ligne 2", "RTE");
+                }
+                csv.set(FileValidator.GEO_SHAPE, geoShape(path, bounds[r], bounds[r + 1], random.nextBoolean()));
+                int middle = (bounds[r] + bounds[r + 1]) / 2;
+                csv.set(columns.get(columns.size() - 1), path[2 * middle] + ", " + path[2 * middle + 1]);
+                csv.endRecord();
+            }
+            writtenLines += twinId != null ? 2 : 1;
+        }
+        csv.flush();
+        return writtenLines;
+    }
+
+    /**
+     * @return a line id made of the codes of the substations, the voltage and the first free circuit number,
+     * or null if all the circuits are taken
+     */
+    private static String nextId(Substations subs, int substation1, int substation2, int voltage, String circuits, Set<String> ids) {
+        for (int c = 0; c < circuits.length(); c++) {
+            String id = subs.codes[substation1] + "L" + VOLTAGE_CODES[voltage] + circuits.charAt(c) + subs.codes[substation2];
+            if (ids.add(id)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the interleaved latitudes and longitudes of the pylons of a line between two substations: a straight
+     * path deviated by a random walk which is zero at both ends, the ends being close to the substations
+     */
+    private static double[] path(Substations subs, int substation1, int substation2, double spanMeters, Random random) {
+        double lat1 = subs.lats[substation1] + (random.nextDouble() - 0.5) * 0.002;
+        double lon1 = subs.lons[substation1] + (random.nextDouble() - 0.5) * 0.002;
+        double lat2 = subs.lats[substation2] + (random.nextDouble() - 0.5) * 0.002;
+        double lon2 = subs.lons[substation2] + (random.nextDouble() - 0.5) * 0.002;
+        double length = Math.hypot(lat2 - lat1, (lon2 - lon1) * Math.cos(Math.toRadians(lat1))) * METERS_PER_DEGREE;
+        int pylonCount = Math.max(2, (int) (length / spanMeters) + 1);
+        double[] walk = new double[pylonCount];
+        for (int i = 1; i < pylonCount; i++) {
+            walk[i] = walk[i - 1] + random.nextGaussian() * spanMeters * 0.2 / METERS_PER_DEGREE;
+        }
+        // perpendicular to the straight path
+        double normalLat = -(lon2 - lon1);
+        double normalLon = lat2 - lat1;
+        double normalLength = Math.max(Math.hypot(normalLat, normalLon), 1e-12);
+        double[] path = new double[2 * pylonCount];
+        for (int i = 0; i < pylonCount; i++) {
+            double t = (double) i / (pylonCount - 1);
+            double deviation = walk[i] - t * walk[pylonCount - 1];
+            path[2 * i] = round(lat1 + t * (lat2 - lat1) + deviation * normalLat / normalLength);
+            path[2 * i + 1] = round(lon1 + t * (lon2 - lon1) + deviation * normalLon / normalLength);
+        }
+        return path;
+    }
+
+    private static double round(double degrees) {
+        return Math.round(degrees * 1e10) / 1e10;
+    }
+
+    private static String geoShape(double[] path, int from, int to, boolean reversed) {
+        StringBuilder json = new StringBuilder(32 * (to - from + 1) + 40);
+        json.append("{\"coordinates\": [");
+        for (int k = 0; k <= to - from; k++) {
+            int i = reversed ? to - k : from + k;
+            if (k > 0) {
+                json.append(", ");
+            }
+            json.append('[').append(path[2 * i + 1]).append(", ").append(path[2 * i]).append(']');
+        }
+        return json.append("], \"type\": \"LineString\"}").toString();
+    }
+
+    private Substations getSubstations() {
+        if (substations == null) {
+            substations = new Substations(getSubstationCount(), new Random(seed));
+        }
+        return substations;
+    }
+
+    /**
+     * Substations spread at random over France, indexed by cells of a grid to find nearby substations.
+     */
+    private static final class Substations {
+
+        private final String[] codes;
+        private final double[] lats;
+        private final double[] lons;
+        private final int[] voltages;
+        private final Map<Long, List<Integer>> cells = new HashMap<>();
+
+        private Substations(int count, Random random) {
+            codes = new String[count];
+            lats = new double[count];
+            lons = new double[count];
+            voltages = new int[count];
+            for (int i = 0; i < count; i++) {
+                // 5 characters codes, as the real ones
+                String number = Integer.toString(i, 36).toUpperCase();
+                codes[i] = "S" + "0".repeat(Math.max(0, 4 - number.length())) + number;
+                lats[i] = round(MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT));
+                lons[i] = round(MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON));
+                voltages[i] = voltage(random.nextDouble());
+                cells.computeIfAbsent(cell(lats[i], lons[i]), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        private static int voltage(double draw) {
+            double cumulatedShare = 0;
+            for (int v = 0; v < VOLTAGE_SHARES.length - 1; v++) {
+                cumulatedShare += VOLTAGE_SHARES[v];
+                if (draw < cumulatedShare) {
+                    return v;
+                }
+            }
+            return VOLTAGE_SHARES.length - 1;
+        }
+
+        private static long cell(double lat, double lon) {
+            return ((long) Math.floor(lat / CELL_SIZE) << 32) + (long) Math.floor(lon / CELL_SIZE);
+        }
+
+        /**
+         * @return another substation in the cell of the given one or in the neighbouring cells, the neighbourhood
+         * being widened until another substation is found
+         */
+        private int nearby(int substation, Random random) {
+            List<Integer> candidates = new ArrayList<>();
+            long latCell = (long) Math.floor(lats[substation] / CELL_SIZE);
+            long lonCell = (long) Math.floor(lons[substation] / CELL_SIZE);
+            for (int radius = 1; candidates.isEmpty(); radius++) {
+                for (long i = latCell - radius; i <= latCell + radius; i++) {
+                    for (long j = lonCell - radius; j <= lonCell + radius; j++) {
+                        candidates.addAll(cells.getOrDefault((i << 32) + j, List.of()));
+                    }
+                }
+                candidates.remove(Integer.valueOf(substation));
+            }
+            return candidates.get(random.nextInt(candidates.size()));
+        }
+    }
+
+    /**
+     * Writer of semicolon separated records with the given columns, fields being quoted when needed.
+     */
+    private final class CsvWriter {
+
+        private final Writer writer;
+        private final Map<String, Integer> columnIndexes = new HashMap<>();
+        private final String[] fields;
+
+        private CsvWriter(Writer writer, List<String> columns) {
+            this.writer = writer instanceof BufferedWriter || writer instanceof StringWriter ? writer : new BufferedWriter(writer);
+            this.fields = new String[columns.size()];
+            for (int i = 0; i < columns.size(); i++) {
+                columnIndexes.put(columns.get(i), i);
+            }
+            try {
+                if (bom) {
+                    this.writer.write(BOM);
+                }
+                this.writer.write(String.join(";", columns));
+                this.writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void set(String column, String value) {
+            fields[columnIndexes.get(column)] = value;
+        }
+
+        private void endRecord() {
+            try {
+                for (int i = 0; i < fields.length; i++) {
+                    if (i > 0) {
+                        writer.write(';');
+                    }
+                    String field = fields[i];
+                    if (field != null && (field.indexOf(';') >= 0 || field.indexOf('"') >= 0)) {
+                        writer.write('"');
+                        writer.write(field.replace("\"", "\"\""));
+                        writer.write('"');
+                    } else if (field != null) {
+                        writer.write(field);
+                    }
+                    fields[i] = null;
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Generate the files of a synthetic dataset: directory [scale [seed]].
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: OdreDatasetGenerator directory [scale [seed]]");
+        }
+        double scale = args.length > 1 ? Double.parseDouble(args[1]) : 1;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        new OdreDatasetGenerator(seed).setScale(scale).generate(Path.of(args[0]));
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.dto.LineGeoData;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ResourceUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class OdreDatasetGeneratorTest {
+
+    private static BufferedReader reader(String csv) {
+        return new BufferedReader(new StringReader(csv));
+    }
+
+    private static List<String> header(String csv) throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(reader(csv))) {
+            return tokenizer.getHeader();
+        }
+    }
+
+    private static List<String> testFileHeader(String file) throws IOException {
+        return header(Files.readString(ResourceUtils.getFile("classpath:" + file).toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testHeaders() throws IOException {
+        OdreDatasetGenerator generator = new OdreDatasetGenerator(0).setScale(0.01);
+        String substations = generator.substations();
+        assertEquals('\uFEFF', substations.charAt(0));
+        assertEquals(testFileHeader(OdreDatasetGenerator.SUBSTATIONS_FILE), header(substations));
+        assertEquals(testFileHeader(OdreDatasetGenerator.AERIAL_LINES_FILE), header(generator.aerialLines()));
+        assertEquals(testFileHeader(OdreDatasetGenerator.UNDERGROUND_LINES_FILE), header(generator.undergroundLines()));
+
+        assertNotEquals('\uFEFF', generator.setBom(false).substations().charAt(0));
+    }
+
+    @Test
+    void testDeterministic() {
+        OdreDatasetGenerator generator = new OdreDatasetGenerator(42).setScale(0.01);
+        String aerialLines = generator.aerialLines();
+        assertEquals(aerialLines, new OdreDatasetGenerator(42).setScale(0.01).aerialLines());
+        assertEquals(generator.substations(), new OdreDatasetGenerator(42).setScale(0.01).substations());
+        assertNotEquals(aerialLines, new OdreDatasetGenerator(43).setScale(0.01).aerialLines());
+        assertThrows(IllegalArgumentException.class, () -> generator.setScale(0));
+    }
+
+    @Test
+    void testParse() {
+        OdreDatasetGenerator generator = new OdreDatasetGenerator(0).setScale(0.02);
+        StringWriter aerialLines = new StringWriter();
+        int aerialLineCount = generator.writeAerialLines(aerialLines);
+        StringWriter undergroundLines = new StringWriter();
+        int undergroundLineCount = generator.writeUndergroundLines(undergroundLines);
+        assertEquals(Math.round(OdreDatasetGenerator.AERIAL_LINES * 0.02), aerialLineCount);
+        assertEquals(Math.round(OdreDatasetGenerator.UNDERGROUND_LINES * 0.02), undergroundLineCount);
+
+        assertEquals(generator.getSubstationCount(), GeographicDataParser.parseSubstations(reader(generator.substations())).size());
+        Map<String, LineGeoData> lines = GeographicDataParser.parseLines(reader(aerialLines.toString()), reader(undergroundLines.toString()),
+                GeographicDataParser.parseSubstations(reader(generator.substations())));
+        assertEquals(aerialLineCount + undergroundLineCount, lines.size());
+        // the ends of the lines are close to their substations
+        assertTrue(lines.values().stream().noneMatch(line -> line.getSubstationStart().isEmpty() || line.getSubstationEnd().isEmpty()));
+    }
+
+    @Test
+    void testMultiIdsAndSplitLines() throws IOException {
+        OdreDatasetGenerator generator = new OdreDatasetGenerator(0).setScale(0.01).setMultiIdShare(1).setSplitShare(1);
+        StringWriter aerialLines = new StringWriter();
+        int aerialLineCount = generator.writeAerialLines(aerialLines);
+        LineSegments segments;
+        try (CsvTokenizer tokenizer = new CsvTokenizer(reader(aerialLines.toString()))) {
+            segments = GeographicDataParser.parseLineSegments(tokenizer, new CoordinatePool(), ParsingOptions.DEFAULT);
+        }
+        assertEquals(aerialLineCount, segments.size());
+
+        // all the lines are assembled from their two connected sets
+        StringWriter undergroundLines = new StringWriter();
+        int undergroundLineCount = generator.writeUndergroundLines(undergroundLines);
+        Map<String, LineGeoData> lines = GeographicDataParser.parseLines(reader(aerialLines.toString()), reader(undergroundLines.toString()),
+                GeographicDataParser.parseSubstations(reader(generator.substations())));
+        assertEquals(aerialLineCount + undergroundLineCount, lines.size());
+    }
+}
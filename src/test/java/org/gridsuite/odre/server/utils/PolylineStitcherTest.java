@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.dto.Coordinate;
+import org.gridsuite.odre.server.dto.PackedCoordinates;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class PolylineStitcherTest {
+
+    private final CoordinatePool pool = new CoordinatePool();
+
+    private final PolylineStitcher stitcher = new PolylineStitcher(pool);
+
+    private void addSegments(double[]... segments) {
+        stitcher.clear();
+        PooledSegments pooledSegments = segmentsOf(segments);
+        for (int part = 0; part < pooledSegments.getPartCount(); part++) {
+            stitcher.addSegment(pooledSegments, part);
+        }
+    }
+
+    private PooledSegments segmentsOf(double[]... segments) {
+        PooledSegments pooledSegments = new PooledSegments();
+        for (double[] segment : segments) {
+            int[] indices = new int[segment.length / 2];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = pool.intern(segment[2 * i], segment[2 * i + 1]);
+            }
+            pooledSegments.addPart(indices, 0, indices.length);
+        }
+        return pooledSegments;
+    }
+
+    private static List<Coordinate> coordinates(double... latLon) {
+        return new PackedCoordinates(latLon);
+    }
+
+    @Test
+    void testChain() {
+        // segments out of order, sharing their ends
+        addSegments(new double[] {2, 2, 3, 3}, new double[] {0, 0, 1, 1, 2, 2}, new double[] {3, 3, 4, 4});
+        assertEquals(5, stitcher.getVertexCount());
+        assertEquals(1, stitcher.findComponents());
+        assertEquals(2, stitcher.getEndCount(0));
+        // walked from its first end in order of appearance
+        assertEquals(coordinates(0, 0, 1, 1, 2, 2, 3, 3, 4, 4), stitcher.walk(0));
+    }
+
+    @Test
+    void testDegrees() {
+        // a segment read twice makes multiple edges, which are not ends
+        addSegments(new double[] {0, 0, 1, 1, 2, 2}, new double[] {1, 1, 2, 2}, new double[] {2, 2, 3, 3});
+        assertEquals(1, stitcher.findComponents());
+        assertEquals(2, stitcher.getEndCount(0));
+        assertEquals(coordinates(0, 0, 1, 1, 2, 2, 3, 3), stitcher.walk(0));
+
+        // a loop counts once: an isolated point with a loop is a single end
+        addSegments(new double[] {0, 0, 0, 0});
+        assertEquals(1, stitcher.findComponents());
+        assertEquals(1, stitcher.getEndCount(0));
+
+        // a fork has three ends
+        addSegments(new double[] {0, 0, 1, 1, 2, 2}, new double[] {1, 1, 5, 5});
+        assertEquals(1, stitcher.findComponents());
+        assertEquals(3, stitcher.getEndCount(0));
+
+        // a ring has none
+        addSegments(new double[] {0, 0, 1, 1, 2, 2, 0, 0});
+        assertEquals(1, stitcher.findComponents());
+        assertEquals(0, stitcher.getEndCount(0));
+        assertThrows(IllegalStateException.class, () -> stitcher.walk(0));
+    }
+
+    @Test
+    void testComponents() {
+        addSegments(new double[] {0, 0, 1, 1}, new double[] {5, 5, 6, 6}, new double[] {1, 1, 2, 2}, new double[] {7, 7});
+        assertEquals(3, stitcher.findComponents());
+        assertEquals(coordinates(0, 0, 1, 1, 2, 2), stitcher.walk(0));
+        assertEquals(coordinates(5, 5, 6, 6), stitcher.walk(1));
+        assertEquals(0, stitcher.getEndCount(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> stitcher.getEndCount(3));
+
+        // components are computed again once segments are added
+        stitcher.addSegment(segmentsOf(new double[] {2, 2, 5, 5}), 0);
+        assertThrows(IllegalStateException.class, () -> stitcher.getEndCount(0));
+        assertEquals(2, stitcher.findComponents());
+        assertEquals(coordinates(0, 0, 1, 1, 2, 2, 5, 5, 6, 6), stitcher.walk(0));
+    }
+
+    @Test
+    void testLargeLine() {
+        // the stitcher grows, and is reused from one line to the next
+        double[] line = new double[20000];
+        for (int i = 0; i < 10000; i++) {
+            line[2 * i] = 45 + i * 1e-4;
+            line[2 * i + 1] = 2 - i * 1e-4;
+        }
+        PooledSegments segments = segmentsOf(line);
+        for (int round = 0; round < 2; round++) {
+            stitcher.clear();
+            stitcher.addSegment(segments, 0);
+            assertEquals(10000, stitcher.getVertexCount());
+            assertEquals(1, stitcher.findComponents());
+            PackedCoordinates walk = stitcher.walk(0);
+            assertEquals(10000, walk.size());
+            assertEquals(45, walk.getLat(0), 0);
+            assertEquals(2 - 9999 * 1e-4, walk.getLon(9999), 0);
+        }
+    }
+}
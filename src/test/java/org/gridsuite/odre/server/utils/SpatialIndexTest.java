@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class SpatialIndexTest {
+
+    private static List<Integer> query(SpatialIndex index, double minLat, double minLon, double maxLat, double maxLon) {
+        List<Integer> ids = new ArrayList<>();
+        index.query(minLat, minLon, maxLat, maxLon, ids::add);
+        ids.sort(null);
+        return ids;
+    }
+
+    @Test
+    void testSmallIndexes() {
+        assertEquals(List.of(), query(SpatialIndex.EMPTY, -90, -180, 90, 180));
+        assertThrows(IllegalArgumentException.class, () -> new SpatialIndex(new double[3]));
+
+        SpatialIndex single = new SpatialIndex(new double[] {45, 2, 46, 3});
+        assertEquals(1, single.size());
+        assertEquals(List.of(0), query(single, 46, 3, 47, 4));
+        assertEquals(List.of(), query(single, 46.1, 3, 47, 4));
+
+        SpatialIndex points = new SpatialIndex(new double[] {45, 2, 45, 2, 46, 3, 46, 3, 47, -1, 47, -1});
+        assertEquals(List.of(0, 1), query(points, 44, 1, 46, 3));
+        assertEquals(List.of(2), query(points, 47, -1, 47, -1));
+    }
+
+    @Test
+    void testSameAsLinearScan() {
+        Random random = new Random(42);
+        int size = 5000;
+        double[] boxes = new double[4 * size];
+        for (int i = 0; i < size; i++) {
+            double lat = 42 + random.nextDouble() * 9;
+            double lon = -5 + random.nextDouble() * 13;
+            boxes[4 * i] = lat;
+            boxes[4 * i + 1] = lon;
+            boxes[4 * i + 2] = lat + random.nextDouble() * 0.1;
+            boxes[4 * i + 3] = lon + random.nextDouble() * 0.1;
+        }
+        SpatialIndex index = new SpatialIndex(boxes);
+        assertEquals(size, index.size());
+        assertEquals(size, query(index, -90, -180, 90, 180).size());
+        for (int q = 0; q < 200; q++) {
+            double minLat = 42 + random.nextDouble() * 9;
+            double minLon = -5 + random.nextDouble() * 13;
+            double maxLat = minLat + random.nextDouble();
+            double maxLon = minLon + random.nextDouble();
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (boxes[4 * i] <= maxLat && boxes[4 * i + 1] <= maxLon && boxes[4 * i + 2] >= minLat && boxes[4 * i + 3] >= minLon) {
+                    expected.add(i);
+                }
+            }
+            assertEquals(expected, query(index, minLat, minLon, maxLat, maxLon));
+        }
+    }
+}
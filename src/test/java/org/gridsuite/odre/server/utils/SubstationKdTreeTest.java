@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.odre.server.utils;
+
+import org.gridsuite.odre.server.dto.Coordinate;
+import org.gridsuite.odre.server.dto.SubstationGeoData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Hugo Marcellin <hugo.marcelin at rte-france.com>
+ */
+class SubstationKdTreeTest {
+
+    private static SubstationGeoData substation(String id, double lat, double lon) {
+        return new SubstationGeoData(id, "FR", new Coordinate(lat, lon));
+    }
+
+    // same planar distance as the tree
+    private static double distance(SubstationGeoData substation, double lat, double lon) {
+        double metersPerDegreeLat = Math.toRadians(DistanceCalculator.EARTH_RADIUS);
+        double dy = (substation.getCoordinate().getLat() - lat) * metersPerDegreeLat;
+        double dx = (substation.getCoordinate().getLon() - lon) * metersPerDegreeLat * Math.cos(Math.toRadians(lat));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    @Test
+    void testSmallTrees() {
+        SubstationKdTree empty = new SubstationKdTree(List.of());
+        assertEquals(0, empty.size());
+        assertNull(empty.nearest(45, 2, Double.MAX_VALUE, null));
+
+        SubstationKdTree tree = new SubstationKdTree(List.of(substation("A", 45, 2), substation("B", 45.01, 2), substation("C", 46, 3)));
+        assertEquals(3, tree.size());
+        assertEquals("A", tree.nearest(45.004, 2, 1000, null));
+        assertEquals("B", tree.nearest(45.006, 2, 1000, null));
+        // 0.01 degree of latitude is about 1112 m
+        assertEquals("B", tree.nearest(45, 2, 1200, "A"));
+        assertNull(tree.nearest(45, 2, 1000, "A"));
+        assertNull(tree.nearest(44, 2, 1000, null));
+        assertEquals("A", tree.nearest(44, 2, 200_000, null));
+        assertEquals("A", tree.nearest(45, 2, 0, null));
+    }
+
+    @Test
+    void testSameAsLinearScan() {
+        Random random = new Random(42);
+        List<SubstationGeoData> substations = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            substations.add(substation("S" + i, 42 + random.nextDouble() * 9, -5 + random.nextDouble() * 13));
+        }
+        // a few substations at the same place
+        for (int i = 0; i < 5; i++) {
+            substations.add(substation("D" + i, 47, 2));
+        }
+        Map<String, SubstationGeoData> substationsById = substations.stream().collect(Collectors.toMap(SubstationGeoData::getId, Function.identity()));
+        SubstationKdTree tree = new SubstationKdTree(substations);
+        assertEquals(substations.size(), tree.size());
+
+        for (int q = 0; q < 1000; q++) {
+            double lat = 42 + random.nextDouble() * 9;
+            double lon = -5 + random.nextDouble() * 13;
+            double maxDistance = q % 2 == 0 ? 5000 : 50_000;
+            String excludedId = q % 3 == 0 ? "S" + random.nextInt(substations.size()) : null;
+            double expectedDistance = substations.stream()
+                    .filter(substation -> !substation.getId().equals(excludedId))
+                    .mapToDouble(substation -> distance(substation, lat, lon))
+                    .filter(distance -> distance <= maxDistance)
+                    .min().orElse(Double.NaN);
+            String nearest = tree.nearest(lat, lon, maxDistance, excludedId);
+            if (Double.isNaN(expectedDistance)) {
+                assertNull(nearest);
+            } else {
+                assertNotNull(nearest);
+                assertNotEquals(excludedId, nearest);
+                assertEquals(expectedDistance, distance(substationsById.get(nearest), lat, lon), 1e-6);
+            }
+        }
+
+        String nearest = tree.nearest(47, 2, 1, null);
+        assertTrue(nearest.startsWith("D"));
+        assertTrue(tree.nearest(47, 2, 1, nearest).startsWith("D"));
+    }
+}